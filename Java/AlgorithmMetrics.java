@@ -0,0 +1,137 @@
+package com.pathfinding.common;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Main class for the aggregated metrics of one algorithm.
+ * The counters are striped, so queries on many threads can record their statistics without contention.
+ */
+public class AlgorithmMetrics implements AlgorithmMetricsMXBean {
+
+  private final String algorithm; //The simple class name of the algorithm.
+  private final LongAdder queries = new LongAdder(); //The number of answered queries.
+  private final LongAdder foundPaths = new LongAdder(); //The number of queries which found a path.
+  private final LongAdder incompletePaths = new LongAdder(); //The number of queries which were stopped by a limit.
+  private final LongAdder expansions = new LongAdder(); //The total number of expanded nodes.
+  private final LongAdder pushes = new LongAdder(); //The total number of nodes added to the open node lists.
+  private final LongAdder pops = new LongAdder(); //The total number of nodes removed from the open node lists.
+  private final LongAccumulator peakOpenSize = new LongAccumulator(Math::max, 0); //The highest open list size of any query.
+  private final LatencyHistogram latencies = new LatencyHistogram(); //The latency of every query in nanoseconds.
+
+  /**
+   * Creates empty metrics.
+   * @param algorithm The simple class name of the algorithm.
+   */
+  public AlgorithmMetrics(String algorithm){
+    this.algorithm = algorithm;
+  }
+
+  /**
+   * Adds the statistics of a query to the metrics.
+   * @param statistics The statistics of the query.
+   */
+  public void record(SearchStatistics statistics){
+    queries.increment();
+    if (!statistics.isComplete()) {
+      incompletePaths.increment();
+    } else if (statistics.getSteps() > 0) {
+      foundPaths.increment();
+    }
+    expansions.add(statistics.getExpansions());
+    pushes.add(statistics.getPushes());
+    pops.add(statistics.getPops());
+    peakOpenSize.accumulate(statistics.getPeakOpenSize());
+    latencies.record(statistics.getLatencyNanos());
+  }
+
+  /**
+   * Returns the name of the algorithm.
+   * @return The simple class name of the algorithm.
+   */
+  public String getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * Returns the latency histogram of the algorithm.
+   * @return The histogram of the query latencies in nanoseconds.
+   */
+  public LatencyHistogram getLatencies() {
+    return latencies;
+  }
+
+  @Override
+  public long getQueries() {
+    return queries.sum();
+  }
+
+  @Override
+  public long getFoundPaths() {
+    return foundPaths.sum();
+  }
+
+  @Override
+  public long getIncompletePaths() {
+    return incompletePaths.sum();
+  }
+
+  @Override
+  public long getExpansions() {
+    return expansions.sum();
+  }
+
+  @Override
+  public long getPushes() {
+    return pushes.sum();
+  }
+
+  @Override
+  public long getPops() {
+    return pops.sum();
+  }
+
+  @Override
+  public long getPeakOpenSize() {
+    return peakOpenSize.get();
+  }
+
+  @Override
+  public double getMeanLatencyMicros() {
+    return latencies.getMean() / 1000;
+  }
+
+  @Override
+  public double getMedianLatencyMicros() {
+    return latencies.getPercentile(50) / 1000.0;
+  }
+
+  @Override
+  public double getP99LatencyMicros() {
+    return latencies.getPercentile(99) / 1000.0;
+  }
+
+  @Override
+  public double getMaxLatencyMicros() {
+    return latencies.getMax() / 1000.0;
+  }
+
+  @Override
+  public void reset() {
+    queries.reset();
+    foundPaths.reset();
+    incompletePaths.reset();
+    expansions.reset();
+    pushes.reset();
+    pops.reset();
+    peakOpenSize.reset();
+    latencies.reset();
+  }
+
+  @Override
+  public String toString(){
+    return String.format("%s: %d queries, %d found, %d stopped by a limit, %d expansions, %d pushes, %d pops, peak open size %d, latency mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us",
+        algorithm, getQueries(), getFoundPaths(), getIncompletePaths(), getExpansions(), getPushes(), getPops(), getPeakOpenSize(),
+        getMeanLatencyMicros(), getMedianLatencyMicros(), getP99LatencyMicros(), getMaxLatencyMicros());
+  }
+}
@@ -0,0 +1,68 @@
+package com.pathfinding.common;
+
+/**
+ * The Main interface for the JMX view of the metrics of an algorithm.
+ * Every algorithm is registered as "com.pathfinding:type=Pathfinding,name=" followed by its simple class name.
+ */
+public interface AlgorithmMetricsMXBean {
+
+  /**
+   * @return The number of answered queries.
+   */
+  long getQueries();
+
+  /**
+   * @return The number of queries which found a path.
+   */
+  long getFoundPaths();
+
+  /**
+   * @return The number of queries which were stopped by a limit.
+   */
+  long getIncompletePaths();
+
+  /**
+   * @return The total number of expanded nodes.
+   */
+  long getExpansions();
+
+  /**
+   * @return The total number of nodes added to the open node lists.
+   */
+  long getPushes();
+
+  /**
+   * @return The total number of nodes removed from the open node lists.
+   */
+  long getPops();
+
+  /**
+   * @return The highest open list size of any query.
+   */
+  long getPeakOpenSize();
+
+  /**
+   * @return The average latency in microseconds.
+   */
+  double getMeanLatencyMicros();
+
+  /**
+   * @return The median latency in microseconds.
+   */
+  double getMedianLatencyMicros();
+
+  /**
+   * @return The 99th percentile of the latency in microseconds.
+   */
+  double getP99LatencyMicros();
+
+  /**
+   * @return The highest latency in microseconds.
+   */
+  double getMaxLatencyMicros();
+
+  /**
+   * Resets every counter and the latency histogram.
+   */
+  void reset();
+}
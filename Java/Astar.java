@@ -0,0 +1,220 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for A* pathfinding.
+ * Contains all the logic required to generate the path.
+ * With {@link Landmarks} the heuristic also accounts for walls and costs, which makes it expand far fewer nodes on cluttered boards.
+ * With a weight above one the heuristic is multiplied by the weight (weighted A*), which heads for the destination more greedily.
+ * Such a search expands fewer nodes, and its path costs at most the weight times the cost of the cheapest path.
+ * For a bound which is kept with fewer expansions on open boards, see {@link FocalSearch}.
+ */
+public class Astar extends Pathfinding {
+
+  private final Landmarks landmarks; //The landmarks of the heuristic, null to use the Manhattan distance only.
+  private volatile double weight = 1; //The weight of the heuristic, 1 for the cheapest paths.
+
+  public Astar(Board boardHandler){
+    this(boardHandler, null);
+  }
+
+  public Astar(GridGraph graph){
+    this(graph, null);
+  }
+
+  /**
+   * Sets the reference Board and the landmarks used by the heuristic.
+   * @param boardHandler The Board on which the path is calculated.
+   * @param landmarks The landmarks of the same board, or null.
+   */
+  public Astar(Board boardHandler, Landmarks landmarks){
+    super(boardHandler);
+    this.landmarks = landmarks;
+  }
+
+  /**
+   * Sets the reference grid and the landmarks used by the heuristic.
+   * @param graph The grid on which the path is calculated.
+   * @param landmarks The landmarks of the same grid, or null.
+   */
+  public Astar(GridGraph graph, Landmarks landmarks){
+    super(graph);
+    this.landmarks = landmarks;
+  }
+
+  /**
+   * Returns the weight of the heuristic.
+   * @return The weight, 1 by default.
+   */
+  public double getWeight(){
+    return weight;
+  }
+
+  /**
+   * Sets the weight of the heuristic, which applies to every search started after this call.
+   * @param weight The weight, at least 1, which is also the bound of the paths.
+   */
+  public void setWeight(double weight){
+    if (!(weight >= 1 && weight < Double.POSITIVE_INFINITY)) {
+      throw new IllegalArgumentException("The weight must be at least one: " + weight);
+    }
+    this.weight = weight;
+  }
+
+  /**
+   * Returns the bound of the paths, which is the weight of the heuristic.
+   * @return The weight.
+   */
+  @Override
+  public double getSuboptimalityBound(){
+    return weight;
+  }
+
+  /**
+   * Calculates the path to the target using the A* algorithm, then returns it.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the G value and the parent of every node.
+   * @return The calculated path.
+   * {@link Search}
+   */
+  @Override
+  protected Path search(int start, int destination, SearchContext context){
+    return createSearch(start, destination, context).complete();
+  }
+
+  @Override
+  protected SearchHandle createSearch(int start, int destination, SearchContext context){
+    return new Search(start, destination, context);
+  }
+
+  /**
+   * The Main class for an A* search which runs in slices.
+   * The open node list is an indexed binary heap ordered by the F value, ties are broken in favour of the higher G value.
+   */
+  private class Search extends SearchHandle {
+    private final IndexedHeap openNodes; //The open node list of the context.
+    private final int[] neighbours = new int[4]; //The neighbours of the current node.
+    private final double searchWeight = weight; //The weight of the heuristic, fixed for the whole search.
+
+    private Search(int start, int destination, SearchContext context){
+      super(Astar.this, destination, context);
+
+      //The heap and the closed flags are addressed by the node index, so every membership check is O(1).
+      openNodes = context.getHeap();
+      context.reach(start, 0, -1);
+      openNodes.add(start, getFValue(0, start, destination, searchWeight), 0);
+    }
+
+    @Override
+    protected void advance(int maxExpansions){
+      for (int expansions = 0; expansions < maxExpansions; expansions++) {
+
+        if (openNodes.isEmpty()) {
+          finish(Status.UNREACHABLE, buildPath(-1, context));
+          return;
+        }
+
+        //Selects the node with the lowest F value from the open node list, then checks it's neighbours.
+        int currentNode = openNodes.poll();
+        context.close(currentNode);
+
+        //If the current node is the destination, then the path is completed.
+        if (currentNode == destination) {
+          finish(Status.FOUND, buildPath(currentNode, context));
+          return;
+        }
+
+        int currentG = context.getDistance(currentNode);
+
+        //Checks each neighbour of the node, walls are not returned as neighbours.
+        int neighbourCount = graph.getNeighbours(currentNode, neighbours);
+
+        for(int i = 0; i < neighbourCount; i++){
+          int neighbour = neighbours[i];
+
+          if (context.isClosed(neighbour)) {
+            continue;
+          }
+
+          int gValue = currentG + getMoveCost(neighbour);
+
+          //If it's not in the open list, add it and set the parent.
+          //Else check if the G value is better through the current node, if it is then set the parent and decrease the key.
+          if (!context.isReached(neighbour)) {
+            context.reach(neighbour, gValue, currentNode);
+            openNodes.add(neighbour, getFValue(gValue, neighbour, destination, searchWeight), -gValue);
+          }
+          else if (gValue < context.getDistance(neighbour)) {
+            context.reach(neighbour, gValue, currentNode);
+            openNodes.update(neighbour, getFValue(gValue, neighbour, destination, searchWeight), -gValue);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the cost of stepping onto a node.
+   * Every step costs one, plus the extra cost of the node.
+   * @param node The index of the node which is entered.
+   * @return The cost of the step.
+   */
+  private int getMoveCost(int node){
+    return 1 + graph.getCost(node);
+  }
+
+  /**
+   * Calculates the total cost of a node.
+   * The weighted H value is rounded down, so the cost of the path stays within the weight times the cheapest one.
+   * @param gValue The G value of the node.
+   * @param node The index of the node.
+   * @param destination The index of the destination node.
+   * @param weight The weight of the H value.
+   * @return The sum of the G and the weighted H value.
+   */
+  private int getFValue(int gValue, int node, int destination, double weight){
+    int hValue = getHValue(node, destination);
+    return gValue + (weight == 1 ? hValue : (int) Math.min(weight * hValue, Integer.MAX_VALUE - gValue));
+  }
+
+  /**
+   * Calculates the heuristic distance between the node and the destination node.
+   * Both estimates never overestimate the remaining cost, so the higher one is used.
+   * @param node The index of the node.
+   * @param destination The index of the destination node.
+   * @return The absolute distance between the destination and the given node, or the landmark lower bound if it's higher.
+   * {@link #getHeuristicDistance(int, int)}
+   */
+  private int getHValue(int node, int destination) {
+    int distance = getHeuristicDistance(destination, node);
+    return landmarks == null ? distance : Math.max(distance, landmarks.getLowerBound(node, destination));
+  }
+
+  /**
+   * Calculates the heuristic distance between two nodes.
+   * As every step costs at least one, the Manhattan distance never overestimates the remaining cost.
+   * @param node1 The index of the first node.
+   * @param node2 The index of the second node.
+   * @return The absolute distance between two nodes.
+   */
+  private int getHeuristicDistance(int node1, int node2){
+    int width = graph.getWidth();
+    return Math.abs(node1 % width - node2 % width) + Math.abs(node1 / width - node2 / width);
+  }
+
+  /**
+   * Returns the Board on which the search algorithm runs.
+   * @return The Board used by the algorithm.
+   */
+  public Board getBoardHandler() {
+    return boardHandler;
+  }
+
+  /**
+   * Sets the board for the search algorithm.
+   * @param boardHandler The desired board to use.
+   */
+  private void setBoardHandler(Board boardHandler) {
+    this.boardHandler = boardHandler;
+  }
+}
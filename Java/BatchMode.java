@@ -0,0 +1,581 @@
+package com.pathfinding.common;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The Main class for the non-interactive mode, which answers a stream of queries without rendering the board.
+ * The board is mapped from a {@link BoardFile}, read from a {@link MovingAiMap}, or generated with the given size and seed.
+ * Every input line is a query of four numbers, the start X and Y and the destination X and Y, empty lines and lines starting with '#' are skipped.
+ * Every result is written as soon as it's ready, as one line:
+ * <pre>
+ * query start_x start_y destination_x destination_y status steps cost expansions latency_us path
+ * </pre>
+ * where the status is found, unreachable or incomplete, and the path is the list of "x,y" nodes from the start to the last node.
+ * In parallel mode the results are written in the order they are finished, the query number is the number of the query in the input, starting with 0.
+ */
+public class BatchMode {
+  private static final String USAGE = String.join(System.lineSeparator(),
+      "Usage: java -jar pathfinding.jar [options]",
+      "  --map FILE             Loads the board from a Moving AI .map file, or from any other file as a binary board file.",
+      "  --size WIDTHxHEIGHT    Generates a board of the given size, 256x256 by default, a single number is a square board.",
+      "  --seed SEED            The seed of the generated board, random by default.",
+      "  --wall-density D       The chance of a cell of the generated board to be a wall, 0.15 by default.",
+      "  --max-cost N           The highest extra cost of a cell of the generated board, 9 by default.",
+      "  --algorithm NAME       Astar by default, or DepthFirst, BreadthFirst, Dijkstras, JumpPointSearch, HierarchicalPathfinding,",
+      "                         BidirectionalDijkstras, BidirectionalAstar, ParallelBreadthFirst, DStarLite, FocalSearch,",
+      "                         IterativeDeepeningAstar, IterativeDeepeningDepthFirst.",
+      "  --landmarks COUNT      Uses landmarks for the Astar and FocalSearch heuristic, kept in a .landmarks file next to the --map file.",
+      "  --weight W             Allows paths up to W times the cheapest one, for Astar (weighted) and FocalSearch, 1 by default.",
+      "  --table-size N         The transposition table entries of the iterative deepening searches, 4096 by default, 0 for none.",
+      "  --queries FILE         Reads the queries from a file, or from the standard input if it's - or not given.",
+      "  --output FILE          Writes the results into a file, or to the standard output if it's - or not given.",
+      "  --parallel [THREADS]   Answers the queries in parallel, on every processor if the number of threads is not given.",
+      "  --max-expansions N     Stops a query after N checked nodes, and returns its partial path.",
+      "  --timeout-ms N         Stops a query after N milliseconds, and returns its partial path.",
+      "  --no-path              Leaves the path out of the results.",
+      "  --help                 Shows this text.");
+
+  private static final int QUEUED_QUERIES_PER_THREAD = 64; //The number of queries read ahead per thread in parallel mode.
+
+  private final Pathfinding algorithm; //The algorithm which answers the queries.
+  private final GridGraph graph; //The board of the queries.
+  private final boolean writePath; //If the path is written into the results.
+
+  private BatchMode(Pathfinding algorithm, boolean writePath){
+    this.algorithm = algorithm;
+    this.graph = algorithm.getGraph();
+    this.writePath = writePath;
+  }
+
+  /**
+   * Runs the non-interactive mode with the command line arguments.
+   * @param args The command line arguments.
+   * @return The exit code, 0 on success, 1 if a file can't be read or written, 2 if the arguments are invalid.
+   */
+  public static int run(String[] args){
+    try {
+      Options options = new Options(args);
+
+      if (options.help) {
+        System.out.println(USAGE);
+        return 0;
+      }
+
+      //The results are measured one by one, so the global metrics are not needed.
+      PathfindingMetrics.disable();
+
+      GridGraph board;
+      if (options.map != null) {
+        board = loadBoard(new File(options.map));
+      } else {
+        CompactBoard generated = new CompactBoard(options.width, options.height);
+        BoardGenerator generator = new BoardGenerator(options.seed);
+        generator.setWallDensity(options.wallDensity);
+        generator.setCostDistribution(CostDistribution.uniform(0, options.maxCost));
+        generator.generate(generated);
+        board = generated;
+        System.err.println("Generated a " + options.width + "x" + options.height + " board with seed " + options.seed);
+      }
+
+      Landmarks landmarks = null;
+      if (options.landmarks > 0 && (options.algorithm.equalsIgnoreCase("Astar") || options.algorithm.equalsIgnoreCase("FocalSearch"))) {
+        landmarks = getLandmarks(board, options.map == null ? null : new File(options.map), options.landmarks);
+      }
+
+      Pathfinding algorithm = createAlgorithm(options.algorithm, board, landmarks, options.weight, options.tableSize);
+      algorithm.setComponents(new ConnectedComponents(board));
+      algorithm.setLimits(new SearchLimits(options.maxExpansions, Integer.MAX_VALUE, options.timeoutMillis, TimeUnit.MILLISECONDS));
+      BatchMode batch = new BatchMode(algorithm, options.writePath);
+
+      try (BufferedReader input = options.queries == null ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+               : Files.newBufferedReader(new File(options.queries).toPath(), StandardCharsets.UTF_8);
+           Writer output = options.output == null ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+               : Files.newBufferedWriter(new File(options.output).toPath(), StandardCharsets.UTF_8)) {
+
+        output.write("# query start_x start_y destination_x destination_y status steps cost expansions latency_us" + (options.writePath ? " path" : "") + "\n");
+
+        if (options.threads > 1) {
+          batch.runParallel(input, output, options.threads);
+        } else {
+          batch.runSequential(input, output);
+        }
+      }
+
+      return 0;
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      return 2;
+    } catch (IOException | UncheckedIOException e) {
+      System.err.println(e.getMessage());
+      return 1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return 1;
+    }
+  }
+
+  /**
+   * Answers the queries one by one on the calling thread.
+   * The output is flushed whenever no more input is waiting, so the results of an interactive stream show up immediately.
+   * @param input The queries.
+   * @param output The results.
+   * @throws IOException If the input can't be read or the output can't be written.
+   */
+  private void runSequential(BufferedReader input, Writer output) throws IOException {
+    SearchContext context = new SearchContext();
+    String line;
+    int query = 0;
+
+    while ((line = input.readLine()) != null) {
+      if (isQuery(line)) {
+        String result = answer(query++, line, context);
+
+        if (result != null) {
+          output.write(result);
+        }
+        if (!input.ready()) {
+          output.flush();
+        }
+      }
+    }
+  }
+
+  /**
+   * Answers the queries on a pool of threads, each thread with its own search context.
+   * Only a limited number of queries are read ahead, so an endless input doesn't fill up the memory.
+   * @param input The queries.
+   * @param output The results.
+   * @param threads The number of threads.
+   * @throws IOException If the input can't be read or the output can't be written.
+   * @throws InterruptedException If the thread is interrupted while waiting for the workers.
+   */
+  private void runParallel(BufferedReader input, Writer output, int threads) throws IOException, InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    ThreadLocal<SearchContext> contexts = ThreadLocal.withInitial(SearchContext::new);
+    Semaphore queued = new Semaphore(threads * QUEUED_QUERIES_PER_THREAD);
+    AtomicInteger pending = new AtomicInteger();
+    AtomicReference<IOException> failure = new AtomicReference<>();
+
+    try {
+      String line;
+      int query = 0;
+
+      while ((line = input.readLine()) != null && failure.get() == null) {
+        if (!isQuery(line)) {
+          continue;
+        }
+
+        int number = query++;
+        String queryLine = line;
+        queued.acquire();
+        pending.incrementAndGet();
+
+        pool.execute(() -> {
+          try {
+            String result = answer(number, queryLine, contexts.get());
+
+            //The writer is shared, so every line is written at once, and the last pending result flushes the output.
+            synchronized (output) {
+              if (result != null) {
+                output.write(result);
+              }
+              if (pending.decrementAndGet() == 0) {
+                output.flush();
+              }
+            }
+          } catch (IOException e) {
+            failure.compareAndSet(null, e);
+          } finally {
+            queued.release();
+          }
+        });
+      }
+    } finally {
+      pool.shutdown();
+      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+  }
+
+  /**
+   * Answers a query and formats its result.
+   * @param query The number of the query.
+   * @param line The query line.
+   * @param context The search context of the thread.
+   * @return The result line, or null if the query is invalid, which is reported on the standard error.
+   */
+  private String answer(int query, String line, SearchContext context){
+    String[] fields = line.trim().split("\\s+");
+    int[] coordinates = new int[4];
+
+    try {
+      if (fields.length != 4) {
+        throw new IllegalArgumentException("a query needs four coordinates");
+      }
+
+      for (int i = 0; i < 4; i++) {
+        coordinates[i] = Integer.parseInt(fields[i]);
+        int limit = i % 2 == 0 ? graph.getWidth() : graph.getHeight();
+
+        if (coordinates[i] < 0 || coordinates[i] >= limit) {
+          throw new IllegalArgumentException("the coordinate " + coordinates[i] + " is outside the board");
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println("Query " + query + " is invalid, " + e.getMessage() + ": " + line);
+      return null;
+    }
+
+    int start = graph.getIndex(coordinates[0], coordinates[1]);
+    int destination = graph.getIndex(coordinates[2], coordinates[3]);
+
+    if (!graph.isWalkable(start) || !graph.isWalkable(destination)) {
+      System.err.println("Query " + query + " is invalid, the start and the destination must be walkable: " + line);
+      return null;
+    }
+
+    long startTime = System.nanoTime();
+    Path path;
+
+    try {
+      path = algorithm.getPath(start, destination, context);
+    } catch (RuntimeException e) {
+      System.err.println("Query " + query + " failed, " + e + ": " + line);
+      return null;
+    }
+
+    long latency = System.nanoTime() - startTime;
+
+    String status = !path.isComplete() ? "incomplete" : path.getStepCount() > 0 || start == destination ? "found" : "unreachable";
+    StringBuilder result = new StringBuilder(64 + (writePath ? path.getStepCount() * 10 : 0));
+
+    result.append(query).append(' ').append(coordinates[0]).append(' ').append(coordinates[1]).append(' ')
+        .append(coordinates[2]).append(' ').append(coordinates[3]).append(' ').append(status).append(' ')
+        .append(path.getStepCount()).append(' ').append(path.getCost()).append(' ').append(path.getClosedCount()).append(' ')
+        .append(latency / 1000);
+
+    if (writePath) {
+      result.append(' ').append(coordinates[0]).append(',').append(coordinates[1]);
+
+      //The steps start with the last node, so they are written backwards.
+      List<Node> steps = path.getSteps();
+
+      for (int i = steps.size() - 1; i >= 0; i--) {
+        Node step = steps.get(i);
+        result.append(' ').append(step.getX()).append(',').append(step.getY());
+      }
+    }
+
+    return result.append('\n').toString();
+  }
+
+  /**
+   * Checks if an input line holds a query.
+   * @param line The input line.
+   * @return If the line is not empty and not a comment.
+   */
+  private static boolean isQuery(String line){
+    String trimmed = line.trim();
+    return !trimmed.isEmpty() && trimmed.charAt(0) != '#';
+  }
+
+  /**
+   * Loads the board of the --map option.
+   * A file with the .map extension is read as a Moving AI map, any other file is mapped into memory as a binary board file.
+   * @param file The board or map file.
+   * @return The board of the file.
+   * @throws IOException If the file can't be read, or it's not a valid board or map file.
+   */
+  private static GridGraph loadBoard(File file) throws IOException {
+    return file.getName().toLowerCase().endsWith(".map") ? MovingAiMap.load(file) : BoardFile.load(file);
+  }
+
+  /**
+   * Loads the landmarks of a map from the landmark file next to it, or creates them and saves them there.
+   * A file which belongs to another board or has another number of landmarks is replaced.
+   * @param board The board of the landmarks.
+   * @param mapFile The file of the board, or null if the board was generated, then the landmarks are only created.
+   * @param count The number of landmarks.
+   * @return The landmarks of the board.
+   */
+  private static Landmarks getLandmarks(GridGraph board, File mapFile, int count){
+    if (mapFile == null) {
+      return Landmarks.create(board, count);
+    }
+
+    File file = Landmarks.getFile(mapFile);
+
+    if (file.isFile()) {
+      try {
+        Landmarks landmarks = Landmarks.load(file, board);
+
+        if (landmarks.getCount() == count) {
+          System.err.println("Loaded " + count + " landmarks from " + file);
+          return landmarks;
+        }
+        landmarks.close();
+      } catch (IOException e) {
+        System.err.println(e.getMessage());
+      }
+    }
+
+    Landmarks landmarks = Landmarks.create(board, count);
+
+    try {
+      landmarks.save(file);
+      System.err.println("Saved " + landmarks.getCount() + " landmarks to " + file);
+    } catch (IOException e) {
+      System.err.println("The landmarks can't be saved: " + e.getMessage());
+    }
+
+    return landmarks;
+  }
+
+  /**
+   * Creates an algorithm by its class name.
+   * @param name The simple class name of the algorithm, case is ignored.
+   * @param board The board of the algorithm.
+   * @param landmarks The landmarks used by Astar and FocalSearch, or null.
+   * @param weight The allowed ratio between a path and the cheapest one for Astar and FocalSearch.
+   * @param tableSize The number of transposition table entries of the iterative deepening searches.
+   * @return The algorithm.
+   */
+  private static Pathfinding createAlgorithm(String name, GridGraph board, Landmarks landmarks, double weight, int tableSize){
+    switch (name.toLowerCase()) {
+      case "depthfirst":
+        return new DepthFirst(board);
+      case "breadthfirst":
+        return new BreadthFirst(board);
+      case "dijkstras":
+        return new Dijkstras(board);
+      case "astar":
+        Astar astar = new Astar(board, landmarks);
+        astar.setWeight(weight);
+        return astar;
+      case "focalsearch":
+        return new FocalSearch(board, weight - 1, landmarks);
+      case "jumppointsearch":
+        return new JumpPointSearch(board);
+      case "hierarchicalpathfinding":
+        return new HierarchicalPathfinding(board, 16);
+      case "bidirectionaldijkstras":
+        return new BidirectionalDijkstras(board);
+      case "bidirectionalastar":
+        return new BidirectionalAstar(board);
+      case "parallelbreadthfirst":
+        return new ParallelBreadthFirst(board);
+      case "dstarlite":
+        return new DStarLite(board);
+      case "iterativedeepeningastar":
+        IterativeDeepening idaStar = new IterativeDeepeningAstar(board);
+        idaStar.setTableSize(tableSize);
+        return idaStar;
+      case "iterativedeepeningdepthfirst":
+        IterativeDeepening idDepthFirst = new IterativeDeepeningDepthFirst(board);
+        idDepthFirst.setTableSize(tableSize);
+        return idDepthFirst;
+      default:
+        throw new IllegalArgumentException("Unknown algorithm: " + name);
+    }
+  }
+
+  /**
+   * The Main class for the parsed command line arguments.
+   */
+  private static class Options {
+    private String map; //The map file, null to generate the board.
+    private int width = 256; //The width of the generated board.
+    private int height = 256; //The height of the generated board.
+    private long seed = System.nanoTime(); //The seed of the generated board.
+    private double wallDensity = 0.15; //The chance of a cell of the generated board to be a wall.
+    private int maxCost = 9; //The highest extra cost of a cell of the generated board.
+    private String algorithm = "Astar"; //The name of the algorithm.
+    private int landmarks; //The number of landmarks of Astar.
+    private double weight = 1; //The allowed ratio between a path and the cheapest one.
+    private int tableSize = 4096; //The number of transposition table entries of the iterative deepening searches.
+    private String queries; //The query file, null for the standard input.
+    private String output; //The result file, null for the standard output.
+    private int threads = 1; //The number of threads answering the queries.
+    private int maxExpansions = Integer.MAX_VALUE; //The expansion limit of a query.
+    private long timeoutMillis = Long.MAX_VALUE; //The time limit of a query.
+    private boolean writePath = true; //If the paths are written.
+    private boolean help; //If only the usage is shown.
+
+    private Options(String[] args){
+      for (int i = 0; i < args.length; i++) {
+        switch (args[i]) {
+          case "--map":
+            map = getValue(args, ++i);
+            break;
+          case "--size":
+            parseSize(getValue(args, ++i));
+            break;
+          case "--seed":
+            seed = parseSeed(getValue(args, ++i));
+            break;
+          case "--wall-density":
+            wallDensity = parseDensity(getValue(args, ++i));
+            break;
+          case "--max-cost":
+            maxCost = (int) parseNumber(getValue(args, ++i));
+            if (maxCost > Byte.MAX_VALUE) {
+              throw new IllegalArgumentException("The highest cost is " + Byte.MAX_VALUE + ": " + maxCost);
+            }
+            break;
+          case "--algorithm":
+            algorithm = getValue(args, ++i);
+            break;
+          case "--landmarks":
+            landmarks = (int) parseNumber(getValue(args, ++i));
+            break;
+          case "--weight":
+            weight = parseWeight(getValue(args, ++i));
+            break;
+          case "--table-size":
+            tableSize = (int) Math.min(parseNumber(getValue(args, ++i)), Integer.MAX_VALUE);
+            break;
+          case "--queries":
+            queries = getFile(getValue(args, ++i));
+            break;
+          case "--output":
+            output = getFile(getValue(args, ++i));
+            break;
+          case "--parallel":
+            threads = Runtime.getRuntime().availableProcessors();
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+              threads = (int) parseNumber(args[++i]);
+            }
+            break;
+          case "--max-expansions":
+            maxExpansions = (int) parseNumber(getValue(args, ++i));
+            break;
+          case "--timeout-ms":
+            timeoutMillis = parseNumber(getValue(args, ++i));
+            break;
+          case "--no-path":
+            writePath = false;
+            break;
+          case "--help":
+            help = true;
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+      }
+    }
+
+    /**
+     * Returns the value after an option.
+     */
+    private static String getValue(String[] args, int index){
+      if (index >= args.length) {
+        throw new IllegalArgumentException("Missing value after " + args[index - 1]);
+      }
+      return args[index];
+    }
+
+    /**
+     * Returns the file name of a value, null for the standard streams.
+     */
+    private static String getFile(String value){
+      return value.equals("-") ? null : value;
+    }
+
+    /**
+     * Parses a size given as WIDTHxHEIGHT, or as a single number for a square board.
+     */
+    private void parseSize(String value){
+      String[] sides = value.toLowerCase().split("x");
+
+      if (sides.length > 2) {
+        throw new IllegalArgumentException("Invalid size: " + value);
+      }
+
+      width = (int) parseNumber(sides[0]);
+      height = sides.length == 2 ? (int) parseNumber(sides[1]) : width;
+
+      if (width < 1 || height < 1) {
+        throw new IllegalArgumentException("Invalid size: " + value);
+      }
+    }
+
+    /**
+     * Parses the seed, which can be any long value.
+     */
+    private static long parseSeed(String value){
+      try {
+        return Long.parseLong(value);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid seed: " + value);
+      }
+    }
+
+    /**
+     * Parses a chance between 0 and 1.
+     */
+    private static double parseDensity(String value){
+      try {
+        double density = Double.parseDouble(value);
+
+        if (density >= 0 && density <= 1) {
+          return density;
+        }
+      } catch (NumberFormatException e) {
+        //Reported below.
+      }
+      throw new IllegalArgumentException("Invalid wall density: " + value);
+    }
+
+    /**
+     * Parses a weight, which is at least one.
+     */
+    private static double parseWeight(String value){
+      try {
+        double weight = Double.parseDouble(value);
+
+        if (weight >= 1 && weight < Double.POSITIVE_INFINITY) {
+          return weight;
+        }
+      } catch (NumberFormatException e) {
+        //Reported below.
+      }
+      throw new IllegalArgumentException("Invalid weight: " + value);
+    }
+
+    /**
+     * Parses a number which can't be negative.
+     */
+    private static long parseNumber(String value){
+      try {
+        long number = Long.parseLong(value);
+
+        if (number < 0 || number > Integer.MAX_VALUE) {
+          throw new IllegalArgumentException("Invalid number: " + value);
+        }
+        return number;
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid number: " + value);
+      }
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.pathfinding.common;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * The Main class for answering batches of queries in parallel.
+ * The grids are only read by the algorithms, so the queries of a batch can share one board.
+ * Search contexts are pooled and reused, a context is only used by one query at a time.
+ */
+public class BatchPathfinder implements AutoCloseable {
+
+  private final ExecutorService executor; //The executor which runs the queries.
+  private final boolean ownsExecutor; //If the executor was created by this class and has to be shut down on close.
+  private final ConcurrentLinkedQueue<SearchContext> contexts = new ConcurrentLinkedQueue<SearchContext>(); //The idle search contexts.
+
+  /**
+   * Creates a batch pathfinder with a fixed number of worker threads.
+   * @param threads The number of worker threads.
+   */
+  public BatchPathfinder(int threads){
+    this(Executors.newFixedThreadPool(threads), true);
+  }
+
+  /**
+   * Creates a batch pathfinder which runs the queries on the given executor.
+   * The executor is not shut down by {@link #close()}.
+   * @param executor The executor which runs the queries.
+   */
+  public BatchPathfinder(ExecutorService executor){
+    this(executor, false);
+  }
+
+  private BatchPathfinder(ExecutorService executor, boolean ownsExecutor){
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  /**
+   * Creates a batch pathfinder which runs every query on its own virtual thread.
+   * @return The batch pathfinder.
+   * @throws UnsupportedOperationException If the Java runtime does not support virtual threads.
+   */
+  public static BatchPathfinder withVirtualThreads(){
+    try {
+      //Looked up at runtime, so the class still compiles and runs on Java versions without virtual threads.
+      ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      return new BatchPathfinder(executor, true);
+    } catch (ReflectiveOperationException e) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this Java runtime.", e);
+    }
+  }
+
+  /**
+   * Calculates the path of every query and returns them in the order of the queries.
+   * @param queries The queries of the batch.
+   * @return The paths, the nth path belongs to the nth query.
+   * @throws InterruptedException If the thread is interrupted while waiting for the results.
+   */
+  public List<Path> getPaths(List<Query> queries) throws InterruptedException {
+    List<Future<Path>> futures = new ArrayList<Future<Path>>(queries.size());
+
+    for (Query query : queries) {
+      futures.add(executor.submit(getTask(query)));
+    }
+
+    List<Path> paths = new ArrayList<Path>(queries.size());
+
+    try {
+      for (Future<Path> future : futures) {
+        paths.add(getResult(future));
+      }
+    } finally {
+      for (Future<Path> future : futures) {
+        future.cancel(true);
+      }
+    }
+
+    return paths;
+  }
+
+  /**
+   * Calculates the path of every query and passes each one to the consumer as soon as it is ready.
+   * The consumer is called on the calling thread, one result at a time.
+   * @param queries The queries of the batch.
+   * @param consumer Receives each query together with its path, in the order of completion.
+   * @throws InterruptedException If the thread is interrupted while waiting for the results.
+   */
+  public void getPaths(List<Query> queries, BiConsumer<Query, Path> consumer) throws InterruptedException {
+    CompletionService<Path> completionService = new ExecutorCompletionService<Path>(executor);
+    Map<Future<Path>, Query> futures = new IdentityHashMap<Future<Path>, Query>(queries.size());
+
+    for (Query query : queries) {
+      futures.put(completionService.submit(getTask(query)), query);
+    }
+
+    try {
+      for (int i = 0; i < queries.size(); i++) {
+        Future<Path> future = completionService.take();
+        consumer.accept(futures.get(future), getResult(future));
+      }
+    } finally {
+      for (Future<Path> future : futures.keySet()) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Shuts down the executor if it was created by this batch pathfinder.
+   */
+  @Override
+  public void close(){
+    if (ownsExecutor) {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Creates the task of a query, which borrows a search context from the pool for the duration of the search.
+   * @param query The query to run.
+   * @return The task which calculates the path.
+   */
+  private Callable<Path> getTask(Query query){
+    return () -> {
+      SearchContext context = contexts.poll();
+
+      if (context == null) {
+        context = new SearchContext();
+      }
+
+      try {
+        return query.getPath(context);
+      } finally {
+        contexts.offer(context);
+      }
+    };
+  }
+
+  /**
+   * Waits for the result of a query and rethrows its failure.
+   * @param future The future of the query.
+   * @return The path of the query.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  private static Path getResult(Future<Path> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("The query failed.", e.getCause());
+    }
+  }
+}
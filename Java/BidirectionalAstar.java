@@ -0,0 +1,145 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for bidirectional A* pathfinding.
+ * Contains all the logic required to generate the path.
+ * <p>
+ * One search starts from the start node and one from the destination node. Both sides use the average of the two Manhattan distances
+ * as their heuristic: the forward side adds half of the distance to the destination minus half of the distance from the start, the backward side the opposite.
+ * With these matching heuristics the two searches can stop as soon as their lowest F values add up to the cheapest path seen where they met.
+ * To stay with integers every F value is doubled.
+ */
+public class BidirectionalAstar extends Pathfinding {
+
+  public BidirectionalAstar(Board boardHandler){
+    super(boardHandler);
+  }
+
+  public BidirectionalAstar(GridGraph graph){
+    super(graph);
+  }
+
+  /**
+   * Returns the bound of the paths, the heuristics never overestimate, so the stopping rule keeps the cheapest meeting.
+   * @return 1.
+   */
+  @Override
+  public double getSuboptimalityBound(){
+    return 1;
+  }
+
+  /**
+   * Calculates the path to the target by searching from both ends with the A* algorithm, then returns it.
+   * The path reports how many nodes were expanded by each side.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context of the forward side, its reverse context is used for the backward side.
+   * @return The calculated path.
+   */
+  @Override
+  protected Path search(int start, int destination, SearchContext context){
+    SearchContext forward = context;
+    SearchContext backward = context.getReverseContext();
+    backward.begin(graph.getNodeCount());
+
+    IndexedHeap forwardNodes = forward.getHeap();
+    IndexedHeap backwardNodes = backward.getHeap();
+    int[] neighbours = new int[4];
+
+    forward.reach(start, 0, -1);
+    forwardNodes.add(start, getFValue(0, start, start, destination), 0);
+    backward.reach(destination, 0, -1);
+    backwardNodes.add(destination, getFValue(0, destination, destination, start), 0);
+
+    long bestCost = Long.MAX_VALUE; //The doubled cost of the cheapest path seen so far.
+    int meeting = -1; //The node where the cheapest path crosses from one side to the other.
+
+    if (start == destination) {
+      bestCost = 0;
+      meeting = start;
+    }
+
+    while (!forwardNodes.isEmpty() && !backwardNodes.isEmpty()) {
+
+      //The heuristics of the two sides cancel out, so no undiscovered path can be cheaper than the sum of the lowest F values.
+      if ((long) forwardNodes.peekKey() + backwardNodes.peekKey() >= bestCost) {
+        break;
+      }
+
+      boolean isForward = forwardNodes.peekKey() <= backwardNodes.peekKey();
+      SearchContext side = isForward ? forward : backward;
+      SearchContext otherSide = isForward ? backward : forward;
+      IndexedHeap openNodes = isForward ? forwardNodes : backwardNodes;
+      int origin = isForward ? start : destination;
+      int target = isForward ? destination : start;
+
+      int currentNode = openNodes.poll();
+      side.close(currentNode);
+
+      int currentG = side.getDistance(currentNode);
+      int neighbourCount = graph.getNeighbours(currentNode, neighbours);
+
+      for(int i = 0; i < neighbourCount; i++){
+        int neighbour = neighbours[i];
+
+        if (side.isClosed(neighbour)) {
+          continue;
+        }
+
+        //Forward steps pay for the entered neighbour, backward steps pay for the current node, which is entered after the neighbour.
+        int gValue = currentG + getMoveCost(isForward ? neighbour : currentNode);
+
+        if (!side.isReached(neighbour)) {
+          side.reach(neighbour, gValue, currentNode);
+          openNodes.add(neighbour, getFValue(gValue, neighbour, origin, target), -gValue);
+        }
+        else if (gValue < side.getDistance(neighbour)) {
+          side.reach(neighbour, gValue, currentNode);
+          openNodes.update(neighbour, getFValue(gValue, neighbour, origin, target), -gValue);
+        }
+        else {
+          continue;
+        }
+
+        //If the other side reached the neighbour too, the two halves form a path.
+        if (otherSide.isReached(neighbour) && 2L * (gValue + otherSide.getDistance(neighbour)) < bestCost) {
+          bestCost = 2L * (gValue + otherSide.getDistance(neighbour));
+          meeting = neighbour;
+        }
+      }
+    }
+
+    return buildPath(meeting, forward, backward);
+  }
+
+  /**
+   * Calculates the doubled F value of a node for one side of the search.
+   * @param gValue The distance of the node from the origin of the side.
+   * @param node The index of the node.
+   * @param origin The index of the node where the side started.
+   * @param target The index of the node where the other side started.
+   * @return Two times the G value, plus the distance to the target, minus the distance from the origin.
+   */
+  private int getFValue(int gValue, int node, int origin, int target){
+    return 2 * gValue + getHeuristicDistance(node, target) - getHeuristicDistance(node, origin);
+  }
+
+  /**
+   * Returns the cost of stepping onto a node.
+   * @param node The index of the node which is entered.
+   * @return One plus the extra cost of the node.
+   */
+  private int getMoveCost(int node){
+    return 1 + graph.getCost(node);
+  }
+
+  /**
+   * Calculates the heuristic distance between two nodes.
+   * @param node1 The index of the first node.
+   * @param node2 The index of the second node.
+   * @return The Manhattan distance between two nodes.
+   */
+  private int getHeuristicDistance(int node1, int node2){
+    return Math.abs(graph.getX(node1) - graph.getX(node2)) + Math.abs(graph.getY(node1) - graph.getY(node2));
+  }
+}
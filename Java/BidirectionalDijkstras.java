@@ -0,0 +1,107 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for bidirectional Dijkstras pathfinding.
+ * Contains all the logic required to generate the path.
+ * <p>
+ * One search starts from the start node and one from the destination node, always advancing the side which is closer to its origin.
+ * The searches stop when the sum of their current distances reaches the cheapest path seen through the nodes where they met,
+ * as no path found later could be cheaper. On open maps this expands about half of the nodes of {@link Dijkstras}.
+ */
+public class BidirectionalDijkstras extends Pathfinding {
+
+  public BidirectionalDijkstras(Board boardHandler){
+    super(boardHandler);
+  }
+
+  public BidirectionalDijkstras(GridGraph graph){
+    super(graph);
+  }
+
+  /**
+   * Returns the bound of the paths, the searches only stop once no cheaper path can cross between them.
+   * @return 1.
+   */
+  @Override
+  public double getSuboptimalityBound(){
+    return 1;
+  }
+
+  /**
+   * Calculates the path to the target by searching from both ends with the Dijkstras algorithm, then returns it.
+   * The path reports how many nodes were expanded by each side.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context of the forward side, its reverse context is used for the backward side.
+   * @return The calculated path.
+   */
+  @Override
+  protected Path search(int start, int destination, SearchContext context){
+    SearchContext forward = context;
+    SearchContext backward = context.getReverseContext();
+    backward.begin(graph.getNodeCount());
+
+    BucketQueue forwardNodes = forward.getBucketQueue();
+    BucketQueue backwardNodes = backward.getBucketQueue();
+    int[] neighbours = new int[4];
+
+    forward.reach(start, 0, -1);
+    forwardNodes.add(start, 0);
+    backward.reach(destination, 0, -1);
+    backwardNodes.add(destination, 0);
+
+    int bestCost = Integer.MAX_VALUE; //The cost of the cheapest path seen so far.
+    int meeting = -1; //The node where the cheapest path crosses from one side to the other.
+
+    if (start == destination) {
+      bestCost = 0;
+      meeting = start;
+    }
+
+    while (!forwardNodes.isEmpty() && !backwardNodes.isEmpty()) {
+
+      //Every queued key is at least the current key of its queue, so no undiscovered path can be cheaper than their sum.
+      if ((long) forwardNodes.getCurrentKey() + backwardNodes.getCurrentKey() >= bestCost) {
+        break;
+      }
+
+      boolean isForward = forwardNodes.getCurrentKey() <= backwardNodes.getCurrentKey();
+      SearchContext side = isForward ? forward : backward;
+      SearchContext otherSide = isForward ? backward : forward;
+      int currentNode = (isForward ? forwardNodes : backwardNodes).poll();
+
+      if (side.isClosed(currentNode)) {
+        continue;
+      }
+
+      side.close(currentNode);
+
+      int currentDistance = side.getDistance(currentNode);
+      int neighbourCount = graph.getNeighbours(currentNode, neighbours);
+
+      for(int i = 0; i < neighbourCount; i++){
+        int neighbour = neighbours[i];
+
+        if (side.isClosed(neighbour)) {
+          continue;
+        }
+
+        //Forward steps pay for the entered neighbour, backward steps pay for the current node, which is entered after the neighbour.
+        int newDistance = currentDistance + 1 + graph.getCost(isForward ? neighbour : currentNode);
+
+        if (!side.isReached(neighbour) || newDistance < side.getDistance(neighbour)) {
+          side.reach(neighbour, newDistance, currentNode);
+          (isForward ? forwardNodes : backwardNodes).add(neighbour, newDistance);
+
+          //If the other side reached the neighbour too, the two halves form a path.
+          if (otherSide.isReached(neighbour) && newDistance + otherSide.getDistance(neighbour) < bestCost) {
+            bestCost = newDistance + otherSide.getDistance(neighbour);
+            meeting = neighbour;
+          }
+        }
+      }
+    }
+
+    return buildPath(meeting, forward, backward);
+  }
+}
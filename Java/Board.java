@@ -1,12 +1,20 @@
 package com.pathfinding.common;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 /**
  * The Main class for the Board, which contains all the board related functions.
+ * Every cell is a Node object, for large maps see {@link CompactBoard}.
  */
-public class Board {
+public class Board implements GridGraph {
   private int width; //The width of the board.
   private int height; //The height of the board.
   private int boardCost; //The sum of every nodes cost.
@@ -15,81 +23,72 @@ public class Board {
   private Node  destinationNode; //Reference for the destination node
 
   private Random rng = new Random(); //The Random Number Generator used during the board creation.
+  private final List<BoardListener> listeners = new CopyOnWriteArrayList<BoardListener>(); //The listeners of node changes.
+  private final AtomicLong version = new AtomicLong(); //The version of the board, increased by every change.
 
   /**
    * Instantiates the node matrix with the given dimensions, then fills it up with wall and floor nodes.
+   * The board is seeded from the Random Number Generator of the board.
    * @param width The width of the board.
    * @param height The height of the board.
+   * {@link #generateBoard(int, int, BoardGenerator)}
+   */
+  public void generateBoard(int width, int height){
+    generateBoard(width, height, new BoardGenerator(rng.nextLong()));
+  }
+
+  /**
+   * Instantiates the node matrix with the given dimensions, then fills it up with the nodes of a generator.
+   * Both the nodes and their neighbour lists are created in parallel, row by row.
+   * @param width The width of the board.
+   * @param height The height of the board.
+   * @param generator The generator, which decides the type and the cost of every node.
    * {@link #nodes}
    * {@link #GetNeighbours(Node)}
    */
-  public void generateBoard(int width, int height){
+  public void generateBoard(int width, int height, BoardGenerator generator){
     this.width = width;
     this.height = height;
 
-    this.nodes = new Node[height][width];
-
-    //Iterates through the matrix
-    for(int i = 0; i < height; i++){
-      for(int j = 0; j < width; j++){
-        Node.Types type;
-
-        //If the node is on the edge, then it becomes a wall.
-        //Else there is a 10% chache for it to become a wall, otherwise it will be a floor node.
-        if(i == 0 || j == 0 || i == height - 1|| j == width - 1){
-          type = Node.Types.Wall;
-        } else {
-          if(rng.nextInt((100 - 1) + 1) + 1 < 15){
-            type = Node.Types.Wall;
-          } else {
-            type = Node.Types.Floor;
-          }
-        }
+    Node[][] matrix = new Node[height][width];
+    this.nodes = matrix;
+
+    generator.generate(width, height, (y, types, costs) -> {
+      Node[] row = matrix[y];
 
-        int cost = rng.nextInt(10);
-        nodes[i][j] = new Node(type, j, i, cost);
-        addToBoardCost(cost);
+      for(int x = 0; x < width; x++){
+        row[x] = new Node(types[x], x, y, costs[x]);
       }
-    }
+    });
+
+    //The neighbours can only be set once every node exists, the cost of the board is summed up in the same pass.
+    boardCost = (int) IntStream.range(0, height).parallel().mapToLong(y -> {
+      long rowCost = 0;
 
-    //Iterates through the nodes and set their neighbours.
-    //This needs to be done after the previous iteration to ensure there is no null node.
-    for(int i = 0; i < height; i++){
-      for(int j = 0; j < width; j++){
-        nodes[i][j].setNeighbours(GetNeighbours(nodes[i][j]));
+      for(Node node : matrix[y]){
+        node.setNeighbours(GetNeighbours(node));
+        rowCost += node.getCost();
       }
-    }
+
+      return rowCost;
+    }).sum();
+
+    version.incrementAndGet();
   }
 
   /**
-   * Generates a string from the node matrix and adds marking numbers to it, then writes it to the console.
+   * Writes the board with marking numbers to the console.
+   * The rows are streamed through a {@link BoardRenderer}, so no string of the whole board is built.
    */
   public void drawBoard(){
-    //Using StringBuilder for better performance as the board size can change.
-    StringBuilder board = new StringBuilder();
-    StringBuilder horizontalNumberRow = new StringBuilder((width * 2) + 2);
-
-    //Iterates through the board and appends their values to the StringBuilder.
-    for(int i = 0; i < height; i++){
-      for(int j = 0; j < width; j++){
-
-        if(i == 0){
-          horizontalNumberRow.append(j + " ");
-        }
-        if(j == 0){
-          board.append(i + " ");
-        }
-
-        board.append(nodes[i][j]);
-
-        if(i != width - 1 || j != height - 1){
-          board.append(" ");
-        }
-      }
-      board.append(System.lineSeparator());
+    try {
+      new BoardRenderer(this).render(Channels.newChannel(System.out));
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
 
-    System.out.println(horizontalNumberRow.insert(0, "  ").toString() + System.lineSeparator() + board.toString());
+    System.out.println();
   }
 
   /**
@@ -125,7 +124,55 @@ public class Board {
    * @param type The type to which the node should be set.
    */
   private void setNode(int x, int y, Node.Types type){
-    nodes[y][x].setType(type);
+    Node node = nodes[y][x];
+    Node.Types oldType = node.getType();
+
+    node.setType(type);
+    fireNodeChanged(node, oldType, node.getCost());
+  }
+
+  /**
+   * Sets the extra cost of the node.
+   * @param x The X coordinate of the node.
+   * @param y The Y coordinate of the node.
+   * @param cost The new extra cost of the node.
+   */
+  public void setNodeCost(int x, int y, int cost){
+    Node node = nodes[y][x];
+    int oldCost = node.getCost();
+
+    node.setCost(cost);
+    addToBoardCost(cost - oldCost);
+    fireNodeChanged(node, node.getType(), oldCost);
+  }
+
+  /**
+   * Increases the version of the board and notifies the listeners about a changed node.
+   * @param node The changed node.
+   * @param oldType The type of the node before the change.
+   * @param oldCost The extra cost of the node before the change.
+   */
+  private void fireNodeChanged(Node node, Node.Types oldType, int oldCost){
+    version.incrementAndGet();
+
+    for(BoardListener listener : listeners){
+      listener.nodeChanged(getIndex(node), oldType, oldCost);
+    }
+  }
+
+  @Override
+  public long getVersion(){
+    return version.get();
+  }
+
+  @Override
+  public void addListener(BoardListener listener){
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(BoardListener listener){
+    listeners.remove(listener);
   }
 
   /**
@@ -160,6 +207,26 @@ public class Board {
     setNode(x,y, Node.Types.Path);
   }
 
+  /**
+   * Set the node type to Wall.
+   * @param x The X coordinate of the node.
+   * @param y The Y coordinate of the node.
+   * {@link #setNode(int, int, Node.Types)}
+   */
+  public void setWallNode(int x, int y){
+    setNode(x,y, Node.Types.Wall);
+  }
+
+  /**
+   * Set the node type to Floor.
+   * @param x The X coordinate of the node.
+   * @param y The Y coordinate of the node.
+   * {@link #setNode(int, int, Node.Types)}
+   */
+  public void setFloorNode(int x, int y){
+    setNode(x,y, Node.Types.Floor);
+  }
+
   /**
    * Set the node type to Checked.
    * @param x The X coordinate of the node.
@@ -215,6 +282,46 @@ public class Board {
     return neighbours;
   }
 
+  /**
+   * Returns the index of a node, which is unique within the board.
+   * @param node A node of the board.
+   * @return The row major index of the node.
+   */
+  public int getIndex(Node node){
+    return node.getY() * width + node.getX();
+  }
+
+  /**
+   * Returns the node at the given index.
+   * @param index The row major index of the node.
+   * @return The node at the index.
+   * {@link #getIndex(Node)}
+   */
+  @Override
+  public Node getNode(int index){
+    return nodes[index / width][index % width];
+  }
+
+  /**
+   * Returns the type of the node at the given index.
+   * @param index The row major index of the node.
+   * @return The type of the node.
+   */
+  @Override
+  public Node.Types getType(int index){
+    return getNode(index).getType();
+  }
+
+  /**
+   * Returns the extra cost of the node at the given index.
+   * @param index The row major index of the node.
+   * @return The extra cost of the node.
+   */
+  @Override
+  public int getCost(int index){
+    return getNode(index).getCost();
+  }
+
   /**
    * Returns the width of the board.
    * @return The width of the board.
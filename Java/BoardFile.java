@@ -0,0 +1,170 @@
+package com.pathfinding.common;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The Main class for saving and loading boards in the binary board format.
+ * <p>
+ * The file starts with a 16 byte big endian header, followed by the type layer and the cost layer:
+ * <pre>
+ * offset 0          int   magic number, the characters "PFBD"
+ * offset 4          int   format version, currently 1
+ * offset 8          int   width
+ * offset 12         int   height
+ * offset 16         byte  type ordinal of every cell, row major (width * height bytes)
+ * offset 16 + n     byte  extra cost of every cell, row major (width * height bytes)
+ * </pre>
+ * The extra costs are between 0 and 127, like the ones of a {@link CompactBoard}.
+ * Loaded boards are memory mapped, so the data is paged in when it is read. Both layers are checked once when the file is opened,
+ * so a corrupt file is rejected by the load instead of failing a later query.
+ */
+public final class BoardFile {
+  public static final int MAGIC = 0x50464244; //The characters "PFBD".
+  public static final int VERSION = 1; //The current version of the format.
+  public static final int HEADER_SIZE = 16; //The size of the header in bytes.
+
+  private static final int BUFFER_SIZE = 1 << 16; //The size of the buffer used while saving and checking.
+  private static final int TYPE_COUNT = Node.Types.values().length; //The number of valid type ordinals.
+
+  private BoardFile(){
+  }
+
+  /**
+   * Writes the grid into a file.
+   * The layers are streamed through a small buffer, so no second copy of the grid is made in memory.
+   * @param graph The grid to save.
+   * @param file The file to write, it is overwritten if it exists.
+   * @throws IOException If the file can't be written.
+   * @throws IllegalArgumentException If an extra cost of the grid doesn't fit into a byte.
+   */
+  public static void save(GridGraph graph, File file) throws IOException {
+    try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      int nodeCount = graph.getNodeCount();
+
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(graph.getWidth()).putInt(graph.getHeight());
+
+      for (int i = 0; i < nodeCount; i++) {
+        if (!buffer.hasRemaining()) {
+          write(channel, buffer);
+        }
+        buffer.put((byte) graph.getType(i).ordinal());
+      }
+
+      for (int i = 0; i < nodeCount; i++) {
+        if (!buffer.hasRemaining()) {
+          write(channel, buffer);
+        }
+        buffer.put(toCost(graph.getCost(i)));
+      }
+
+      write(channel, buffer);
+    }
+  }
+
+  /**
+   * Maps a board file into memory.
+   * The mapping is read only, so the pages can be shared by every process which maps the same file.
+   * @param file The board file.
+   * @return The board backed by the mapped file.
+   * @throws IOException If the file can't be read, it is not a valid board file, or a cell has an invalid type or cost.
+   */
+  public static MappedBoard load(File file) throws IOException {
+    try (RandomAccessFile input = new RandomAccessFile(file, "r"); FileChannel channel = input.getChannel()) {
+      if (channel.size() < HEADER_SIZE) {
+        throw new IOException("The file is too short to be a board file: " + file);
+      }
+
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+
+      if (header.getInt() != MAGIC) {
+        throw new IOException("The file is not a board file: " + file);
+      }
+
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported board file version " + version + ": " + file);
+      }
+
+      int width = header.getInt();
+      int height = header.getInt();
+      long nodeCount = (long) width * height;
+
+      if (width <= 0 || height <= 0 || nodeCount > Integer.MAX_VALUE) {
+        throw new IOException("Invalid board size " + width + "x" + height + ": " + file);
+      }
+      if (channel.size() < HEADER_SIZE + 2 * nodeCount) {
+        throw new IOException("The board file is truncated: " + file);
+      }
+
+      MappedByteBuffer types = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, nodeCount);
+      MappedByteBuffer costs = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + nodeCount, nodeCount);
+
+      checkLayer(types, TYPE_COUNT - 1, "type", file);
+      checkLayer(costs, Byte.MAX_VALUE, "cost", file);
+
+      //The mappings stay valid after the channel is closed.
+      return new MappedBoard(width, height, types, costs);
+    }
+  }
+
+  /**
+   * Checks if the cost fits into the cost layer.
+   * @param cost The extra cost of a cell.
+   * @return The cost as a byte.
+   */
+  private static byte toCost(int cost){
+    if (cost < 0 || cost > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("The cost must be between 0 and " + Byte.MAX_VALUE + ": " + cost);
+    }
+    return (byte) cost;
+  }
+
+  /**
+   * Checks if every byte of a layer is between 0 and a maximum, reading the layer in chunks.
+   * @param layer The mapped layer, its position is not changed.
+   * @param max The highest valid value.
+   * @param name The name of the layer, used in the message.
+   * @param file The board file, used in the message.
+   * @throws IOException If a byte of the layer is invalid.
+   */
+  private static void checkLayer(ByteBuffer layer, int max, String name, File file) throws IOException {
+    ByteBuffer reader = layer.duplicate();
+    byte[] chunk = new byte[BUFFER_SIZE];
+
+    for (int offset = 0; reader.hasRemaining(); ) {
+      int length = Math.min(chunk.length, reader.remaining());
+      reader.get(chunk, 0, length);
+
+      for (int i = 0; i < length; i++) {
+        if (chunk[i] < 0 || chunk[i] > max) {
+          throw new IOException("Invalid " + name + " " + chunk[i] + " of cell " + (offset + i) + ": " + file);
+        }
+      }
+
+      offset += length;
+    }
+  }
+
+  /**
+   * Writes the content of the buffer to the channel and clears the buffer.
+   * @param channel The channel of the file.
+   * @param buffer The buffer which holds the bytes to write.
+   * @throws IOException If the bytes can't be written.
+   */
+  private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+
+    buffer.clear();
+  }
+}
@@ -0,0 +1,132 @@
+package com.pathfinding.common;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * The Main class for the seeded generation of random boards.
+ * The board is split into bands of rows, and every band gets its own {@link SplittableRandom}, split from the seed in the order of the bands.
+ * The bands are generated in parallel, but as their height and their generators don't depend on the threads, the same seed always gives the same board.
+ * Cells on the edge of the board are walls, the rest are walls by the wall density, and every cell gets an extra cost from the cost distribution.
+ */
+public class BoardGenerator {
+  private static final int BAND_HEIGHT = 64; //The number of rows generated by one task, fixed so that the board doesn't depend on the threads.
+
+  private final long seed; //The seed of the board.
+  private double wallDensity = 0.15; //The chance of an inner cell to become a wall.
+  private CostDistribution costDistribution = CostDistribution.uniform(0, 9); //The distribution of the extra costs.
+
+  /**
+   * Creates a generator with 15% walls and uniform costs between 0 and 9.
+   * @param seed The seed of the board.
+   */
+  public BoardGenerator(long seed){
+    this.seed = seed;
+  }
+
+  /**
+   * Sets the chance of an inner cell to become a wall.
+   * @param wallDensity The chance, between 0 and 1.
+   */
+  public void setWallDensity(double wallDensity){
+    if (!(wallDensity >= 0 && wallDensity <= 1)) {
+      throw new IllegalArgumentException("The wall density must be between 0 and 1: " + wallDensity);
+    }
+    this.wallDensity = wallDensity;
+  }
+
+  /**
+   * Sets the distribution of the extra costs.
+   * @param costDistribution The distribution, which is called from several threads.
+   */
+  public void setCostDistribution(CostDistribution costDistribution){
+    this.costDistribution = costDistribution;
+  }
+
+  /**
+   * Returns the seed of the board.
+   * @return The seed.
+   */
+  public long getSeed(){
+    return seed;
+  }
+
+  /**
+   * Returns the chance of an inner cell to become a wall.
+   * @return The wall density.
+   */
+  public double getWallDensity(){
+    return wallDensity;
+  }
+
+  /**
+   * Fills up a compact board, then notifies it about the change once.
+   * @param board The board, whose every cell is overwritten.
+   */
+  public void generate(CompactBoard board){
+    generate(board.getWidth(), board.getHeight(), board::setRow);
+    board.generated();
+  }
+
+  /**
+   * Generates the rows of a board in parallel, every row is passed to the writer once.
+   * @param width The width of the board.
+   * @param height The height of the board.
+   * @param writer The writer of the rows, called from several threads with different rows.
+   */
+  void generate(int width, int height, RowWriter writer){
+    int bandCount = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+    SplittableRandom[] generators = new SplittableRandom[bandCount];
+    SplittableRandom root = new SplittableRandom(seed);
+
+    //The generators are split in the order of the bands before anything runs, so every band gets the same one for the same seed.
+    for (int i = 0; i < bandCount; i++) {
+      generators[i] = root.split();
+    }
+
+    IntStream.range(0, bandCount).parallel().forEach(band -> {
+      SplittableRandom rng = generators[band];
+      Node.Types[] types = new Node.Types[width];
+      int[] costs = new int[width];
+
+      for (int y = band * BAND_HEIGHT; y < Math.min(height, (band + 1) * BAND_HEIGHT); y++) {
+        generateRow(y, width, height, rng, types, costs);
+        writer.writeRow(y, types, costs);
+      }
+    });
+  }
+
+  /**
+   * Generates the types and the costs of a row.
+   * @param y The Y coordinate of the row.
+   * @param width The width of the board.
+   * @param height The height of the board.
+   * @param rng The generator of the band which contains the row.
+   * @param types The array which receives the types.
+   * @param costs The array which receives the extra costs.
+   */
+  private void generateRow(int y, int width, int height, SplittableRandom rng, Node.Types[] types, int[] costs){
+    boolean edgeRow = y == 0 || y == height - 1;
+
+    for (int x = 0; x < width; x++) {
+      boolean wall = rng.nextDouble() < wallDensity;
+
+      types[x] = edgeRow || x == 0 || x == width - 1 || wall ? Node.Types.Wall : Node.Types.Floor;
+      costs[x] = costDistribution.nextCost(rng);
+    }
+  }
+
+  /**
+   * The receiver of the generated rows.
+   */
+  interface RowWriter {
+
+    /**
+     * Stores a generated row, the arrays are reused for the next row.
+     * @param y The Y coordinate of the row.
+     * @param types The type of every cell in the row.
+     * @param costs The extra cost of every cell in the row.
+     */
+    void writeRow(int y, Node.Types[] types, int[] costs);
+  }
+}
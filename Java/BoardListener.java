@@ -0,0 +1,17 @@
+package com.pathfinding.common;
+
+/**
+ * The Main interface for the listeners of grid changes.
+ * Listeners are called on the thread which changed the grid, right after the change.
+ */
+public interface BoardListener {
+
+  /**
+   * Called after the type or the cost of a node has changed.
+   * The new values can be read from the grid.
+   * @param index The index of the changed node.
+   * @param oldType The type of the node before the change.
+   * @param oldCost The extra cost of the node before the change.
+   */
+  void nodeChanged(int index, Node.Types oldType, int oldCost);
+}
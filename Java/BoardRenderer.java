@@ -0,0 +1,311 @@
+package com.pathfinding.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The Main class for drawing a window of a board as text.
+ * The rows are written straight into a fixed size byte buffer, which is drained into a channel whenever it fills up,
+ * so no string of the whole board is built, and the memory use doesn't depend on the size of the board.
+ * <p>
+ * Only the viewport is read, optionally downsampled, where one character stands for a square block of nodes. A block shows its most important node:
+ * the start or the destination, then the path, then a checked node, otherwise it's a wall if most of its nodes are walls.
+ * The output has the same layout as {@link Board#drawBoard()}: a header with the X coordinates, then every row starting with its Y coordinate.
+ */
+public class BoardRenderer {
+  private static final int BUFFER_SIZE = 1 << 16; //The size of the output buffer in bytes.
+  private static final byte[] MARKS = new byte[Node.Types.values().length]; //The character of every node type.
+
+  static {
+    for (Node.Types type : Node.Types.values()) {
+      MARKS[type.ordinal()] = (byte) type.toString().charAt(0);
+    }
+  }
+
+  private final GridGraph graph; //The board to draw.
+  private int viewX; //The X coordinate of the top left node of the viewport.
+  private int viewY; //The Y coordinate of the top left node of the viewport.
+  private int viewWidth; //The width of the viewport in nodes.
+  private int viewHeight; //The height of the viewport in nodes.
+  private int scale = 1; //The width and height of the block of nodes shown by one character.
+  private Path path; //The path drawn over the board, null for none.
+
+  /**
+   * Creates a renderer which draws the whole board without downsampling.
+   * @param graph The board to draw.
+   */
+  public BoardRenderer(GridGraph graph){
+    this.graph = graph;
+    this.viewWidth = graph.getWidth();
+    this.viewHeight = graph.getHeight();
+  }
+
+  /**
+   * Sets the window of the board to draw, it is clipped to the board.
+   * @param x The X coordinate of the top left node.
+   * @param y The Y coordinate of the top left node.
+   * @param width The width of the window in nodes.
+   * @param height The height of the window in nodes.
+   */
+  public void setViewport(int x, int y, int width, int height){
+    viewX = Math.max(0, Math.min(x, graph.getWidth() - 1));
+    viewY = Math.max(0, Math.min(y, graph.getHeight() - 1));
+    viewWidth = Math.max(1, Math.min(x + width, graph.getWidth()) - viewX);
+    viewHeight = Math.max(1, Math.min(y + height, graph.getHeight()) - viewY);
+  }
+
+  /**
+   * Sets the viewport to the bounding box of a path, the path is drawn over the board too.
+   * An empty path keeps the current viewport.
+   * @param path The path.
+   * @param margin The number of nodes shown around the path on every side.
+   */
+  public void cropAround(Path path, int margin){
+    setPath(path);
+    List<Node> steps = path.getSteps();
+
+    if (steps.isEmpty()) {
+      return;
+    }
+
+    int minX = Integer.MAX_VALUE;
+    int minY = Integer.MAX_VALUE;
+    int maxX = Integer.MIN_VALUE;
+    int maxY = Integer.MIN_VALUE;
+
+    for (Node step : steps) {
+      minX = Math.min(minX, step.getX());
+      minY = Math.min(minY, step.getY());
+      maxX = Math.max(maxX, step.getX());
+      maxY = Math.max(maxY, step.getY());
+    }
+
+    //The start is not a step, but it's next to the last step, so a margin of at least one includes it.
+    margin = Math.max(margin, 1);
+    setViewport(minX - margin, minY - margin, maxX - minX + 1 + 2 * margin, maxY - minY + 1 + 2 * margin);
+  }
+
+  /**
+   * Sets the downsampling.
+   * @param scale The width and height of the block of nodes shown by one character, 1 for no downsampling.
+   */
+  public void setScale(int scale){
+    if (scale < 1) {
+      throw new IllegalArgumentException("The scale must be at least one.");
+    }
+    this.scale = scale;
+  }
+
+  /**
+   * Sets the lowest downsampling with which the viewport fits into the given number of characters.
+   * @param maxColumns The highest number of columns.
+   * @param maxRows The highest number of rows.
+   */
+  public void fit(int maxColumns, int maxRows){
+    int columnScale = (viewWidth + Math.max(maxColumns, 1) - 1) / Math.max(maxColumns, 1);
+    int rowScale = (viewHeight + Math.max(maxRows, 1) - 1) / Math.max(maxRows, 1);
+    setScale(Math.max(1, Math.max(columnScale, rowScale)));
+  }
+
+  /**
+   * Sets the path drawn over the board, without changing the board.
+   * @param path The path, null to draw none.
+   */
+  public void setPath(Path path){
+    this.path = path;
+  }
+
+  /**
+   * Draws the viewport into a channel.
+   * The reading and the writing cost depend on the size of the viewport only, the path is read once to mark its steps within the viewport.
+   * @param channel The channel which receives the text, it is not closed.
+   * @throws IOException If the channel can't be written.
+   */
+  public void render(WritableByteChannel channel) throws IOException {
+    int columns = (viewWidth + scale - 1) / scale;
+    int rows = (viewHeight + scale - 1) / scale;
+    int labelWidth = getDigitCount(viewY + (rows - 1) * scale);
+    BitSet pathCells = getPathCells(columns, rows);
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    //The header holds the X coordinate above the columns, after the space of the row labels.
+    //A coordinate which would overlap the previous one is left out, so every shown coordinate stays above its column.
+    for (int i = 0; i <= labelWidth; i++) {
+      buffer.put((byte) ' ');
+    }
+    for (int column = 0, position = 0; column < columns; column++) {
+      int x = viewX + column * scale;
+      int digits = getDigitCount(x);
+
+      if (position > column * 2) {
+        continue;
+      }
+
+      ensureRemaining(channel, buffer, column * 2 - position + digits + 1);
+      for (; position < column * 2; position++) {
+        buffer.put((byte) ' ');
+      }
+      putNumber(buffer, x, 0);
+      buffer.put((byte) ' ');
+      position += digits + 1;
+    }
+    putLineSeparator(channel, buffer);
+
+    for (int row = 0; row < rows; row++) {
+      ensureRemaining(channel, buffer, labelWidth + 1);
+      putNumber(buffer, viewY + row * scale, labelWidth);
+
+      for (int column = 0; column < columns; column++) {
+        ensureRemaining(channel, buffer, 2);
+        buffer.put((byte) ' ');
+        buffer.put(getMark(column, row, pathCells.get(row * columns + column)));
+      }
+
+      putLineSeparator(channel, buffer);
+    }
+
+    drain(channel, buffer);
+  }
+
+  /**
+   * Returns the character of a block of nodes.
+   * @param column The column of the block.
+   * @param row The row of the block.
+   * @param onPath If a step of the drawn path is in the block.
+   * @return The character of the most important node of the block.
+   */
+  private byte getMark(int column, int row, boolean onPath){
+    int startX = viewX + column * scale;
+    int startY = viewY + row * scale;
+    int endX = Math.min(startX + scale, viewX + viewWidth);
+    int endY = Math.min(startY + scale, viewY + viewHeight);
+    boolean path = onPath;
+    boolean checked = false;
+    int walls = 0;
+
+    for (int y = startY; y < endY; y++) {
+      for (int x = startX; x < endX; x++) {
+        Node.Types type = graph.getType(graph.getIndex(x, y));
+
+        switch (type) {
+          case Start:
+          case Destination:
+            return MARKS[type.ordinal()];
+          case Path:
+            path = true;
+            break;
+          case Checked:
+            checked = true;
+            break;
+          case Wall:
+            walls++;
+            break;
+          default:
+            break;
+        }
+      }
+    }
+
+    if (path) {
+      return MARKS[Node.Types.Path.ordinal()];
+    }
+    if (checked) {
+      return MARKS[Node.Types.Checked.ordinal()];
+    }
+    return MARKS[(walls * 2 > (endX - startX) * (endY - startY) ? Node.Types.Wall : Node.Types.Floor).ordinal()];
+  }
+
+  /**
+   * Marks the blocks of the viewport which hold a step of the drawn path.
+   * @param columns The number of columns of the output.
+   * @param rows The number of rows of the output.
+   * @return The marked blocks in row major order.
+   */
+  private BitSet getPathCells(int columns, int rows){
+    BitSet cells = new BitSet(path == null ? 0 : columns * rows);
+
+    if (path == null) {
+      return cells;
+    }
+
+    for (Node step : path.getSteps()) {
+      int x = step.getX() - viewX;
+      int y = step.getY() - viewY;
+
+      if (x >= 0 && y >= 0 && x < viewWidth && y < viewHeight) {
+        cells.set((y / scale) * columns + x / scale);
+      }
+    }
+
+    return cells;
+  }
+
+  /**
+   * Writes a non negative number, padded with spaces from the left.
+   * @param buffer The output buffer, which has room for the number.
+   * @param number The number.
+   * @param width The lowest number of characters.
+   */
+  private static void putNumber(ByteBuffer buffer, int number, int width){
+    int digits = getDigitCount(number);
+
+    for (int i = digits; i < width; i++) {
+      buffer.put((byte) ' ');
+    }
+
+    int position = buffer.position();
+    for (int i = digits - 1; i >= 0; i--) {
+      buffer.put(position + i, (byte) ('0' + number % 10));
+      number /= 10;
+    }
+    buffer.position(position + digits);
+  }
+
+  /**
+   * Returns the number of decimal digits of a non negative number.
+   */
+  private static int getDigitCount(int number){
+    int digits = 1;
+    for (int rest = number / 10; rest > 0; rest /= 10) {
+      digits++;
+    }
+    return digits;
+  }
+
+  /**
+   * Writes the line separator of the platform.
+   */
+  private static void putLineSeparator(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+    String separator = System.lineSeparator();
+    ensureRemaining(channel, buffer, separator.length());
+
+    for (int i = 0; i < separator.length(); i++) {
+      buffer.put((byte) separator.charAt(i));
+    }
+  }
+
+  /**
+   * Drains the buffer if it has less room than needed.
+   */
+  private static void ensureRemaining(WritableByteChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      drain(channel, buffer);
+    }
+  }
+
+  /**
+   * Writes the content of the buffer into the channel and clears the buffer.
+   */
+  private static void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+
+    buffer.clear();
+  }
+}
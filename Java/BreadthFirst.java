@@ -1,10 +1,5 @@
 package com.pathfinding.common;
 
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.ArrayList;
-import java.util.Stack;
-
 /**
  * The Main class for Breadth First pathfinding.
  * Contains all the logic required to generate the path.
@@ -15,55 +10,75 @@ public class BreadthFirst extends Pathfinding {
     super(boardHandler);
   }
 
+  public BreadthFirst(GridGraph graph){
+    super(graph);
+  }
+
   /**
    * Calculates the path to the target using the Breadth First algorithm, then returns it.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the parent of every node.
    * @return The calculated path.
+   * {@link Search}
    */
   @Override
-  public Path getPath(){
-    Stack<Node> path = new Stack<Node>();
+  protected Path search(int start, int destination, SearchContext context){
+    return createSearch(start, destination, context).complete();
+  }
 
-    //Creating the open and closed node list.
-    Queue<Node> openNodes = new LinkedList<Node>();
-    ArrayList<Node> closedNodes = new ArrayList<Node>();
+  @Override
+  protected SearchHandle createSearch(int start, int destination, SearchContext context){
+    return new Search(start, destination, context);
+  }
 
-    //References for the start and destination node for easier use.
-    Node startNode = boardHandler.getStartingNode();
-    Node destinationNode = boardHandler.getDestinationNode();
+  /**
+   * The Main class for a Breadth First search which runs in slices.
+   * Nodes are marked as reached when they are queued, so every node is queued at most once and keeps its first parent.
+   */
+  private class Search extends SearchHandle {
+    private final NodeQueue openNodes; //The open node list of the context.
+    private final int[] neighbours = new int[4]; //The neighbours of the current node.
+
+    private Search(int start, int destination, SearchContext context){
+      super(BreadthFirst.this, destination, context);
 
-    openNodes.add(startNode);
+      openNodes = context.getQueue();
+      context.reach(start, 0, -1);
+      openNodes.push(start);
+    }
 
-    while (!openNodes.isEmpty()) {
+    @Override
+    protected void advance(int maxExpansions){
+      for (int expansions = 0; expansions < maxExpansions; expansions++) {
 
-      //Selects the next node to check.
-      Node currentNode = openNodes.remove();
-      if(!closedNodes.contains(currentNode)){ closedNodes.add(currentNode); }
+        if (openNodes.isEmpty()) {
+          finish(Status.UNREACHABLE, buildPath(-1, context));
+          return;
+        }
 
-      //If the current node is the destination node, then the path is complete.
-      if (currentNode == destinationNode) {
+        //Selects the next node to check.
+        int currentNode = openNodes.poll();
+        context.close(currentNode);
 
-        //Backtracking and adding the steps to the stack.
-        while (currentNode != startNode) {
-          path.push(currentNode);
-          currentNode = currentNode.getParent();
+        //If the current node is the destination node, then the path is complete.
+        if (currentNode == destination) {
+          finish(Status.FOUND, buildPath(currentNode, context));
+          return;
         }
-        break;
-      }
 
-      //Checks each neighbour of the node.
-      for(Node neighbour: currentNode.getNeighbours()){
+        //Checks each neighbour of the node, walls are not returned as neighbours.
+        int neighbourCount = graph.getNeighbours(currentNode, neighbours);
 
-        //Filtering out nodes that are not fit for path.
-        if (!neighbour.getType().equals(Node.Types.Wall)) {
+        for(int i = 0; i < neighbourCount; i++){
+          int neighbour = neighbours[i];
 
-          if (!closedNodes.contains(neighbour)) {
-            neighbour.setParent(currentNode);
-            openNodes.add(neighbour);
+          if (!context.isReached(neighbour)) {
+            context.reach(neighbour, context.getDistance(currentNode) + 1, currentNode);
+            openNodes.push(neighbour);
           }
         }
       }
     }
-
-    return new Path(path, closedNodes);
   }
 }
@@ -0,0 +1,173 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+
+/**
+ * The Main class for the bucket (Dial) queue, which is used as an open node list for small integer step costs.
+ * Nodes are stored in a ring of buckets, one bucket for every distinct key within the current key window.
+ * As long as the added keys never go below the last polled key, adding and polling costs O(1) amortized.
+ */
+public class BucketQueue {
+  private int[][] buckets; //The ring of buckets, each one is a stack of node indices.
+  private int[] bucketSizes; //The number of nodes in each bucket.
+  private int mask; //The ring length minus one, the ring length is always a power of two.
+  private int currentKey; //The key of the last polled node, every queued key is within the ring from here.
+  private int size; //The number of nodes in the queue.
+
+  private long pushCount; //The number of added nodes since the queue was created.
+  private long pollCount; //The number of polled nodes since the queue was created.
+  private int peakSize; //The highest size since the last reset of the peak.
+
+  /**
+   * Creates an empty queue.
+   * @param maxStepCost The highest difference expected between a queued key and the last polled key.
+   * Higher differences are still accepted, but they make the ring grow.
+   */
+  public BucketQueue(int maxStepCost){
+    int length = Integer.highestOneBit(Math.max(maxStepCost, 1)) << 1;
+    buckets = new int[length][];
+    bucketSizes = new int[length];
+    mask = length - 1;
+  }
+
+  /**
+   * Adds a node to the queue.
+   * The same node can be added multiple times, the caller has to skip the outdated entries after polling.
+   * @param node The index of the node.
+   * @param key The key of the node, which must not be lower than the key of the last polled node.
+   */
+  public void add(int node, int key){
+    if(key - currentKey > mask){
+      grow(key - currentKey);
+    }
+
+    push(key & mask, node);
+    size++;
+
+    pushCount++;
+    peakSize = Math.max(peakSize, size);
+  }
+
+  /**
+   * Removes a node with the lowest key from the queue.
+   * @return The index of the removed node.
+   * {@link #getCurrentKey()}
+   */
+  public int poll(){
+    while(bucketSizes[currentKey & mask] == 0){
+      currentKey++;
+    }
+
+    int bucket = currentKey & mask;
+    size--;
+    pollCount++;
+    return buckets[bucket][--bucketSizes[bucket]];
+  }
+
+  /**
+   * Returns the key of the last polled node.
+   * @return The current key of the queue.
+   */
+  public int getCurrentKey(){
+    return currentKey;
+  }
+
+  /**
+   * Removes every node from the queue and resets the current key to zero.
+   */
+  public void clear(){
+    Arrays.fill(bucketSizes, 0);
+    currentKey = 0;
+    size = 0;
+  }
+
+  /**
+   * Checks if the queue is empty.
+   * @return If there is no node in the queue.
+   */
+  public boolean isEmpty(){
+    return size == 0;
+  }
+
+  /**
+   * Returns the number of entries in the queue, outdated entries included.
+   * @return The size of the queue.
+   */
+  public int size(){
+    return size;
+  }
+
+  /**
+   * Returns the number of nodes added since the queue was created.
+   * @return The number of pushes.
+   */
+  public long getPushCount(){
+    return pushCount;
+  }
+
+  /**
+   * Returns the number of nodes polled since the queue was created.
+   * @return The number of pops.
+   */
+  public long getPollCount(){
+    return pollCount;
+  }
+
+  /**
+   * Returns the highest number of entries in the queue since the last reset of the peak.
+   * Clearing the queue doesn't reset the peak, so it covers every search of a query.
+   * @return The peak size.
+   */
+  public int getPeakSize(){
+    return peakSize;
+  }
+
+  /**
+   * Resets the peak size to the current size.
+   */
+  public void resetPeakSize(){
+    peakSize = size;
+  }
+
+  /**
+   * Pushes a node onto a bucket, growing the bucket if needed.
+   * @param bucket The index of the bucket.
+   * @param node The index of the node.
+   */
+  private void push(int bucket, int node){
+    int[] nodes = buckets[bucket];
+
+    if(nodes == null){
+      nodes = buckets[bucket] = new int[16];
+    }
+    else if(bucketSizes[bucket] == nodes.length){
+      nodes = buckets[bucket] = Arrays.copyOf(nodes, nodes.length * 2);
+    }
+
+    nodes[bucketSizes[bucket]++] = node;
+  }
+
+  /**
+   * Enlarges the ring so that it can hold the given key difference, then redistributes the queued nodes.
+   * The key of a queued node is restored from its bucket index, as every key is within one ring length from the current key.
+   * @param keyDifference The key difference which has to fit in the ring.
+   */
+  private void grow(int keyDifference){
+    int[][] oldBuckets = buckets;
+    int[] oldSizes = bucketSizes;
+    int oldMask = mask;
+    int length = Integer.highestOneBit(keyDifference) << 1;
+
+    buckets = new int[length][];
+    bucketSizes = new int[length];
+    mask = length - 1;
+
+    for(int i = 0; i <= oldMask; i++){
+      int key = currentKey + ((i - currentKey) & oldMask);
+
+      for(int j = 0; j < oldSizes[i]; j++){
+        push(key & mask, oldBuckets[i][j]);
+      }
+    }
+  }
+}
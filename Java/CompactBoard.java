@@ -0,0 +1,199 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Main class for the compact board, which stores the grid in two primitive layers.
+ * Every cell takes two bytes: one for its type and one for its extra cost, the neighbours are calculated from the index.
+ * The layers are row major, so scanning neighbouring cells stays within the same cache lines.
+ */
+public class CompactBoard implements GridGraph {
+  private static final Node.Types[] TYPES = Node.Types.values(); //The node types by their ordinal.
+
+  private final int width; //The width of the board.
+  private final int height; //The height of the board.
+  private final byte[] types; //The ordinal of the type of every cell.
+  private final byte[] costs; //The extra cost of every cell, between 0 and 127.
+
+  private Random rng = new Random(); //The Random Number Generator used during the board creation.
+  private final List<BoardListener> listeners = new CopyOnWriteArrayList<BoardListener>(); //The listeners of cell changes.
+  private final AtomicLong version = new AtomicLong(); //The version of the board, increased by every change.
+
+  /**
+   * Creates a board with the given dimensions, every cell is a floor with no extra cost.
+   * @param width The width of the board.
+   * @param height The height of the board.
+   */
+  public CompactBoard(int width, int height){
+    this.width = width;
+    this.height = height;
+    this.types = new byte[Math.multiplyExact(width, height)];
+    this.costs = new byte[types.length];
+
+    Arrays.fill(types, (byte) Node.Types.Floor.ordinal());
+  }
+
+  /**
+   * Creates a compact copy of another grid.
+   * @param graph The grid which is copied.
+   */
+  public CompactBoard(GridGraph graph){
+    this(graph.getWidth(), graph.getHeight());
+
+    for(int i = 0; i < types.length; i++){
+      types[i] = (byte) graph.getType(i).ordinal();
+      costs[i] = toCost(graph.getCost(i));
+    }
+  }
+
+  /**
+   * Fills up the board with wall and floor cells, the same way as {@link Board#generateBoard(int, int)} does.
+   * The board is generated in parallel by a {@link BoardGenerator}, seeded from the Random Number Generator of the board.
+   */
+  public void generateBoard(){
+    new BoardGenerator(rng.nextLong()).generate(this);
+  }
+
+  /**
+   * Overwrites a row of cells without notifying the listeners, used by the {@link BoardGenerator}.
+   * @param y The Y coordinate of the row.
+   * @param rowTypes The type of every cell in the row.
+   * @param rowCosts The extra cost of every cell in the row.
+   */
+  void setRow(int y, Node.Types[] rowTypes, int[] rowCosts){
+    int index = y * width;
+
+    for(int x = 0; x < width; x++, index++){
+      types[index] = (byte) rowTypes[x].ordinal();
+      costs[index] = toCost(rowCosts[x]);
+    }
+  }
+
+  /**
+   * Increases the version of the board after every row was overwritten.
+   */
+  void generated(){
+    version.incrementAndGet();
+  }
+
+  @Override
+  public int getWidth(){
+    return width;
+  }
+
+  @Override
+  public int getHeight(){
+    return height;
+  }
+
+  @Override
+  public int getNodeCount(){
+    return types.length;
+  }
+
+  @Override
+  public Node.Types getType(int index){
+    return TYPES[types[index]];
+  }
+
+  @Override
+  public int getCost(int index){
+    return costs[index];
+  }
+
+  @Override
+  public boolean isWalkable(int index){
+    return types[index] != Node.Types.Wall.ordinal();
+  }
+
+  /**
+   * Creates a node from the layers, the node is not connected to its neighbours.
+   * @param index The index of the cell.
+   * @return A new node with the type, position and cost of the cell.
+   */
+  @Override
+  public Node getNode(int index){
+    return new Node(getType(index), index % width, index / width, costs[index]);
+  }
+
+  /**
+   * Sets the type of a cell.
+   * @param x The X coordinate of the cell.
+   * @param y The Y coordinate of the cell.
+   * @param type The type to which the cell should be set.
+   */
+  public void setType(int x, int y, Node.Types type){
+    int index = getIndex(x, y);
+    Node.Types oldType = getType(index);
+
+    types[index] = (byte) type.ordinal();
+    fireNodeChanged(index, oldType, costs[index]);
+  }
+
+  /**
+   * Sets the extra cost of a cell.
+   * @param x The X coordinate of the cell.
+   * @param y The Y coordinate of the cell.
+   * @param cost The extra cost, between 0 and 127.
+   */
+  public void setCost(int x, int y, int cost){
+    int index = getIndex(x, y);
+    int oldCost = costs[index];
+
+    costs[index] = toCost(cost);
+    fireNodeChanged(index, getType(index), oldCost);
+  }
+
+  @Override
+  public long getVersion(){
+    return version.get();
+  }
+
+  @Override
+  public void addListener(BoardListener listener){
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(BoardListener listener){
+    listeners.remove(listener);
+  }
+
+  /**
+   * Increases the version of the board and notifies the listeners about a changed cell.
+   * @param index The index of the changed cell.
+   * @param oldType The type of the cell before the change.
+   * @param oldCost The extra cost of the cell before the change.
+   */
+  private void fireNodeChanged(int index, Node.Types oldType, int oldCost){
+    version.incrementAndGet();
+
+    for(BoardListener listener : listeners){
+      listener.nodeChanged(index, oldType, oldCost);
+    }
+  }
+
+  /**
+   * Sets the seed of the Random Number Generator used by {@link #generateBoard()}.
+   * @param seed The seed of the generator.
+   */
+  public void setSeed(long seed){
+    rng = new Random(seed);
+  }
+
+  /**
+   * Checks if the cost fits into the cost layer.
+   * @param cost The extra cost of a cell.
+   * @return The cost as a byte.
+   */
+  private static byte toCost(int cost){
+    if(cost < 0 || cost > Byte.MAX_VALUE){
+      throw new IllegalArgumentException("The cost must be between 0 and " + Byte.MAX_VALUE + ": " + cost);
+    }
+    return (byte) cost;
+  }
+}
@@ -0,0 +1,466 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The Main class for the connected components of a grid.
+ * Every walkable cell has the label of its component in a single int array, walls have -1, so two cells are connected if their labels are equal.
+ * A query between two components can be rejected with two array reads, instead of checking every node which can be reached from the start.
+ * <p>
+ * The labels are calculated in parallel: every band of rows is labelled with a union find on its own, then the bands are joined along their borders.
+ * The components listen to the grid, and a cell which changes between wall and floor only updates the components around it:
+ * a new floor joins the components of its neighbours, and a new wall checks if its neighbours are still connected with searches which run next to each other,
+ * so the cost depends on the smaller part, not on the whole component.
+ * A grid which changed without notifying its listeners, like a regenerated {@link Board}, is labelled again before the next check.
+ */
+public class ConnectedComponents implements BoardListener, AutoCloseable {
+  private static final int BAND_HEIGHT = 64; //The number of rows labelled by one task.
+
+  private final GridGraph graph; //The grid of the components.
+  private int width; //The width of the grid when it was labelled.
+  private int[] labels = new int[0]; //The component label of every cell, -1 for walls.
+  private int nextLabel; //The next unused label, labels below the node count come from the full labelling.
+  private volatile long version = -1; //The version of the grid which the labels belong to.
+
+  private int[] stamps = new int[0]; //The search which visited a cell during an update, created on the first update.
+  private int stamp; //The stamp of the first search of the current update.
+  private final NodeQueue[] queues = new NodeQueue[4]; //The open cells of the searches of an update, one search per neighbour.
+  private final int[] sets = new int[4]; //The set of every search of an update, searches which met are in the same set.
+  private final NodeQueue relabelQueue = new NodeQueue(); //The open cells of a relabelling.
+
+  /**
+   * Labels the grid, then starts listening to its changes.
+   * @param graph The grid of the components.
+   */
+  public ConnectedComponents(GridGraph graph){
+    this.graph = graph;
+
+    for (int i = 0; i < queues.length; i++) {
+      queues[i] = new NodeQueue();
+    }
+
+    label();
+    graph.addListener(this);
+  }
+
+  /**
+   * Checks if there is a path between two cells.
+   * @param start The index of the first cell.
+   * @param destination The index of the second cell.
+   * @return If both cells are walkable and they are in the same component.
+   */
+  public boolean isConnected(int start, int destination){
+    int[] current = getLabels();
+    return current[start] != -1 && current[start] == current[destination];
+  }
+
+  /**
+   * Returns the component label of a cell.
+   * @param index The index of the cell.
+   * @return The label of the component of the cell, -1 if the cell is a wall.
+   */
+  public int getLabel(int index){
+    return getLabels()[index];
+  }
+
+  /**
+   * Returns the grid of the components.
+   * @return The labelled grid.
+   */
+  public GridGraph getGraph(){
+    return graph;
+  }
+
+  /**
+   * Returns the labels, after labelling the grid again if it changed without notifying the listeners.
+   * @return The current labels.
+   */
+  private int[] getLabels(){
+    if (version != graph.getVersion()) {
+      synchronized (this) {
+        if (version != graph.getVersion()) {
+          label();
+        }
+      }
+    }
+
+    return labels;
+  }
+
+  /**
+   * Updates the components if the cell changed between walkable and wall.
+   * Changes which don't alter the walkability, like marking the path, are ignored.
+   */
+  @Override
+  public synchronized void nodeChanged(int index, Node.Types oldType, int oldCost){
+    //A change which the labels missed can't be repaired locally.
+    if (graph.getVersion() != version + 1 || graph.getWidth() != width || graph.getNodeCount() != labels.length) {
+      label();
+      return;
+    }
+
+    version = graph.getVersion();
+    boolean walkable = graph.isWalkable(index);
+
+    if (walkable == (oldType != Node.Types.Wall)) {
+      return;
+    }
+
+    //After about two billion updates the new labels would overflow, in that case the grid is labelled again.
+    if (nextLabel == Integer.MAX_VALUE) {
+      label();
+    }
+    else if (walkable) {
+      join(index);
+    }
+    else {
+      split(index);
+    }
+  }
+
+  /**
+   * Stops listening to the grid changes.
+   */
+  @Override
+  public void close(){
+    graph.removeListener(this);
+  }
+
+  /**
+   * Labels every cell of the grid in parallel.
+   * Every band is joined with union find, where each root is the lowest index of its tree, then the trees are joined across the band borders,
+   * and finally every cell gets the index of its root as its label.
+   */
+  private void label(){
+    long labelledVersion = graph.getVersion();
+    int gridWidth = graph.getWidth();
+    int nodeCount = graph.getNodeCount();
+    int height = gridWidth == 0 ? 0 : nodeCount / gridWidth;
+    int bandCount = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+    int[] parents = new int[nodeCount];
+
+    IntStream.range(0, bandCount).parallel().forEach(band -> {
+      int bandStart = band * BAND_HEIGHT;
+
+      for (int y = bandStart; y < Math.min(height, bandStart + BAND_HEIGHT); y++) {
+        for (int x = 0, index = y * gridWidth; x < gridWidth; x++, index++) {
+          if (!graph.isWalkable(index)) {
+            parents[index] = -1;
+            continue;
+          }
+
+          parents[index] = index;
+
+          if (x > 0 && parents[index - 1] != -1) {
+            union(parents, index - 1, index);
+          }
+          if (y > bandStart && parents[index - gridWidth] != -1) {
+            union(parents, index - gridWidth, index);
+          }
+        }
+      }
+    });
+
+    for (int band = 1; band < bandCount; band++) {
+      for (int x = 0, index = band * BAND_HEIGHT * gridWidth; x < gridWidth; x++, index++) {
+        if (parents[index] != -1 && parents[index - gridWidth] != -1) {
+          union(parents, index - gridWidth, index);
+        }
+      }
+    }
+
+    //The roots are written into a separate array, as the path halving of another thread could overwrite a finished parent.
+    int[] roots = new int[nodeCount];
+    IntStream.range(0, bandCount).parallel().forEach(band -> {
+      int end = Math.min(nodeCount, (band + 1) * BAND_HEIGHT * gridWidth);
+
+      for (int index = band * BAND_HEIGHT * gridWidth; index < end; index++) {
+        roots[index] = parents[index] == -1 ? -1 : find(parents, index);
+      }
+    });
+
+    width = gridWidth;
+    labels = roots;
+    nextLabel = nodeCount;
+    version = labelledVersion;
+  }
+
+  /**
+   * Joins the trees of two cells, the root with the higher index is linked under the other one.
+   */
+  private static void union(int[] parents, int first, int second){
+    int firstRoot = find(parents, first);
+    int secondRoot = find(parents, second);
+
+    if (firstRoot < secondRoot) {
+      parents[secondRoot] = firstRoot;
+    }
+    else if (secondRoot < firstRoot) {
+      parents[firstRoot] = secondRoot;
+    }
+  }
+
+  /**
+   * Finds the root of a cell, and halves the path to it.
+   * Halving only links a cell to one of its ancestors, so it stays correct while other threads read the same trees.
+   */
+  private static int find(int[] parents, int index){
+    while (parents[index] != index) {
+      int grandparent = parents[parents[index]];
+      parents[index] = grandparent;
+      index = grandparent;
+    }
+
+    return index;
+  }
+
+  /**
+   * Adds a new floor cell to the components around it.
+   * If it connects more components, they are searched next to each other until only one is left, and the finished ones get its label.
+   * @param index The index of the new floor cell.
+   */
+  private void join(int index){
+    int[] neighbours = new int[4];
+    int count = getLabelledNeighbours(index, neighbours);
+    int searches = 0;
+
+    //Only one neighbour is kept from every component.
+    for (int i = 0; i < count; i++) {
+      boolean duplicate = false;
+
+      for (int j = 0; j < searches; j++) {
+        duplicate |= labels[neighbours[j]] == labels[neighbours[i]];
+      }
+      if (!duplicate) {
+        neighbours[searches++] = neighbours[i];
+      }
+    }
+
+    if (searches == 0) {
+      labels[index] = nextLabel++;
+      return;
+    }
+    if (searches == 1) {
+      labels[index] = labels[neighbours[0]];
+      return;
+    }
+
+    int[] sizes = new int[searches];
+    startSearches(neighbours, searches);
+
+    for (int running = searches; running > 1; ) {
+      running = 0;
+
+      for (int i = 0; i < searches; i++) {
+        if (!queues[i].isEmpty()) {
+          int cell = queues[i].poll();
+          sizes[i]++;
+          expand(cell, labels[cell], i);
+        }
+        if (!queues[i].isEmpty()) {
+          running++;
+        }
+      }
+    }
+
+    //The search which is still running found the largest component, otherwise the one which checked the most cells.
+    int largest = 0;
+    for (int i = 0; i < searches; i++) {
+      if (!queues[i].isEmpty()) {
+        largest = i;
+        break;
+      }
+      if (sizes[i] > sizes[largest]) {
+        largest = i;
+      }
+    }
+
+    int label = labels[neighbours[largest]];
+    for (int i = 0; i < searches; i++) {
+      if (i != largest) {
+        relabel(neighbours[i], labels[neighbours[i]], label);
+      }
+    }
+
+    labels[index] = label;
+  }
+
+  /**
+   * Removes a new wall cell from its component.
+   * The neighbours of the cell are searched next to each other, searches which meet are joined, and a group of searches which ran out of cells
+   * found a separated part, which gets a new label. The searches stop when only one group is left.
+   * @param index The index of the new wall cell.
+   */
+  private void split(int index){
+    int label = labels[index];
+    labels[index] = -1;
+
+    int[] neighbours = new int[4];
+    int searches = getLabelledNeighbours(index, neighbours);
+
+    if (searches < 2) {
+      return;
+    }
+
+    startSearches(neighbours, searches);
+    int groups = searches;
+
+    while (groups > 1) {
+      for (int i = 0; i < searches && groups > 1; i++) {
+        if (!queues[i].isEmpty()) {
+          int cell = queues[i].poll();
+          groups -= expand(cell, label, i);
+        }
+      }
+
+      //A group without open cells is a separated part, unless it's the last group.
+      for (int i = 0; i < searches && groups > 1; i++) {
+        if (sets[i] != i || !isGroupFinished(i, searches)) {
+          continue;
+        }
+
+        relabel(neighbours[i], label, nextLabel++);
+        groups--;
+
+        for (int j = 0; j < searches; j++) {
+          if (sets[j] == i) {
+            sets[j] = -1;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if every search of a group ran out of cells.
+   */
+  private boolean isGroupFinished(int group, int searches){
+    for (int i = 0; i < searches; i++) {
+      if (sets[i] == group && !queues[i].isEmpty()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Starts one search from every given cell, with a fresh stamp for the update.
+   */
+  private void startSearches(int[] cells, int searches){
+    if (stamps.length != labels.length) {
+      stamps = new int[labels.length];
+      stamp = 0;
+    }
+
+    //After about half a billion updates the stamps would overflow, in that case they are cleared once.
+    if (stamp >= Integer.MAX_VALUE - 2 * queues.length) {
+      Arrays.fill(stamps, 0);
+      stamp = 0;
+    }
+
+    stamp += queues.length;
+
+    for (int i = 0; i < searches; i++) {
+      queues[i].clear();
+      queues[i].push(cells[i]);
+      stamps[cells[i]] = stamp + i;
+      sets[i] = i;
+    }
+  }
+
+  /**
+   * Adds the unvisited neighbours of a cell with the given label to a search.
+   * When the search reaches a cell of another search of a split, their groups are joined.
+   * @param cell The index of the expanded cell.
+   * @param label The label of the searched component.
+   * @param search The number of the search.
+   * @return The number of groups which were joined into the group of the search.
+   */
+  private int expand(int cell, int label, int search){
+    int[] neighbours = new int[4];
+    int count = getLabelledNeighbours(cell, neighbours);
+    int joined = 0;
+
+    for (int i = 0; i < count; i++) {
+      int neighbour = neighbours[i];
+
+      if (labels[neighbour] != label) {
+        continue;
+      }
+
+      int visitor = stamps[neighbour] - stamp;
+
+      if (visitor < 0 || visitor >= queues.length) {
+        stamps[neighbour] = stamp + search;
+        queues[search].push(neighbour);
+      }
+      else if (sets[visitor] != sets[search]) {
+        int from = sets[visitor];
+        int to = sets[search];
+
+        for (int j = 0; j < queues.length; j++) {
+          if (sets[j] == from) {
+            sets[j] = to;
+          }
+        }
+        joined++;
+      }
+    }
+
+    return joined;
+  }
+
+  /**
+   * Gives a new label to the cells of a component which can be reached from a cell.
+   * @param cell The index of a cell of the component.
+   * @param label The current label of the component.
+   * @param newLabel The new label of the component.
+   */
+  private void relabel(int cell, int label, int newLabel){
+    NodeQueue queue = relabelQueue;
+    int[] neighbours = new int[4];
+
+    queue.clear();
+    queue.push(cell);
+    labels[cell] = newLabel;
+
+    while (!queue.isEmpty()) {
+      int count = getLabelledNeighbours(queue.poll(), neighbours);
+
+      for (int i = 0; i < count; i++) {
+        if (labels[neighbours[i]] == label) {
+          labels[neighbours[i]] = newLabel;
+          queue.push(neighbours[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Collects the walkable neighbours of a cell, in the same order as {@link GridGraph#getNeighbours(int, int[])}.
+   * @param index The index of the cell.
+   * @param neighbours The array which receives the indices, at least four long.
+   * @return The number of neighbours.
+   */
+  private int getLabelledNeighbours(int index, int[] neighbours){
+    int x = index % width;
+    int count = 0;
+
+    if (x > 0 && labels[index - 1] != -1) {
+      neighbours[count++] = index - 1;
+    }
+    if (index >= width && labels[index - width] != -1) {
+      neighbours[count++] = index - width;
+    }
+    if (index + width < labels.length && labels[index + width] != -1) {
+      neighbours[count++] = index + width;
+    }
+    if (x < width - 1 && labels[index + 1] != -1) {
+      neighbours[count++] = index + 1;
+    }
+
+    return count;
+  }
+}
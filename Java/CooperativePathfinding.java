@@ -0,0 +1,460 @@
+package com.pathfinding.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The Main class for cooperative multi-agent pathfinding, using Windowed Hierarchical Cooperative A* (WHCA*).
+ * The agents are planned one by one in the order of their priority. Each agent runs A* in space and time, where waiting is a move too,
+ * and it avoids the nodes and the swaps reserved by the agents planned before it, then reserves its own plan in the shared {@link ReservationTable}.
+ * <p>
+ * The plans only look a fixed number of time steps ahead, so the cost of a plan doesn't depend on the length of the route.
+ * Beyond the window the exact distance to the destination is used as the heuristic, which is read from a {@link FlowField} shared by every agent with the same destination.
+ * A field is only kept while an active agent heads to its destination, so the memory follows the current destinations, not every one ever used.
+ * The agents are replanned every half window, and the order of the agents with the same priority is rotated by every plan, so no agent is always the last one.
+ * <p>
+ * Until an agent is planned, its current node is reserved for it for the whole window, so the agents planned before it route around it,
+ * and waiting in place is always collision free. An agent which has no collision free plan waits in place.
+ * The agents only avoid each other within a window. The planner is not thread safe.
+ */
+public class CooperativePathfinding {
+
+  private final GridGraph graph; //The grid of the agents.
+  private final int window; //The number of time steps planned ahead.
+  private final ReservationTable reservations; //The nodes reserved by the plans of the agents.
+  private final List<Agent> agents = new ArrayList<>(); //Every agent, the identifier of an agent is its position in the list.
+  private final Map<Integer, FlowField> heuristics = new HashMap<>(); //The distance fields of the destinations of the active agents.
+  private long heuristicsVersion; //The version of the grid when the distance fields were calculated.
+
+  private long time; //The current time step.
+  private long nextPlanTime; //The time step when the agents are replanned next.
+  private int rotation; //The number of plans so far, used to rotate the order of the agents.
+
+  //The state of the space-time search, reused by every agent. A state is a node at a time step within the window.
+  private final LongIntMap stateIndex = new LongIntMap(1024); //The index of every state by its node and time.
+  private int[] stateNodes = new int[1024]; //The node of every state.
+  private int[] stateTimes = new int[1024]; //The time of every state, relative to the current time step.
+  private int[] stateCosts = new int[1024]; //The G value of every state.
+  private int[] stateParents = new int[1024]; //The parent state of every state, -1 for the start.
+  private boolean[] stateClosed = new boolean[1024]; //If the state was expanded.
+  private int stateCount; //The number of states.
+  private final IndexedHeap openStates = new IndexedHeap(1024); //The open states ordered by their F value.
+
+  /**
+   * Creates a planner without agents.
+   * @param graph The grid of the agents.
+   * @param window The number of time steps planned ahead, at least one.
+   */
+  public CooperativePathfinding(GridGraph graph, int window){
+    if (window < 1) {
+      throw new IllegalArgumentException("The window must be at least one time step.");
+    }
+
+    this.graph = graph;
+    this.window = window;
+    this.reservations = new ReservationTable(64 * (window + 1));
+  }
+
+  /**
+   * Adds an agent with the default priority.
+   * @param position The index of the node of the agent.
+   * @param destination The index of the destination node of the agent.
+   * @return The identifier of the agent.
+   */
+  public int addAgent(int position, int destination){
+    return addAgent(position, destination, 0);
+  }
+
+  /**
+   * Adds an agent, which is planned in the next time step.
+   * @param position The index of the node of the agent, which must not be the node of another agent.
+   * @param destination The index of the destination node of the agent.
+   * @param priority The priority of the agent, agents with higher priority are planned first, so they get the better routes.
+   * @return The identifier of the agent.
+   */
+  public int addAgent(int position, int destination, int priority){
+    if (!graph.isWalkable(position) || !graph.isWalkable(destination)) {
+      throw new IllegalArgumentException("The position and the destination of an agent must be walkable.");
+    }
+
+    for (Agent other : agents) {
+      if (other.active && other.position == position) {
+        throw new IllegalArgumentException("The position of an agent is taken by agent " + other.id + ".");
+      }
+    }
+
+    Agent agent = new Agent(agents.size(), position, destination, priority);
+    agents.add(agent);
+    nextPlanTime = time;
+    return agent.id;
+  }
+
+  /**
+   * Removes an agent, its reservations are dropped in the next time step.
+   * @param agent The identifier of the agent.
+   */
+  public void removeAgent(int agent){
+    agents.get(agent).active = false;
+    nextPlanTime = time;
+  }
+
+  /**
+   * Sets a new destination for an agent, which is planned in the next time step.
+   * @param agent The identifier of the agent.
+   * @param destination The index of the destination node.
+   */
+  public void setDestination(int agent, int destination){
+    if (!graph.isWalkable(destination)) {
+      throw new IllegalArgumentException("The destination of an agent must be walkable.");
+    }
+
+    agents.get(agent).destination = destination;
+    nextPlanTime = time;
+  }
+
+  /**
+   * Moves every agent one time step along its plan, replanning the agents first if it's due.
+   */
+  public void step(){
+    if (time >= nextPlanTime) {
+      plan();
+    }
+
+    time++;
+
+    for (Agent agent : agents) {
+      if (agent.active) {
+        int index = (int) (time - agent.planTime);
+
+        if (agent.plan != null && index < agent.plan.length) {
+          agent.position = agent.plan[index];
+        }
+      }
+    }
+  }
+
+  /**
+   * Plans every agent for the next window, in the order of their priority.
+   * The previous reservations are dropped, and every agent reserves its new plan before the next agent is planned.
+   * @throws IllegalStateException If an agent can't even wait in place, which means two agents share a node.
+   */
+  public void plan(){
+    if (heuristicsVersion != graph.getVersion()) {
+      heuristics.clear();
+      heuristicsVersion = graph.getVersion();
+    }
+
+    //The fields of the destinations which no agent heads to anymore are dropped.
+    Set<Integer> destinations = new HashSet<>();
+    for (Agent agent : agents) {
+      if (agent.active) {
+        destinations.add(agent.destination);
+      }
+    }
+    heuristics.keySet().retainAll(destinations);
+
+    reservations.clear();
+
+    //The current nodes are reserved for the whole window, so the agents planned earlier neither swap places with the ones planned later,
+    //nor take a node which a later agent can't leave in time.
+    for (Agent agent : agents) {
+      if (agent.active) {
+        for (int t = 0; t <= window; t++) {
+          reservations.reserve(agent.position, time + t, agent.id);
+        }
+      }
+    }
+
+    //Higher priority first, then the agents are rotated by the number of plans, so the same agent isn't always planned last.
+    List<Agent> order = new ArrayList<>(agents.size());
+    for (Agent agent : agents) {
+      if (agent.active) {
+        order.add(agent);
+      }
+    }
+
+    int count = Math.max(order.size(), 1);
+    int offset = rotation++ % count;
+    order.sort(Comparator.comparingInt((Agent agent) -> -agent.priority).thenComparingInt(agent -> Math.floorMod(agent.id - offset, count)));
+
+    for (Agent agent : order) {
+      int[] plan = searchPlan(agent);
+
+      //The node of the agent is only kept where its plan stays on it.
+      for (int t = 1; t <= window; t++) {
+        reservations.release(agent.position, time + t);
+      }
+
+      if (plan == null || !reservePlan(plan, agent.id)) {
+        //No collision free plan was found, or the destination can't be reached, so the agent waits in place.
+        plan = new int[window + 1];
+        Arrays.fill(plan, agent.position);
+
+        if (!reservePlan(plan, agent.id)) {
+          throw new IllegalStateException("Agent " + agent.id + " can't wait in place, its node is taken by another agent.");
+        }
+      }
+
+      agent.plan = plan;
+      agent.planTime = time;
+    }
+
+    nextPlanTime = time + Math.max(window / 2, 1);
+  }
+
+  /**
+   * Reserves the nodes of a plan, or none of them if one is taken by another agent.
+   * The first node of the plan is the current node of the agent, which stays reserved either way.
+   * @param plan The node of the agent at every time step of the window.
+   * @param agent The identifier of the agent.
+   * @return If every node of the plan was reserved.
+   */
+  private boolean reservePlan(int[] plan, int agent){
+    for (int t = 0; t <= window; t++) {
+      if (!reservations.reserve(plan[t], time + t, agent)) {
+        for (int i = 1; i < t; i++) {
+          reservations.release(plan[i], time + i);
+        }
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Runs A* in space and time from the node of the agent, until the end of the window or until the destination can be held for the rest of the window.
+   * @param agent The agent.
+   * @return The node of the agent at every time step of the window, or null if there is no collision free plan.
+   */
+  private int[] searchPlan(Agent agent){
+    FlowField field = heuristics.computeIfAbsent(agent.destination, destination -> new FlowField(graph, destination));
+
+    if (field.getDistance(agent.position) == FlowField.UNREACHABLE) {
+      return null;
+    }
+
+    stateIndex.clear();
+    openStates.clear();
+    stateCount = 0;
+
+    int startState = addState(agent.position, 0, 0, -1);
+    openStates.add(startState, field.getDistance(agent.position), 0);
+    int[] moves = new int[5];
+
+    while (!openStates.isEmpty()) {
+      int state = openStates.poll();
+      stateClosed[state] = true;
+
+      int node = stateNodes[state];
+      int t = stateTimes[state];
+
+      if (t == window || (node == agent.destination && canHold(node, t, agent.id))) {
+        return buildPlan(state);
+      }
+
+      //The moves are the neighbours and waiting in place.
+      int moveCount = graph.getNeighbours(node, moves);
+      moves[moveCount++] = node;
+
+      for (int i = 0; i < moveCount; i++) {
+        int next = moves[i];
+        int distance = field.getDistance(next);
+
+        if (distance == FlowField.UNREACHABLE || !reservations.canMove(node, next, time + t, agent.id)) {
+          continue;
+        }
+
+        //Waiting costs one time step, a move costs one plus the extra cost of the entered node, like in every other algorithm.
+        int cost = stateCosts[state] + (next == node ? 1 : 1 + graph.getCost(next));
+        long key = getStateKey(next, t + 1);
+        int nextState = stateIndex.get(key, -1);
+
+        if (nextState == -1) {
+          nextState = addState(next, t + 1, cost, state);
+          openStates.add(nextState, cost + distance, -cost);
+        }
+        else if (!stateClosed[nextState] && cost < stateCosts[nextState]) {
+          stateCosts[nextState] = cost;
+          stateParents[nextState] = state;
+          openStates.update(nextState, cost + distance, -cost);
+        }
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Checks if an agent can stay on a node from a time step until the end of the window.
+   * @param node The index of the node.
+   * @param t The time step relative to the current one.
+   * @param agent The identifier of the agent.
+   * @return If no other agent reserved the node for the rest of the window.
+   */
+  private boolean canHold(int node, int t, int agent){
+    for (int i = t + 1; i <= window; i++) {
+      if (!reservations.isFree(node, time + i, agent)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Backtracks a state to the start, and waits on its node until the end of the window.
+   * @param state The last state of the plan.
+   * @return The node of the agent at every time step of the window.
+   */
+  private int[] buildPlan(int state){
+    int[] plan = new int[window + 1];
+    Arrays.fill(plan, stateTimes[state], window + 1, stateNodes[state]);
+
+    for (int current = state; current != -1; current = stateParents[current]) {
+      plan[stateTimes[current]] = stateNodes[current];
+    }
+
+    return plan;
+  }
+
+  /**
+   * Adds a state to the search.
+   * @return The index of the state.
+   */
+  private int addState(int node, int t, int cost, int parent){
+    if (stateCount == stateNodes.length) {
+      int length = stateCount * 2;
+      stateNodes = Arrays.copyOf(stateNodes, length);
+      stateTimes = Arrays.copyOf(stateTimes, length);
+      stateCosts = Arrays.copyOf(stateCosts, length);
+      stateParents = Arrays.copyOf(stateParents, length);
+      stateClosed = Arrays.copyOf(stateClosed, length);
+      openStates.ensureCapacity(length);
+    }
+
+    int state = stateCount++;
+    stateNodes[state] = node;
+    stateTimes[state] = t;
+    stateCosts[state] = cost;
+    stateParents[state] = parent;
+    stateClosed[state] = false;
+    stateIndex.put(getStateKey(node, t), state);
+    return state;
+  }
+
+  /**
+   * Packs a node and a relative time step into the key of a state.
+   */
+  private static long getStateKey(int node, int t){
+    return (long) t << 32 | (node & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns the node of an agent.
+   * @param agent The identifier of the agent.
+   * @return The index of the node where the agent is in the current time step.
+   */
+  public int getPosition(int agent){
+    return agents.get(agent).position;
+  }
+
+  /**
+   * Returns the destination of an agent.
+   * @param agent The identifier of the agent.
+   * @return The index of the destination node.
+   */
+  public int getDestination(int agent){
+    return agents.get(agent).destination;
+  }
+
+  /**
+   * Checks if an agent is on its destination.
+   * @param agent The identifier of the agent.
+   * @return If the node of the agent is its destination.
+   */
+  public boolean hasArrived(int agent){
+    Agent state = agents.get(agent);
+    return state.position == state.destination;
+  }
+
+  /**
+   * Returns the rest of the plan of an agent.
+   * @param agent The identifier of the agent.
+   * @return The node of the agent at every time step from the current one until the end of its window, empty if it's not planned yet.
+   */
+  public int[] getPlan(int agent){
+    Agent state = agents.get(agent);
+
+    if (state.plan == null) {
+      return new int[0];
+    }
+
+    int from = (int) Math.min(time - state.planTime, state.plan.length);
+    return Arrays.copyOfRange(state.plan, from, state.plan.length);
+  }
+
+  /**
+   * Returns the number of agents, the removed ones included.
+   * @return The number of agent identifiers.
+   */
+  public int getAgentCount(){
+    return agents.size();
+  }
+
+  /**
+   * Returns the number of distance fields kept for the destinations.
+   * @return The number of fields.
+   */
+  int getFieldCount(){
+    return heuristics.size();
+  }
+
+  /**
+   * Returns the current time step.
+   * @return The number of steps since the planner was created.
+   */
+  public long getTime(){
+    return time;
+  }
+
+  /**
+   * Returns the number of time steps planned ahead.
+   * @return The size of the window.
+   */
+  public int getWindow(){
+    return window;
+  }
+
+  /**
+   * Returns the reservation table of the current plans.
+   * @return The shared reservation table.
+   */
+  public ReservationTable getReservations(){
+    return reservations;
+  }
+
+  /**
+   * The Main class for the state of an agent.
+   */
+  private static class Agent {
+    private final int id; //The identifier of the agent.
+    private final int priority; //The priority of the agent.
+    private int position; //The index of the node of the agent.
+    private int destination; //The index of the destination node.
+    private boolean active = true; //If the agent wasn't removed.
+    private int[] plan; //The node of the agent at every time step of its window.
+    private long planTime; //The time step of the first node of the plan.
+
+    private Agent(int id, int position, int destination, int priority){
+      this.id = id;
+      this.position = position;
+      this.destination = destination;
+      this.priority = priority;
+    }
+  }
+}
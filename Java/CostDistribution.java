@@ -0,0 +1,89 @@
+package com.pathfinding.common;
+
+import java.util.SplittableRandom;
+
+/**
+ * The Main interface for the distributions of the extra costs of generated cells.
+ * A distribution is called from several threads at the same time, each one with its own generator, so it must not have mutable state.
+ * {@link BoardGenerator#setCostDistribution(CostDistribution)}
+ */
+public interface CostDistribution {
+
+  /**
+   * Draws the extra cost of a cell.
+   * @param rng The Random Number Generator of the row band which contains the cell.
+   * @return The extra cost, not negative.
+   */
+  int nextCost(SplittableRandom rng);
+
+  /**
+   * Returns a distribution in which every cost between the bounds is equally likely.
+   * @param min The lowest cost.
+   * @param max The highest cost, included.
+   * @return The uniform distribution.
+   */
+  static CostDistribution uniform(int min, int max){
+    if (min < 0 || max < min) {
+      throw new IllegalArgumentException("The costs must be between 0 and max: " + min + ", " + max);
+    }
+
+    int bound = max - min + 1;
+    return rng -> min + rng.nextInt(bound);
+  }
+
+  /**
+   * Returns a distribution in which every cell has the same cost.
+   * @param cost The cost of every cell.
+   * @return The constant distribution.
+   */
+  static CostDistribution constant(int cost){
+    if (cost < 0) {
+      throw new IllegalArgumentException("The cost can't be negative: " + cost);
+    }
+
+    return rng -> cost;
+  }
+
+  /**
+   * Returns a distribution in which the chance of every cost is proportional to its weight.
+   * For example the weights 8, 0, 1, 1 make 80% of the cells free, and the rest cost 2 or 3.
+   * @param weights The weight of every cost, starting from cost 0.
+   * @return The weighted distribution.
+   */
+  static CostDistribution weighted(int... weights){
+    long[] cumulative = new long[weights.length];
+    long total = 0;
+
+    for (int i = 0; i < weights.length; i++) {
+      if (weights[i] < 0) {
+        throw new IllegalArgumentException("The weights can't be negative: " + weights[i]);
+      }
+      total += weights[i];
+      cumulative[i] = total;
+    }
+
+    if (total == 0) {
+      throw new IllegalArgumentException("At least one weight must be positive.");
+    }
+
+    long sum = total;
+    return rng -> {
+      //Binary search for the first cost whose cumulative weight is above the drawn value, so costs with no weight are never chosen.
+      long value = rng.nextLong(sum);
+      int low = 0;
+      int high = cumulative.length - 1;
+
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+
+        if (cumulative[middle] > value) {
+          high = middle;
+        } else {
+          low = middle + 1;
+        }
+      }
+
+      return low;
+    };
+  }
+}
@@ -0,0 +1,390 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The Main class for incremental D* Lite pathfinding.
+ * Contains all the logic required to generate the path.
+ * <p>
+ * The search runs backwards from the destination, and it is kept between queries. Every node has a G value, its distance to the destination,
+ * and an RHS value, the one step lookahead based on the G values of its neighbours. A node is inconsistent if the two differ, and only the
+ * inconsistent nodes are in the open list. When a node changes, only the node and its neighbours are updated, so a replan only
+ * expands the nodes whose distance actually changed, instead of searching the whole board again.
+ * <p>
+ * The start node can move between queries (for example an agent walking the path), the keys are corrected by the distance it moved.
+ * A new destination starts a new search, and so does a grid which changed without notifying the listeners, like a regenerated board.
+ * The planner keeps state, so queries are serialized, and the context of the query is not used.
+ */
+public class DStarLite extends Pathfinding implements BoardListener, AutoCloseable {
+
+  private static final int INFINITY = Integer.MAX_VALUE; //The distance of the nodes from which the destination can't be reached.
+
+  private int[] gValues = new int[0]; //The distance of every node to the destination, as calculated by the last expansion.
+  private int[] rhsValues = new int[0]; //The lookahead distance of every node to the destination.
+  private final IndexedHeap openNodes = new IndexedHeap(0); //The inconsistent nodes, ordered by their key.
+
+  private int start = -1; //The index of the start node of the last query.
+  private int destination = -1; //The index of the destination node of the current search.
+  private int keyModifier; //The sum of the heuristic distances the start node moved since the search started.
+
+  private final BitSet changedNodes = new BitSet(); //The nodes which changed since the last query.
+  private boolean outdated; //If the grid changed without notifying the listeners, so the search has to start again.
+  private long version = -1; //The version of the grid which the G values and the changed nodes belong to.
+  private int[] expandedNodes = new int[16]; //The nodes expanded by the current query.
+  private int expandedCount; //The number of nodes expanded by the current query.
+
+  public DStarLite(Board boardHandler){
+    super(boardHandler);
+    boardHandler.addListener(this);
+  }
+
+  public DStarLite(GridGraph graph){
+    super(graph);
+    graph.addListener(this);
+  }
+
+  /**
+   * Records a changed node, which is processed by the next query.
+   * Changes which don't alter the walkability or the cost of the node, like marking the path, are ignored.
+   * If the planner missed a change, the next query starts a new search instead.
+   */
+  @Override
+  public void nodeChanged(int index, Node.Types oldType, int oldCost){
+    synchronized (changedNodes) {
+      if (graph.getVersion() != version + 1) {
+        outdated = true;
+      }
+      version = graph.getVersion();
+
+      if ((oldType != Node.Types.Wall) != graph.isWalkable(index) || oldCost != graph.getCost(index)) {
+        changedNodes.set(index);
+      }
+    }
+  }
+
+  /**
+   * Stops listening to the grid changes.
+   */
+  @Override
+  public void close(){
+    graph.removeListener(this);
+  }
+
+  /**
+   * Returns the bound of the paths, which follow the exact distances kept up to date by the incremental search.
+   * @return 1.
+   */
+  @Override
+  public double getSuboptimalityBound(){
+    return 1;
+  }
+
+  /**
+   * The planner keeps its own G values, RHS values and open list between the queries, the context only counts the expansions.
+   * @return False.
+   */
+  @Override
+  protected boolean usesNodeState(){
+    return false;
+  }
+
+  /**
+   * Calculates the path to the target by repairing the previous search, then returns it.
+   * The checked nodes of the path are the nodes expanded by this query only.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context Only used to apply the limits, the state of the planner is kept between the queries.
+   * @return The calculated path.
+   */
+  @Override
+  protected synchronized Path search(int start, int destination, SearchContext context){
+    expandedCount = 0;
+
+    boolean missedChanges;
+    synchronized (changedNodes) {
+      missedChanges = outdated || version != graph.getVersion();
+    }
+
+    if (missedChanges || destination != this.destination || gValues.length != graph.getNodeCount()) {
+      initialize(start, destination);
+    } else {
+      //The keys were calculated with the old start node, the heuristic can shrink at most by the distance moved.
+      keyModifier += getHeuristicDistance(this.start, start);
+      this.start = start;
+      updateChangedNodes();
+    }
+
+    computeShortestPath(context);
+
+    if (gValues[start] == INFINITY) {
+      return new Path(graph, new int[0], Arrays.copyOf(expandedNodes, expandedCount));
+    }
+
+    int[] steps = followPath();
+
+    if (steps == null) {
+      return new Path(graph, new int[0], Arrays.copyOf(expandedNodes, expandedCount), expandedCount, false);
+    }
+
+    return new Path(graph, steps, Arrays.copyOf(expandedNodes, expandedCount));
+  }
+
+  /**
+   * Creates the path of a search which was stopped by a limit.
+   * The G values are only final for the expanded nodes, so there is no partial path, but the next query continues the search.
+   * @param destination The index of the destination node.
+   * @param context Not used.
+   * @return An empty path with the nodes expanded by this query, flagged as incomplete.
+   */
+  @Override
+  protected synchronized Path buildPartialPath(int destination, SearchContext context){
+    return new Path(graph, new int[0], Arrays.copyOf(expandedNodes, expandedCount), expandedCount, false);
+  }
+
+  /**
+   * Starts a new search towards the destination.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   */
+  private void initialize(int start, int destination){
+    int nodeCount = graph.getNodeCount();
+
+    if (gValues.length != nodeCount) {
+      gValues = new int[nodeCount];
+      rhsValues = new int[nodeCount];
+      openNodes.ensureCapacity(nodeCount);
+    }
+
+    Arrays.fill(gValues, INFINITY);
+    Arrays.fill(rhsValues, INFINITY);
+    openNodes.clear();
+
+    synchronized (changedNodes) {
+      changedNodes.clear();
+      outdated = false;
+      version = graph.getVersion();
+    }
+
+    this.start = start;
+    this.destination = destination;
+    keyModifier = 0;
+
+    updateNode(destination);
+  }
+
+  /**
+   * Updates the changed nodes and their neighbours, as the cost of entering a node affects the RHS value of its neighbours.
+   */
+  private void updateChangedNodes(){
+    BitSet nodes;
+    synchronized (changedNodes) {
+      nodes = (BitSet) changedNodes.clone();
+      changedNodes.clear();
+    }
+
+    int width = graph.getWidth();
+    int nodeCount = graph.getNodeCount();
+
+    for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+      updateNode(node);
+
+      //The neighbours are updated even if they are walls, so a node which became a wall is left by every path.
+      if (node % width > 0) {
+        updateNode(node - 1);
+      }
+      if (node >= width) {
+        updateNode(node - width);
+      }
+      if (node + width < nodeCount) {
+        updateNode(node + width);
+      }
+      if (node % width < width - 1) {
+        updateNode(node + 1);
+      }
+    }
+  }
+
+  /**
+   * Expands the inconsistent nodes until the start node is consistent and no node with a lower key is left.
+   * @param context The search context, which counts the expansions against the limits of the query.
+   */
+  private void computeShortestPath(SearchContext context){
+    int[] neighbours = new int[4];
+
+    while (!openNodes.isEmpty() && (isLess(openNodes.peekKey(), openNodes.peekTie(), getKey(start), getTie(start)) || rhsValues[start] != gValues[start])) {
+      //A search stopped here keeps every inconsistent node in the open list, so the next query continues it.
+      context.countExpansion();
+
+      int oldKey = openNodes.peekKey();
+      int oldTie = openNodes.peekTie();
+      int currentNode = openNodes.poll();
+
+      //The key was calculated before the start node moved, so the node is queued again with its current key.
+      if (isLess(oldKey, oldTie, getKey(currentNode), getTie(currentNode))) {
+        openNodes.add(currentNode, getKey(currentNode), getTie(currentNode));
+        continue;
+      }
+
+      addExpandedNode(currentNode);
+      int neighbourCount = graph.getNeighbours(currentNode, neighbours);
+
+      if (gValues[currentNode] > rhsValues[currentNode]) {
+        //The node got closer to the destination, which can only make its neighbours closer too.
+        gValues[currentNode] = rhsValues[currentNode];
+      } else {
+        //The node got further from the destination, so it and its neighbours have to look for other paths.
+        gValues[currentNode] = INFINITY;
+        updateNode(currentNode);
+      }
+
+      for (int i = 0; i < neighbourCount; i++) {
+        updateNode(neighbours[i]);
+      }
+    }
+  }
+
+  /**
+   * Recalculates the RHS value of a node and puts it in the open list if it's inconsistent.
+   * @param node The index of the node.
+   */
+  private void updateNode(int node){
+    if (node != destination) {
+      rhsValues[node] = getLookahead(node);
+    } else {
+      rhsValues[node] = graph.isWalkable(node) ? 0 : INFINITY;
+    }
+
+    if (openNodes.contains(node)) {
+      openNodes.remove(node);
+    }
+
+    if (gValues[node] != rhsValues[node]) {
+      openNodes.add(node, getKey(node), getTie(node));
+    }
+  }
+
+  /**
+   * Calculates the lowest distance to the destination through the neighbours of a node.
+   * @param node The index of the node.
+   * @return The lowest step cost plus G value of the neighbours, infinity for walls.
+   */
+  private int getLookahead(int node){
+    if (!graph.isWalkable(node)) {
+      return INFINITY;
+    }
+
+    int[] neighbours = new int[4];
+    int neighbourCount = graph.getNeighbours(node, neighbours);
+    int lookahead = INFINITY;
+
+    for (int i = 0; i < neighbourCount; i++) {
+      int gValue = gValues[neighbours[i]];
+
+      if (gValue != INFINITY) {
+        lookahead = Math.min(lookahead, gValue + getMoveCost(neighbours[i]));
+      }
+    }
+
+    return lookahead;
+  }
+
+  /**
+   * Walks from the start node to the destination, always stepping onto the neighbour with the lowest distance.
+   * The G values only lead to the destination if they match the grid, so the walk stops as soon as the distance doesn't decrease,
+   * and the next query starts a new search.
+   * @return The steps, starting with the destination and ending with the node after the start, or null if the G values are inconsistent.
+   */
+  private int[] followPath(){
+    int[] neighbours = new int[4];
+    NodeQueue steps = new NodeQueue();
+
+    for (int node = start; node != destination; ) {
+      int neighbourCount = graph.getNeighbours(node, neighbours);
+      int next = -1;
+      long best = Long.MAX_VALUE;
+
+      for (int i = 0; i < neighbourCount; i++) {
+        int gValue = gValues[neighbours[i]];
+
+        if (gValue != INFINITY && (long) gValue + getMoveCost(neighbours[i]) < best) {
+          best = (long) gValue + getMoveCost(neighbours[i]);
+          next = neighbours[i];
+        }
+      }
+
+      if (next == -1 || gValues[next] >= gValues[node]) {
+        synchronized (changedNodes) {
+          outdated = true;
+        }
+        return null;
+      }
+
+      steps.push(next);
+      node = next;
+    }
+
+    int[] path = new int[steps.size()];
+    for (int i = path.length - 1; i >= 0; i--) {
+      path[i] = steps.poll();
+    }
+    return path;
+  }
+
+  /**
+   * Calculates the primary key of a node, which is the F value of the node seen from the start node.
+   * @param node The index of the node.
+   * @return The lower of the G and RHS values, plus the heuristic distance from the start and the key modifier.
+   */
+  private int getKey(int node){
+    int distance = Math.min(gValues[node], rhsValues[node]);
+    return distance == INFINITY ? INFINITY : distance + getHeuristicDistance(start, node) + keyModifier;
+  }
+
+  /**
+   * Calculates the secondary key of a node.
+   * @param node The index of the node.
+   * @return The lower of the G and RHS values.
+   */
+  private int getTie(int node){
+    return Math.min(gValues[node], rhsValues[node]);
+  }
+
+  /**
+   * Compares two keys.
+   * @return If the first key is lower than the second one.
+   */
+  private boolean isLess(int key1, int tie1, int key2, int tie2){
+    return key1 < key2 || (key1 == key2 && tie1 < tie2);
+  }
+
+  /**
+   * Appends a node to the expanded nodes of the current query.
+   * @param node The index of the node.
+   */
+  private void addExpandedNode(int node){
+    if (expandedCount == expandedNodes.length) {
+      expandedNodes = Arrays.copyOf(expandedNodes, expandedCount * 2);
+    }
+    expandedNodes[expandedCount++] = node;
+  }
+
+  /**
+   * Returns the cost of stepping onto a node.
+   * @param node The index of the node which is entered.
+   * @return One plus the extra cost of the node.
+   */
+  private int getMoveCost(int node){
+    return 1 + graph.getCost(node);
+  }
+
+  /**
+   * Calculates the heuristic distance between two nodes.
+   * @param node1 The index of the first node.
+   * @param node2 The index of the second node.
+   * @return The Manhattan distance between two nodes.
+   */
+  private int getHeuristicDistance(int node1, int node2){
+    return Math.abs(graph.getX(node1) - graph.getX(node2)) + Math.abs(graph.getY(node1) - graph.getY(node2));
+  }
+}
@@ -1,8 +1,5 @@
 package com.pathfinding.common;
 
-import java.util.ArrayList;
-import java.util.Stack;
-
 /**
  * The Main class for Depth First pathfinding.
  * Contains all the logic required to generate the path.
@@ -13,55 +10,54 @@ public class DepthFirst extends Pathfinding {
     super(boardHandler);
   }
 
+  public DepthFirst(GridGraph graph){
+    super(graph);
+  }
+
   /**
    * Calculates the path to the target using the Depth First algorithm, then returns it.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the parent of every node.
    * @return The calculated path.
    */
   @Override
-  public Path getPath(){
-    Stack<Node> path = new Stack<Node>();
+  protected Path search(int start, int destination, SearchContext context){
+    NodeQueue openNodes = context.getQueue();
+    int[] neighbours = new int[4];
 
-    //Creating the open and closed node list.
-    Stack<Node> openNodes = new Stack<>();
-    ArrayList<Node> closedNodes = new ArrayList<Node>();
+    context.reach(start, 0, -1);
+    openNodes.push(start);
 
-    //References for the start and destination node for easier use.
-    Node startNode = boardHandler.getStartingNode();
-    Node destinationNode = boardHandler.getDestinationNode();
+    while (!openNodes.isEmpty()) {
 
-    openNodes.push(startNode);
+      //Selects the next node to check, nodes which were pushed more than once are only checked the first time.
+      int currentNode = openNodes.pop();
 
-    while (!openNodes.isEmpty()) {
+      if (context.isClosed(currentNode)) {
+        continue;
+      }
 
-      //Selects the next node to check.
-      Node currentNode = openNodes.pop();
-      if(!closedNodes.contains(currentNode)){ closedNodes.add(currentNode); }
+      context.close(currentNode);
 
       //If the current node is the destination node, then the path is complete.
-      if (currentNode == destinationNode) {
-
-        //Backtracking and adding the steps to the stack.
-        while (currentNode != startNode) {
-          path.push(currentNode);
-          currentNode = currentNode.getParent();
-        }
-        break;
+      if (currentNode == destination) {
+        return buildPath(currentNode, context);
       }
 
-      //Checks each neighbour of the node.
-      for(Node neighbour: currentNode.getNeighbours()){
+      //Checks each neighbour of the node, walls are not returned as neighbours.
+      int neighbourCount = graph.getNeighbours(currentNode, neighbours);
 
-        //Filtering out nodes that are not fit for path.
-        if (!neighbour.getType().equals(Node.Types.Wall)) {
+      for(int i = 0; i < neighbourCount; i++){
+        int neighbour = neighbours[i];
 
-          if (!closedNodes.contains(neighbour)) {
-            neighbour.setParent(currentNode);
-            openNodes.push(neighbour);
-          }
+        if (!context.isClosed(neighbour)) {
+          context.reach(neighbour, context.getDistance(currentNode) + 1, currentNode);
+          openNodes.push(neighbour);
         }
       }
     }
 
-    return new Path(path, closedNodes);
+    return buildPath(-1, context);
   }
 }
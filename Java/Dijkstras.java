@@ -1,10 +1,5 @@
 package com.pathfinding.common;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Stack;
-
 /**
  * The Main class for Dijkstras pathfinding.
  * Contains all the logic required to generate the path.
@@ -15,64 +10,103 @@ public class Dijkstras extends Pathfinding {
     super(boardHandler);
   }
 
+  public Dijkstras(GridGraph graph){
+    super(graph);
+  }
+
   /**
    * Calculates the path to the target using the Dijkstras algorithm, then returns it.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the distance and the parent of every node.
    * @return The calculated path.
+   * {@link Search}
    */
   @Override
-  public Path getPath(){
-    Stack<Node> path = new Stack<Node>();
+  protected Path search(int start, int destination, SearchContext context){
+    return createSearch(start, destination, context).complete();
+  }
+
+  /**
+   * Returns the bound of the paths, as the nodes are expanded in the order of their distance, the path is one of the cheapest ones.
+   * @return 1.
+   */
+  @Override
+  public double getSuboptimalityBound(){
+    return 1;
+  }
+
+  @Override
+  protected SearchHandle createSearch(int start, int destination, SearchContext context){
+    return new Search(start, destination, context);
+  }
+
+  /**
+   * The Main class for a Dijkstras search which runs in slices.
+   * The nodes are expanded in the order of their distance from the start, using a bucket queue.
+   */
+  private class Search extends SearchHandle {
+    private final BucketQueue openNodes; //The open node list of the context.
+    private final int[] neighbours = new int[4]; //The neighbours of the current node.
 
-    //Creating the open and closed node list.
-    Queue<Node> openNodes = new LinkedList<>();
-    ArrayList<Node> closedNodes = new ArrayList<Node>();
+    private Search(int start, int destination, SearchContext context){
+      super(Dijkstras.this, destination, context);
 
-    //References for the start and destination node for easier use.
-    Node startNode = boardHandler.getStartingNode();
-    Node destinationNode = boardHandler.getDestinationNode();
+      //The step costs are small integers, so a bucket queue keeps the nodes ordered by distance in O(1) per operation.
+      openNodes = context.getBucketQueue();
+      context.reach(start, 0, -1);
+      openNodes.add(start, 0);
+    }
 
-    openNodes.add(startNode);
+    @Override
+    protected void advance(int maxExpansions){
+      int expansions = 0;
 
-    do {
+      while (expansions < maxExpansions) {
 
-      //Selects the next node to check.
-      Node currentNode = openNodes.remove();
-      if(!closedNodes.contains(currentNode)){ closedNodes.add(currentNode); }
+        if (openNodes.isEmpty()) {
+          finish(Status.UNREACHABLE, buildPath(-1, context));
+          return;
+        }
 
-      //If the current node is the destination node, then the path is complete.
-      if (currentNode == destinationNode) {
+        //Selects the closest node to check, outdated queue entries of already checked nodes are skipped.
+        int currentNode = openNodes.poll();
 
-        //Backtracking and adding the steps to the stack.
-        while (currentNode != startNode) {
-          path.push(currentNode);
-          currentNode = currentNode.getParent();
+        if (context.isClosed(currentNode)) {
+          continue;
         }
-        break;
-      }
 
-      //Checks each neighbour of the node.
-      for(Node neighbour: currentNode.getNeighbours()){
+        context.close(currentNode);
+        expansions++;
 
-        //Filtering out nodes that are not fit for path.
-        if (!neighbour.getType().equals(Node.Types.Wall)) {
+        //If the current node is the destination node, then the path is complete.
+        if (currentNode == destination) {
+          finish(Status.FOUND, buildPath(currentNode, context));
+          return;
+        }
+
+        int currentDistance = context.getDistance(currentNode);
+
+        //Checks each neighbour of the node, walls are not returned as neighbours.
+        int neighbourCount = graph.getNeighbours(currentNode, neighbours);
 
-          if (closedNodes.contains(neighbour)) {
+        for(int i = 0; i < neighbourCount; i++){
+          int neighbour = neighbours[i];
+
+          if (context.isClosed(neighbour)) {
             continue;
           }
 
-          //Calculates the new cost based on the "distance" between the two nodes.
-          int newCost = currentNode.getDistance() + neighbour.getCost();
+          //Calculates the new distance, every step costs one plus the extra cost of the node.
+          int newDistance = currentDistance + 1 + graph.getCost(neighbour);
 
-          //If the node is not checked yet, or the new cost is better than the current, queues the node.
-          if (!openNodes.contains(neighbour) || newCost < currentNode.getDistance()) {
-            neighbour.setParent(currentNode);
-            openNodes.add(neighbour);
-            neighbour.setDistance(newCost);
+          //If the node is not reached yet, or the new distance is better than its current one, queues the node.
+          if (!context.isReached(neighbour) || newDistance < context.getDistance(neighbour)) {
+            context.reach(neighbour, newDistance, currentNode);
+            openNodes.add(neighbour, newDistance);
           }
         }
       }
-    } while (!openNodes.isEmpty());
-
-    return new Path(path, closedNodes);
+    }
   }
 }
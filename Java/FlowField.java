@@ -0,0 +1,198 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+
+/**
+ * The Main class for the flow field of a destination, which is shared by every agent heading to the same node.
+ * A single reverse Dijkstras search from the destination calculates the distance of every node to the destination,
+ * and the direction of the first step on its cheapest path. An agent can then follow the directions from any node in O(path length), without searching.
+ * The field is a snapshot, it has to be created again after the grid changes.
+ */
+public class FlowField {
+
+  public static final byte NONE = 0; //The direction of the destination and of the nodes which can't reach it.
+  public static final byte LEFT = 1; //The next step is the node on the left.
+  public static final byte UP = 2; //The next step is the node above.
+  public static final byte DOWN = 3; //The next step is the node below.
+  public static final byte RIGHT = 4; //The next step is the node on the right.
+
+  public static final int UNREACHABLE = -1; //The distance of the nodes which can't reach the destination.
+
+  private final GridGraph graph; //The grid of the field.
+  private final int destination; //The index of the destination node.
+  private final int[] distances; //The cost of the cheapest path from every node to the destination.
+  private final byte[] directions; //The direction of the first step from every node towards the destination.
+
+  /**
+   * Creates the flow field towards the destination node of the Board.
+   * @param boardHandler The Board, which has the destination node set.
+   */
+  public FlowField(Board boardHandler){
+    this(boardHandler, boardHandler.getIndex(boardHandler.getDestinationNode()));
+  }
+
+  /**
+   * Creates the flow field towards a destination node.
+   * @param graph The grid of the field.
+   * @param destination The index of the destination node.
+   */
+  public FlowField(GridGraph graph, int destination){
+    this.graph = graph;
+    this.destination = destination;
+    this.distances = new int[graph.getNodeCount()];
+    this.directions = new byte[graph.getNodeCount()];
+
+    Arrays.fill(distances, UNREACHABLE);
+
+    if (graph.isWalkable(destination)) {
+      calculate();
+    }
+  }
+
+  /**
+   * Runs Dijkstras backwards from the destination.
+   * Stepping from a neighbour onto the current node costs one plus the extra cost of the current node,
+   * so the distance of a neighbour is the distance of the current node plus that cost.
+   */
+  private void calculate(){
+    BucketQueue openNodes = new BucketQueue(16);
+    boolean[] closed = new boolean[distances.length];
+    int[] neighbours = new int[4];
+
+    distances[destination] = 0;
+    openNodes.add(destination, 0);
+
+    while (!openNodes.isEmpty()) {
+      int currentNode = openNodes.poll();
+
+      if (closed[currentNode]) {
+        continue;
+      }
+
+      closed[currentNode] = true;
+
+      int newDistance = distances[currentNode] + 1 + graph.getCost(currentNode);
+      int neighbourCount = graph.getNeighbours(currentNode, neighbours);
+
+      for (int i = 0; i < neighbourCount; i++) {
+        int neighbour = neighbours[i];
+
+        if (!closed[neighbour] && (distances[neighbour] == UNREACHABLE || newDistance < distances[neighbour])) {
+          distances[neighbour] = newDistance;
+          directions[neighbour] = getDirection(neighbour, currentNode);
+          openNodes.add(neighbour, newDistance);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the direction of the step between two neighbouring nodes.
+   * @param from The index of the node where the step starts.
+   * @param to The index of the node where the step ends.
+   * @return One of the direction constants.
+   */
+  private byte getDirection(int from, int to){
+    int difference = to - from;
+
+    if (difference == -1) {
+      return LEFT;
+    }
+    if (difference == 1) {
+      return RIGHT;
+    }
+    return difference < 0 ? UP : DOWN;
+  }
+
+  /**
+   * Returns the node reached by stepping in the direction of the field.
+   * @param node The index of the node.
+   * @return The index of the next node towards the destination, or -1 for the destination and the nodes which can't reach it.
+   */
+  public int getNextNode(int node){
+    switch (directions[node]) {
+      case LEFT: return node - 1;
+      case UP: return node - graph.getWidth();
+      case DOWN: return node + graph.getWidth();
+      case RIGHT: return node + 1;
+      default: return -1;
+    }
+  }
+
+  /**
+   * Follows the directions from a node to the destination.
+   * @param start The index of the start node.
+   * @return The path from the start to the destination, empty if the destination can't be reached. No node is checked.
+   */
+  public Path getPath(int start){
+    if (distances[start] == UNREACHABLE) {
+      return new Path(graph, new int[0], new int[0]);
+    }
+
+    int length = 0;
+    for (int node = start; node != destination; node = getNextNode(node)) {
+      length++;
+    }
+
+    //The steps start with the destination and end with the node after the start.
+    int[] steps = new int[length];
+    int node = start;
+
+    for (int i = length - 1; i >= 0; i--) {
+      node = getNextNode(node);
+      steps[i] = node;
+    }
+
+    return new Path(graph, steps, new int[0]);
+  }
+
+  /**
+   * Returns the cost of the cheapest path from a node to the destination.
+   * @param node The index of the node.
+   * @return The number of steps plus their extra costs, or {@link #UNREACHABLE}.
+   */
+  public int getDistance(int node){
+    return distances[node];
+  }
+
+  /**
+   * Returns the direction of the first step from a node towards the destination.
+   * @param node The index of the node.
+   * @return One of the direction constants, {@link #NONE} for the destination and the nodes which can't reach it.
+   */
+  public byte getDirection(int node){
+    return directions[node];
+  }
+
+  /**
+   * Returns the distance field, addressed by the node index. The array is shared, it must not be modified.
+   * @return The distance of every node to the destination.
+   */
+  public int[] getDistances(){
+    return distances;
+  }
+
+  /**
+   * Returns the direction field, addressed by the node index. The array is shared, it must not be modified.
+   * @return The direction of the first step from every node.
+   */
+  public byte[] getDirections(){
+    return directions;
+  }
+
+  /**
+   * Returns the index of the destination node.
+   * @return The index of the destination node.
+   */
+  public int getDestination(){
+    return destination;
+  }
+
+  /**
+   * Returns the grid of the field.
+   * @return The grid on which the field was calculated.
+   */
+  public GridGraph getGraph(){
+    return graph;
+  }
+}
@@ -0,0 +1,258 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for bounded suboptimal focal search (A*epsilon).
+ * Contains all the logic required to generate the path.
+ * <p>
+ * Like A*, the open nodes are ordered by their F value, whose lowest value is a lower bound of the cheapest path.
+ * Every open node whose F value is within 1 + epsilon times this lower bound is also in the focal list, which is ordered by the G value plus
+ * 1 + epsilon times the H value, so the search heads for the destination like weighted A*, but only among the nodes which keep the bound.
+ * Ordering the focal list by the H value alone is greedier, but on boards with costs it keeps finding cheaper ways to closed nodes, which makes it expand far more.
+ * A cheaper way to a closed node opens it again, so the lower bound stays valid, and the path costs at most 1 + epsilon times the cheapest one.
+ * The open nodes which are not in the focal list wait in a third list ordered by their F value, until the lower bound grows enough to move them over.
+ */
+public class FocalSearch extends Pathfinding {
+
+  private final Landmarks landmarks; //The landmarks of the heuristic, null to use the Manhattan distance only.
+  private final double epsilon; //The allowed excess cost, the paths cost at most 1 + epsilon times the cheapest one.
+
+  public FocalSearch(Board boardHandler, double epsilon){
+    this(boardHandler, epsilon, null);
+  }
+
+  public FocalSearch(GridGraph graph, double epsilon){
+    this(graph, epsilon, null);
+  }
+
+  /**
+   * Sets the reference Board, the bound and the landmarks used by the heuristic.
+   * @param boardHandler The Board on which the path is calculated.
+   * @param epsilon The allowed excess cost, not negative.
+   * @param landmarks The landmarks of the same board, or null.
+   */
+  public FocalSearch(Board boardHandler, double epsilon, Landmarks landmarks){
+    super(boardHandler);
+    this.epsilon = checkEpsilon(epsilon);
+    this.landmarks = landmarks;
+  }
+
+  /**
+   * Sets the reference grid, the bound and the landmarks used by the heuristic.
+   * @param graph The grid on which the path is calculated.
+   * @param epsilon The allowed excess cost, not negative.
+   * @param landmarks The landmarks of the same grid, or null.
+   */
+  public FocalSearch(GridGraph graph, double epsilon, Landmarks landmarks){
+    super(graph);
+    this.epsilon = checkEpsilon(epsilon);
+    this.landmarks = landmarks;
+  }
+
+  /**
+   * Checks if the allowed excess cost is valid.
+   * @param epsilon The allowed excess cost.
+   * @return The same value.
+   */
+  private static double checkEpsilon(double epsilon){
+    if (!(epsilon >= 0 && epsilon < Double.POSITIVE_INFINITY)) {
+      throw new IllegalArgumentException("The epsilon must not be negative: " + epsilon);
+    }
+    return epsilon;
+  }
+
+  /**
+   * Returns the allowed excess cost.
+   * @return The epsilon of the bound.
+   */
+  public double getEpsilon(){
+    return epsilon;
+  }
+
+  /**
+   * Returns the bound of the paths.
+   * @return 1 + epsilon.
+   */
+  @Override
+  public double getSuboptimalityBound(){
+    return 1 + epsilon;
+  }
+
+  /**
+   * Calculates the path to the target using focal search, then returns it.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the G value and the parent of every node, and the three open node lists.
+   * @return The calculated path.
+   * {@link Search}
+   */
+  @Override
+  protected Path search(int start, int destination, SearchContext context){
+    return createSearch(start, destination, context).complete();
+  }
+
+  @Override
+  protected SearchHandle createSearch(int start, int destination, SearchContext context){
+    return new Search(start, destination, context);
+  }
+
+  /**
+   * The Main class for a focal search which runs in slices.
+   * Every open node is in the open list, and either in the focal list or in the waiting list, depending on its F value.
+   */
+  private class Search extends SearchHandle {
+    private final IndexedHeap openNodes; //Every open node, ordered by the F value, ties are broken in favour of the higher G value.
+    private final IndexedHeap focalNodes; //The open nodes within the bound, ordered by the weighted F value, ties are broken by the F value.
+    private final IndexedHeap waitingNodes; //The open nodes above the bound, ordered by the F value.
+    private final int[] neighbours = new int[4]; //The neighbours of the current node.
+    private int bound = -1; //The highest F value of the focal list, 1 + epsilon times the lowest F value.
+
+    private Search(int start, int destination, SearchContext context){
+      super(FocalSearch.this, destination, context);
+
+      openNodes = context.getHeap(0);
+      focalNodes = context.getHeap(1);
+      waitingNodes = context.getHeap(2);
+
+      context.reach(start, 0, -1);
+      open(start, 0);
+    }
+
+    @Override
+    protected void advance(int maxExpansions){
+      for (int expansions = 0; expansions < maxExpansions; expansions++) {
+
+        if (openNodes.isEmpty()) {
+          finish(Status.UNREACHABLE, buildPath(-1, context));
+          return;
+        }
+
+        //The lowest F value never decreases, so the bound only grows, and the waiting nodes which got within it move to the focal list.
+        raiseBound((int) Math.min(openNodes.peekKey() * (1 + epsilon), Integer.MAX_VALUE));
+
+        int currentNode = focalNodes.poll();
+        openNodes.remove(currentNode);
+        context.close(currentNode);
+
+        if (currentNode == destination) {
+          finish(Status.FOUND, buildPath(currentNode, context));
+          return;
+        }
+
+        int currentG = context.getDistance(currentNode);
+        int neighbourCount = graph.getNeighbours(currentNode, neighbours);
+
+        for (int i = 0; i < neighbourCount; i++) {
+          int neighbour = neighbours[i];
+          int gValue = currentG + getMoveCost(neighbour);
+
+          if (!context.isReached(neighbour)) {
+            context.reach(neighbour, gValue, currentNode);
+            open(neighbour, gValue);
+          }
+          else if (gValue < context.getDistance(neighbour)) {
+            //A closed node is opened again, as the lower bound is only valid if every node on the cheapest path gets its lowest G value.
+            boolean closed = context.isClosed(neighbour);
+            context.reach(neighbour, gValue, currentNode);
+
+            if (closed) {
+              open(neighbour, gValue);
+            } else {
+              improve(neighbour, gValue);
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * Adds a node to the open list, and to the focal or the waiting list.
+     * @param node The index of the node.
+     * @param gValue The G value of the node.
+     */
+    private void open(int node, int gValue){
+      int hValue = getHValue(node, destination);
+      int fValue = gValue + hValue;
+
+      openNodes.add(node, fValue, -gValue);
+
+      if (fValue <= bound) {
+        focalNodes.add(node, getFocalKey(gValue, hValue), fValue);
+      } else {
+        waitingNodes.add(node, fValue, -gValue);
+      }
+    }
+
+    /**
+     * Updates the lists of an open node which got a lower G value.
+     * @param node The index of the node.
+     * @param gValue The new G value of the node.
+     */
+    private void improve(int node, int gValue){
+      int hValue = getHValue(node, destination);
+      int fValue = gValue + hValue;
+
+      openNodes.update(node, fValue, -gValue);
+
+      if (focalNodes.contains(node)) {
+        focalNodes.update(node, getFocalKey(gValue, hValue), fValue);
+      }
+      else if (fValue <= bound) {
+        waitingNodes.remove(node);
+        focalNodes.add(node, getFocalKey(gValue, hValue), fValue);
+      }
+      else {
+        waitingNodes.update(node, fValue, -gValue);
+      }
+    }
+
+    /**
+     * Raises the bound of the focal list, and moves the waiting nodes within the new bound to the focal list.
+     * @param newBound The new bound, ignored if it's not higher than the current one.
+     */
+    private void raiseBound(int newBound){
+      if (newBound <= bound) {
+        return;
+      }
+
+      bound = newBound;
+
+      while (!waitingNodes.isEmpty() && waitingNodes.peekKey() <= bound) {
+        int fValue = waitingNodes.peekKey();
+        int node = waitingNodes.poll();
+        int gValue = context.getDistance(node);
+        focalNodes.add(node, getFocalKey(gValue, fValue - gValue), fValue);
+      }
+    }
+  }
+
+  /**
+   * Calculates the order of a node in the focal list.
+   * @param gValue The G value of the node.
+   * @param hValue The H value of the node.
+   * @return The G value plus 1 + epsilon times the H value.
+   */
+  private int getFocalKey(int gValue, int hValue){
+    return (int) Math.min(gValue + (1 + epsilon) * hValue, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the cost of stepping onto a node.
+   * @param node The index of the node which is entered.
+   * @return One plus the extra cost of the node.
+   */
+  private int getMoveCost(int node){
+    return 1 + graph.getCost(node);
+  }
+
+  /**
+   * Calculates the heuristic distance between the node and the destination node.
+   * @param node The index of the node.
+   * @param destination The index of the destination node.
+   * @return The Manhattan distance, or the landmark lower bound if it's higher.
+   */
+  private int getHValue(int node, int destination){
+    int width = graph.getWidth();
+    int distance = Math.abs(node % width - destination % width) + Math.abs(node / width - destination / width);
+    return landmarks == null ? distance : Math.max(distance, landmarks.getLowerBound(node, destination));
+  }
+}
@@ -0,0 +1,138 @@
+package com.pathfinding.common;
+
+/**
+ * The Main interface for the grid graphs on which the pathfinding algorithms run.
+ * Every cell is addressed by its row major index, the neighbours are calculated from the index instead of being stored.
+ */
+public interface GridGraph {
+
+  /**
+   * Returns the width of the grid.
+   * @return The number of columns.
+   */
+  int getWidth();
+
+  /**
+   * Returns the height of the grid.
+   * @return The number of rows.
+   */
+  int getHeight();
+
+  /**
+   * Returns the type of a cell.
+   * @param index The index of the cell.
+   * @return The type of the cell.
+   */
+  Node.Types getType(int index);
+
+  /**
+   * Returns the extra cost of stepping onto a cell.
+   * @param index The index of the cell.
+   * @return The extra cost of the cell.
+   */
+  int getCost(int index);
+
+  /**
+   * Returns a node which represents the cell.
+   * @param index The index of the cell.
+   * @return The node of the cell.
+   */
+  Node getNode(int index);
+
+  /**
+   * Checks if a path can go through the cell.
+   * @param index The index of the cell.
+   * @return If the cell is not a wall.
+   */
+  default boolean isWalkable(int index){
+    return getType(index) != Node.Types.Wall;
+  }
+
+  /**
+   * Returns the number of cells in the grid.
+   * @return The width multiplied by the height.
+   */
+  default int getNodeCount(){
+    return getWidth() * getHeight();
+  }
+
+  /**
+   * Returns the index of the cell at the coordinates.
+   * @param x The X coordinate of the cell.
+   * @param y The Y coordinate of the cell.
+   * @return The row major index of the cell.
+   */
+  default int getIndex(int x, int y){
+    return y * getWidth() + x;
+  }
+
+  /**
+   * Returns the X coordinate of a cell.
+   * @param index The index of the cell.
+   * @return The column of the cell.
+   */
+  default int getX(int index){
+    return index % getWidth();
+  }
+
+  /**
+   * Returns the Y coordinate of a cell.
+   * @param index The index of the cell.
+   * @return The row of the cell.
+   */
+  default int getY(int index){
+    return index / getWidth();
+  }
+
+  /**
+   * Runs a 4 connected search around the cell and writes the walkable neighbours into the array.
+   * The neighbours are written in a fixed order: left, up, down, right.
+   * @param index The index of the cell.
+   * @param neighbours The array which receives the neighbour indices, it must have room for at least 4 of them.
+   * @return The number of neighbours written into the array.
+   */
+  default int getNeighbours(int index, int[] neighbours){
+    int width = getWidth();
+    int x = index % width;
+    int count = 0;
+
+    if(x > 0 && isWalkable(index - 1)){
+      neighbours[count++] = index - 1;
+    }
+    if(index >= width && isWalkable(index - width)){
+      neighbours[count++] = index - width;
+    }
+    if(index + width < getNodeCount() && isWalkable(index + width)){
+      neighbours[count++] = index + width;
+    }
+    if(x < width - 1 && isWalkable(index + 1)){
+      neighbours[count++] = index + 1;
+    }
+
+    return count;
+  }
+
+  /**
+   * Returns the version of the grid, which changes whenever the type or the cost of a node changes.
+   * Grids which can't be changed always return zero.
+   * @return The version of the grid.
+   */
+  default long getVersion(){
+    return 0;
+  }
+
+  /**
+   * Registers a listener, which is called whenever the type or the cost of a node changes.
+   * Grids which can't be changed ignore the listener.
+   * @param listener The listener to add.
+   */
+  default void addListener(BoardListener listener){
+  }
+
+  /**
+   * Removes a registered listener.
+   * @param listener The listener to remove.
+   */
+  default void removeListener(BoardListener listener){
+  }
+}
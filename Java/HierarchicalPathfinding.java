@@ -0,0 +1,518 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The Main class for hierarchical (HPA*) pathfinding.
+ * Contains all the logic required to generate the path.
+ * <p>
+ * The grid is split into square clusters. Where two neighbouring clusters share walkable border cells, entrances are placed on
+ * both sides of the border, and the distances between the entrances of each cluster are precomputed.
+ * A query first runs A* on this small abstract graph, then refines only the chosen abstract edges with searches limited to a single cluster.
+ * The paths are close to optimal, but not guaranteed to be the cheapest ones.
+ * <p>
+ * The hierarchy listens to the grid, a changed node only marks its cluster (and the neighbouring cluster if the node is on a border)
+ * for recomputation, which happens before the next query. If the grid changed without notifying the listeners, like a regenerated board,
+ * every cluster is computed again, for the new size of the grid.
+ */
+public class HierarchicalPathfinding extends Pathfinding implements BoardListener, AutoCloseable {
+
+  private static final int MAX_SINGLE_ENTRANCE = 6; //Border openings shorter than this get one entrance in the middle, longer ones get one at each end.
+
+  private final int clusterSize; //The width and height of a cluster.
+  private int width; //The width of the grid which the clusters belong to.
+  private int height; //The height of the grid which the clusters belong to.
+  private int clustersX; //The number of cluster columns.
+  private int clustersY; //The number of cluster rows.
+
+  private int[][] clusterNodes; //The entrance cells of every cluster, sorted.
+  private int[][][] clusterDistances; //The distance between every pair of entrances of a cluster, -1 if there is no path within the cluster.
+
+  private final BitSet dirtyClusters = new BitSet(); //The clusters which have to be recomputed before the next query.
+  private boolean outdated = true; //If every cluster has to be computed again, because the grid changed without notifying the listeners.
+  private volatile long version = -1; //The version of the grid which the clusters and the dirty marks belong to.
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); //Queries read the hierarchy, recomputation writes it.
+  private final SearchContext buildContext = new SearchContext(); //The context used while the hierarchy is computed.
+
+  public HierarchicalPathfinding(Board boardHandler, int clusterSize){
+    this((GridGraph) boardHandler, clusterSize);
+    this.boardHandler = boardHandler;
+  }
+
+  /**
+   * Splits the grid into clusters, computes the entrances and distances of every cluster, then starts listening to grid changes.
+   * @param graph The grid on which the paths are calculated.
+   * @param clusterSize The width and height of a cluster.
+   */
+  public HierarchicalPathfinding(GridGraph graph, int clusterSize){
+    super(graph);
+
+    if (clusterSize < 2) {
+      throw new IllegalArgumentException("The cluster size must be at least 2: " + clusterSize);
+    }
+
+    this.clusterSize = clusterSize;
+    rebuildDirtyClusters();
+    graph.addListener(this);
+  }
+
+  /**
+   * Marks the clusters affected by a changed node.
+   * Changes which don't alter the walkability or the cost of the node, like marking the path, are ignored.
+   * If the hierarchy missed a change, every cluster is marked instead.
+   */
+  @Override
+  public void nodeChanged(int index, Node.Types oldType, int oldCost){
+    synchronized (dirtyClusters) {
+      //A missed change can be anywhere on the grid, and the grid may even have a new size.
+      if (graph.getVersion() != version + 1 || graph.getWidth() != width || graph.getHeight() != height) {
+        outdated = true;
+      }
+      version = graph.getVersion();
+
+      if (outdated || (oldType != Node.Types.Wall) == graph.isWalkable(index) && oldCost == graph.getCost(index)) {
+        return;
+      }
+
+      int x = graph.getX(index);
+      int y = graph.getY(index);
+      int cx = x / clusterSize;
+      int cy = y / clusterSize;
+
+      dirtyClusters.set(cy * clustersX + cx);
+
+      //The entrances on a border belong to both clusters, so the cluster on the other side changes too.
+      if (x % clusterSize == 0 && cx > 0) {
+        dirtyClusters.set(cy * clustersX + cx - 1);
+      }
+      if (x % clusterSize == clusterSize - 1 && cx < clustersX - 1) {
+        dirtyClusters.set(cy * clustersX + cx + 1);
+      }
+      if (y % clusterSize == 0 && cy > 0) {
+        dirtyClusters.set((cy - 1) * clustersX + cx);
+      }
+      if (y % clusterSize == clusterSize - 1 && cy < clustersY - 1) {
+        dirtyClusters.set((cy + 1) * clustersX + cx);
+      }
+    }
+  }
+
+  /**
+   * Stops listening to the grid changes.
+   */
+  @Override
+  public void close(){
+    graph.removeListener(this);
+  }
+
+  /**
+   * Calculates the path to the target on the abstract graph, then refines it within the chosen clusters.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, used by the abstract search and by each refinement.
+   * @return The calculated path.
+   */
+  @Override
+  protected Path search(int start, int destination, SearchContext context){
+    boolean dirty;
+    synchronized (dirtyClusters) {
+      dirty = outdated || version != graph.getVersion() || !dirtyClusters.isEmpty();
+    }
+
+    if (dirty) {
+      lock.writeLock().lock();
+      try {
+        rebuildDirtyClusters();
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    lock.readLock().lock();
+    try {
+      int[] abstractPath = searchAbstractGraph(start, destination, context);
+      int[] closedNodes = context.getClosedNodes();
+
+      if (abstractPath == null) {
+        return new Path(graph, new int[0], closedNodes);
+      }
+
+      return new Path(graph, refine(abstractPath, context), closedNodes);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Creates the path of a search which was stopped by a limit.
+   * The parents in the context belong to the abstract graph or to a single cluster, so they don't form a path on the grid, and the partial path is empty.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the state of the stopped query.
+   * @return An empty path, flagged as incomplete.
+   */
+  @Override
+  protected Path buildPartialPath(int destination, SearchContext context){
+    int[] closedNodes = context.getClosedNodes();
+    return new Path(graph, new int[0], closedNodes, closedNodes.length, false);
+  }
+
+  /**
+   * Runs A* on the abstract graph, extended with the start and the destination node.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context.
+   * @return The abstract nodes from the start to the destination, or null if there is no path.
+   */
+  private int[] searchAbstractGraph(int start, int destination, SearchContext context){
+    int startCluster = getCluster(start);
+    int destinationCluster = getCluster(destination);
+    int[] startEntrances = clusterNodes[startCluster];
+    int[] destinationEntrances = clusterNodes[destinationCluster];
+
+    //Distances from the start to the entrances of its cluster, and to the destination if it's in the same cluster.
+    searchCluster(start, -1, startCluster, context);
+    int[] fromStart = new int[startEntrances.length];
+    for (int i = 0; i < fromStart.length; i++) {
+      fromStart[i] = context.isReached(startEntrances[i]) ? context.getDistance(startEntrances[i]) : -1;
+    }
+    int startToDestination = startCluster == destinationCluster && context.isReached(destination) ? context.getDistance(destination) : -1;
+
+    //Distances from the entrances of the destination cluster to the destination.
+    //The cost of a path only depends on the entered nodes, so it can be calculated from the reversed search.
+    searchCluster(destination, -1, destinationCluster, context);
+    int[] toDestination = new int[destinationEntrances.length];
+    for (int i = 0; i < toDestination.length; i++) {
+      int entrance = destinationEntrances[i];
+      toDestination[i] = context.isReached(entrance) ? context.getDistance(entrance) - getMoveCost(entrance) + getMoveCost(destination) : -1;
+    }
+
+    context.begin(graph.getNodeCount());
+    IndexedHeap openNodes = context.getHeap();
+    int[] neighbours = new int[4];
+
+    context.reach(start, 0, -1);
+    openNodes.add(start, getHeuristicDistance(start, destination), 0);
+
+    while (!openNodes.isEmpty()) {
+      int currentNode = openNodes.poll();
+      context.close(currentNode);
+
+      if (currentNode == destination) {
+        int length = 1;
+        for (int node = destination; context.getParent(node) != -1; node = context.getParent(node)) {
+          length++;
+        }
+
+        int[] path = new int[length];
+        for (int node = destination, i = length - 1; node != -1; node = context.getParent(node), i--) {
+          path[i] = node;
+        }
+        return path;
+      }
+
+      int cluster = getCluster(currentNode);
+      int[] entrances = clusterNodes[cluster];
+      int entrance = Arrays.binarySearch(entrances, currentNode);
+
+      if (currentNode == start) {
+        for (int i = 0; i < startEntrances.length; i++) {
+          relax(currentNode, startEntrances[i], fromStart[i], destination, context);
+        }
+        relax(currentNode, destination, startToDestination, destination, context);
+      }
+
+      if (entrance >= 0) {
+        //Edges to the other entrances of the cluster.
+        for (int i = 0; i < entrances.length; i++) {
+          relax(currentNode, entrances[i], clusterDistances[cluster][entrance][i], destination, context);
+        }
+
+        //Edges to the entrances on the other side of the borders.
+        int neighbourCount = graph.getNeighbours(currentNode, neighbours);
+        for (int i = 0; i < neighbourCount; i++) {
+          int neighbourCluster = getCluster(neighbours[i]);
+
+          if (neighbourCluster != cluster && Arrays.binarySearch(clusterNodes[neighbourCluster], neighbours[i]) >= 0) {
+            relax(currentNode, neighbours[i], getMoveCost(neighbours[i]), destination, context);
+          }
+        }
+
+        if (cluster == destinationCluster) {
+          relax(currentNode, destination, toDestination[entrance], destination, context);
+        }
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Relaxes an edge of the abstract graph.
+   * @param from The index of the node where the edge starts.
+   * @param to The index of the node where the edge ends.
+   * @param cost The cost of the edge, -1 if there is no edge.
+   * @param destination The index of the destination node.
+   * @param context The search context.
+   */
+  private void relax(int from, int to, int cost, int destination, SearchContext context){
+    if (cost < 0 || to == from || context.isClosed(to)) {
+      return;
+    }
+
+    int gValue = context.getDistance(from) + cost;
+    IndexedHeap openNodes = context.getHeap();
+
+    if (!context.isReached(to)) {
+      context.reach(to, gValue, from);
+      openNodes.add(to, gValue + getHeuristicDistance(to, destination), -gValue);
+    }
+    else if (gValue < context.getDistance(to)) {
+      context.reach(to, gValue, from);
+      openNodes.update(to, gValue + getHeuristicDistance(to, destination), -gValue);
+    }
+  }
+
+  /**
+   * Turns the abstract path into the full list of steps.
+   * Consecutive abstract nodes in different clusters are neighbours, the ones in the same cluster are connected by a search within the cluster.
+   * @param abstractPath The abstract nodes from the start to the destination.
+   * @param context The search context.
+   * @return The steps, starting with the destination and ending with the node after the start.
+   */
+  private int[] refine(int[] abstractPath, SearchContext context){
+    NodeQueue steps = new NodeQueue();
+
+    for (int i = abstractPath.length - 1; i > 0; i--) {
+      int from = abstractPath[i - 1];
+      int to = abstractPath[i];
+
+      if (getCluster(from) != getCluster(to)) {
+        steps.push(to);
+        continue;
+      }
+
+      searchCluster(from, to, getCluster(from), context);
+
+      for (int node = to; node != from; node = context.getParent(node)) {
+        steps.push(node);
+      }
+    }
+
+    int[] path = new int[steps.size()];
+    for (int i = 0; i < path.length; i++) {
+      path[i] = steps.poll();
+    }
+    return path;
+  }
+
+  /**
+   * Runs Dijkstras from a node, without leaving its cluster.
+   * @param source The index of the node where the search starts.
+   * @param target The index of the node where the search can stop, -1 to search the whole cluster.
+   * @param cluster The cluster of the search.
+   * @param context The search context, which receives the distances and parents.
+   */
+  private void searchCluster(int source, int target, int cluster, SearchContext context){
+    int width = graph.getWidth();
+    int minX = (cluster % clustersX) * clusterSize;
+    int minY = (cluster / clustersX) * clusterSize;
+    int maxX = Math.min(minX + clusterSize, width) - 1;
+    int maxY = Math.min(minY + clusterSize, graph.getHeight()) - 1;
+
+    context.begin(graph.getNodeCount());
+    BucketQueue openNodes = context.getBucketQueue();
+    int[] neighbours = new int[4];
+
+    context.reach(source, 0, -1);
+    openNodes.add(source, 0);
+
+    while (!openNodes.isEmpty()) {
+      int currentNode = openNodes.poll();
+
+      if (context.isClosed(currentNode)) {
+        continue;
+      }
+
+      context.close(currentNode);
+
+      if (currentNode == target) {
+        return;
+      }
+
+      int neighbourCount = graph.getNeighbours(currentNode, neighbours);
+
+      for (int i = 0; i < neighbourCount; i++) {
+        int neighbour = neighbours[i];
+        int x = neighbour % width;
+        int y = neighbour / width;
+
+        if (x < minX || x > maxX || y < minY || y > maxY || context.isClosed(neighbour)) {
+          continue;
+        }
+
+        int newDistance = context.getDistance(currentNode) + getMoveCost(neighbour);
+
+        if (!context.isReached(neighbour) || newDistance < context.getDistance(neighbour)) {
+          context.reach(neighbour, newDistance, currentNode);
+          openNodes.add(neighbour, newDistance);
+        }
+      }
+    }
+  }
+
+  /**
+   * Recomputes the entrances and the entrance distances of every dirty cluster, or of every cluster if the hierarchy is outdated.
+   */
+  private void rebuildDirtyClusters(){
+    BitSet clusters;
+    synchronized (dirtyClusters) {
+      if (outdated || version != graph.getVersion()) {
+        resetClusters();
+      }
+      clusters = (BitSet) dirtyClusters.clone();
+      dirtyClusters.clear();
+    }
+
+    for (int cluster = clusters.nextSetBit(0); cluster >= 0; cluster = clusters.nextSetBit(cluster + 1)) {
+      clusterNodes[cluster] = findEntrances(cluster);
+    }
+
+    for (int cluster = clusters.nextSetBit(0); cluster >= 0; cluster = clusters.nextSetBit(cluster + 1)) {
+      int[] entrances = clusterNodes[cluster];
+      int[][] distances = new int[entrances.length][entrances.length];
+
+      for (int i = 0; i < entrances.length; i++) {
+        searchCluster(entrances[i], -1, cluster, buildContext);
+
+        for (int j = 0; j < entrances.length; j++) {
+          distances[i][j] = buildContext.isReached(entrances[j]) ? buildContext.getDistance(entrances[j]) : -1;
+        }
+      }
+
+      clusterDistances[cluster] = distances;
+    }
+  }
+
+  /**
+   * Sizes the clusters for the current grid, and marks all of them dirty.
+   * The dirty clusters must be locked, so the changes after the current version mark the new clusters.
+   */
+  private void resetClusters(){
+    version = graph.getVersion();
+    outdated = false;
+    width = graph.getWidth();
+    height = graph.getHeight();
+    clustersX = (width + clusterSize - 1) / clusterSize;
+    clustersY = (height + clusterSize - 1) / clusterSize;
+    clusterNodes = new int[clustersX * clustersY][];
+    clusterDistances = new int[clustersX * clustersY][][];
+
+    dirtyClusters.clear();
+    dirtyClusters.set(0, clusterNodes.length);
+  }
+
+  /**
+   * Collects the entrance cells of a cluster from its four borders.
+   * Both clusters of a border calculate the same openings, so the entrances always come in matching pairs.
+   * @param cluster The cluster.
+   * @return The sorted entrance cells of the cluster.
+   */
+  private int[] findEntrances(int cluster){
+    int cx = cluster % clustersX;
+    int cy = cluster / clustersX;
+    int minX = cx * clusterSize;
+    int minY = cy * clusterSize;
+    int maxX = Math.min(minX + clusterSize, graph.getWidth()) - 1;
+    int maxY = Math.min(minY + clusterSize, graph.getHeight()) - 1;
+    NodeQueue entrances = new NodeQueue();
+
+    if (cx > 0) {
+      addBorderEntrances(graph.getIndex(minX, minY), -1, graph.getWidth(), maxY - minY + 1, entrances);
+    }
+    if (cx < clustersX - 1) {
+      addBorderEntrances(graph.getIndex(maxX, minY), 1, graph.getWidth(), maxY - minY + 1, entrances);
+    }
+    if (cy > 0) {
+      addBorderEntrances(graph.getIndex(minX, minY), -graph.getWidth(), 1, maxX - minX + 1, entrances);
+    }
+    if (cy < clustersY - 1) {
+      addBorderEntrances(graph.getIndex(minX, maxY), graph.getWidth(), 1, maxX - minX + 1, entrances);
+    }
+
+    int[] nodes = new int[entrances.size()];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = entrances.poll();
+    }
+
+    Arrays.sort(nodes);
+    int count = 0;
+    for (int i = 0; i < nodes.length; i++) {
+      if (i == 0 || nodes[i] != nodes[i - 1]) {
+        nodes[count++] = nodes[i];
+      }
+    }
+    return Arrays.copyOf(nodes, count);
+  }
+
+  /**
+   * Finds the openings along one border of a cluster and adds the entrance cells on the cluster side.
+   * @param first The index of the first border cell of the cluster.
+   * @param across The index offset from a border cell to its neighbour in the other cluster.
+   * @param along The index offset between consecutive border cells.
+   * @param length The number of border cells.
+   * @param entrances The queue which receives the entrance cells.
+   */
+  private void addBorderEntrances(int first, int across, int along, int length, NodeQueue entrances){
+    int runStart = -1;
+
+    for (int i = 0; i <= length; i++) {
+      int cell = first + i * along;
+      boolean open = i < length && graph.isWalkable(cell) && graph.isWalkable(cell + across);
+
+      if (open && runStart == -1) {
+        runStart = i;
+      }
+      else if (!open && runStart != -1) {
+        int runEnd = i - 1;
+
+        if (runEnd - runStart + 1 < MAX_SINGLE_ENTRANCE) {
+          entrances.push(first + ((runStart + runEnd) / 2) * along);
+        } else {
+          entrances.push(first + runStart * along);
+          entrances.push(first + runEnd * along);
+        }
+        runStart = -1;
+      }
+    }
+  }
+
+  /**
+   * Returns the cluster of a node.
+   * @param node The index of the node.
+   * @return The index of the cluster.
+   */
+  private int getCluster(int node){
+    return (graph.getY(node) / clusterSize) * clustersX + graph.getX(node) / clusterSize;
+  }
+
+  /**
+   * Returns the cost of stepping onto a node.
+   * @param node The index of the node which is entered.
+   * @return One plus the extra cost of the node.
+   */
+  private int getMoveCost(int node){
+    return 1 + graph.getCost(node);
+  }
+
+  /**
+   * Calculates the heuristic distance between two nodes.
+   * @param node1 The index of the first node.
+   * @param node2 The index of the second node.
+   * @return The Manhattan distance between two nodes.
+   */
+  private int getHeuristicDistance(int node1, int node2){
+    return Math.abs(graph.getX(node1) - graph.getX(node2)) + Math.abs(graph.getY(node1) - graph.getY(node2));
+  }
+}
@@ -0,0 +1,285 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+
+/**
+ * The Main class for the indexed binary min-heap, which is used as an open node list.
+ * The heap stores node indices ordered by a primary key, ties are broken by a secondary key.
+ * The heap position of every node is tracked, so membership checks are O(1) and key updates are O(log n).
+ */
+public class IndexedHeap {
+  private int[] nodes; //The node indices in heap order.
+  private int[] keys; //The primary key of the node in the same heap slot.
+  private int[] ties; //The secondary (tie-breaking) key of the node in the same heap slot.
+  private int[] positions; //The heap slot of every node index, -1 if the node is not in the heap.
+  private int size; //The number of nodes in the heap.
+
+  private long pushCount; //The number of added nodes since the heap was created.
+  private long pollCount; //The number of polled nodes since the heap was created.
+  private int peakSize; //The highest size since the last reset of the peak.
+
+  /**
+   * Creates an empty heap which can hold node indices between 0 and capacity - 1.
+   * @param capacity The number of addressable node indices.
+   */
+  public IndexedHeap(int capacity){
+    nodes = new int[16];
+    keys = new int[16];
+    ties = new int[16];
+    positions = new int[0];
+    ensureCapacity(capacity);
+  }
+
+  /**
+   * Makes sure that node indices up to capacity - 1 can be stored in the heap.
+   * @param capacity The number of addressable node indices.
+   */
+  public void ensureCapacity(int capacity){
+    if(capacity > positions.length){
+      int oldLength = positions.length;
+      positions = Arrays.copyOf(positions, capacity);
+      Arrays.fill(positions, oldLength, capacity, -1);
+    }
+  }
+
+  /**
+   * Checks if the heap contains the node.
+   * @param node The index of the node.
+   * @return If the node is in the heap.
+   */
+  public boolean contains(int node){
+    return positions[node] >= 0;
+  }
+
+  /**
+   * Adds a node to the heap.
+   * @param node The index of the node, which must not be in the heap already.
+   * @param key The primary key of the node, lower keys are polled first.
+   * @param tie The secondary key of the node, used when the primary keys are equal.
+   */
+  public void add(int node, int key, int tie){
+    if(size == nodes.length){
+      int length = size * 2;
+      nodes = Arrays.copyOf(nodes, length);
+      keys = Arrays.copyOf(keys, length);
+      ties = Arrays.copyOf(ties, length);
+    }
+
+    set(size, node, key, tie);
+    size++;
+    siftUp(size - 1);
+
+    pushCount++;
+    peakSize = Math.max(peakSize, size);
+  }
+
+  /**
+   * Changes the keys of a node which is already in the heap, then restores the heap order.
+   * @param node The index of the node.
+   * @param key The new primary key of the node.
+   * @param tie The new secondary key of the node.
+   */
+  public void update(int node, int key, int tie){
+    int slot = positions[node];
+    set(slot, node, key, tie);
+    siftUp(slot);
+    siftDown(positions[node]);
+  }
+
+  /**
+   * Removes the node with the lowest keys from the heap.
+   * @return The index of the removed node.
+   */
+  public int poll(){
+    int node = nodes[0];
+    positions[node] = -1;
+    size--;
+    pollCount++;
+
+    if(size > 0){
+      set(0, nodes[size], keys[size], ties[size]);
+      siftDown(0);
+    }
+
+    return node;
+  }
+
+  /**
+   * Returns the node with the lowest keys without removing it.
+   * @return The index of the first node.
+   */
+  public int peek(){
+    return nodes[0];
+  }
+
+  /**
+   * Returns the primary key of the node with the lowest keys.
+   * @return The lowest primary key in the heap.
+   */
+  public int peekKey(){
+    return keys[0];
+  }
+
+  /**
+   * Returns the secondary key of the node with the lowest keys.
+   * @return The secondary key of the first node.
+   */
+  public int peekTie(){
+    return ties[0];
+  }
+
+  /**
+   * Removes a node from the heap.
+   * @param node The index of the node, which must be in the heap.
+   */
+  public void remove(int node){
+    int slot = positions[node];
+    positions[node] = -1;
+    size--;
+
+    if(slot < size){
+      int moved = nodes[size];
+      set(slot, moved, keys[size], ties[size]);
+      siftUp(slot);
+      siftDown(positions[moved]);
+    }
+  }
+
+  /**
+   * Returns the primary key of a node which is in the heap.
+   * @param node The index of the node.
+   * @return The primary key of the node.
+   */
+  public int getKey(int node){
+    return keys[positions[node]];
+  }
+
+  /**
+   * Removes every node from the heap.
+   * Only the slots in use are reset, so clearing costs O(size) instead of O(capacity).
+   */
+  public void clear(){
+    for(int i = 0; i < size; i++){
+      positions[nodes[i]] = -1;
+    }
+    size = 0;
+  }
+
+  /**
+   * Checks if the heap is empty.
+   * @return If there is no node in the heap.
+   */
+  public boolean isEmpty(){
+    return size == 0;
+  }
+
+  /**
+   * Returns the number of nodes in the heap.
+   * @return The size of the heap.
+   */
+  public int size(){
+    return size;
+  }
+
+  /**
+   * Returns the number of nodes added since the heap was created.
+   * @return The number of pushes.
+   */
+  public long getPushCount(){
+    return pushCount;
+  }
+
+  /**
+   * Returns the number of nodes polled since the heap was created.
+   * @return The number of pops.
+   */
+  public long getPollCount(){
+    return pollCount;
+  }
+
+  /**
+   * Returns the highest number of nodes in the heap since the last reset of the peak.
+   * Clearing the heap doesn't reset the peak, so it covers every search of a query.
+   * @return The peak size.
+   */
+  public int getPeakSize(){
+    return peakSize;
+  }
+
+  /**
+   * Resets the peak size to the current size.
+   */
+  public void resetPeakSize(){
+    peakSize = size;
+  }
+
+  /**
+   * Moves the node in the given slot up until its parent is not greater.
+   * @param slot The heap slot of the node.
+   */
+  private void siftUp(int slot){
+    int node = nodes[slot];
+    int key = keys[slot];
+    int tie = ties[slot];
+
+    while(slot > 0){
+      int parent = (slot - 1) >>> 1;
+
+      if(!isLess(key, tie, keys[parent], ties[parent])){
+        break;
+      }
+
+      set(slot, nodes[parent], keys[parent], ties[parent]);
+      slot = parent;
+    }
+
+    set(slot, node, key, tie);
+  }
+
+  /**
+   * Moves the node in the given slot down until none of its children is smaller.
+   * @param slot The heap slot of the node.
+   */
+  private void siftDown(int slot){
+    int node = nodes[slot];
+    int key = keys[slot];
+    int tie = ties[slot];
+    int half = size >>> 1;
+
+    while(slot < half){
+      int child = (slot << 1) + 1;
+      int right = child + 1;
+
+      if(right < size && isLess(keys[right], ties[right], keys[child], ties[child])){
+        child = right;
+      }
+
+      if(!isLess(keys[child], ties[child], key, tie)){
+        break;
+      }
+
+      set(slot, nodes[child], keys[child], ties[child]);
+      slot = child;
+    }
+
+    set(slot, node, key, tie);
+  }
+
+  /**
+   * Compares two key pairs.
+   * @return If the first pair should be polled before the second one.
+   */
+  private boolean isLess(int key1, int tie1, int key2, int tie2){
+    return key1 < key2 || (key1 == key2 && tie1 < tie2);
+  }
+
+  /**
+   * Writes a node and its keys into a heap slot and records the position of the node.
+   */
+  private void set(int slot, int node, int key, int tie){
+    nodes[slot] = node;
+    keys[slot] = key;
+    ties[slot] = tie;
+    positions[node] = slot;
+  }
+}
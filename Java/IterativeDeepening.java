@@ -0,0 +1,318 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+
+/**
+ * The Main class for the iterative deepening searches.
+ * Contains the depth first engine shared by {@link IterativeDeepeningAstar} and {@link IterativeDeepeningDepthFirst}.
+ * <p>
+ * Every iteration is a depth first search from the start, which skips the nodes whose G value plus H value is above the threshold of the iteration.
+ * If the destination is not found, the threshold is raised to the lowest value which was skipped, and the search starts again.
+ * Only the current path is kept, together with the untried neighbours of its nodes, so the memory of a query grows with the length of the path instead of the checked area,
+ * and the node arrays of the {@link SearchContext} are never allocated. In exchange the nodes are checked again in every iteration, and through every path which reaches them.
+ * <p>
+ * On open boards the number of paths to a node grows exponentially with its distance, so by default a small transposition table remembers the lowest G value
+ * of a fixed number of nodes within the current iteration, and skips a node reached again with no lower G value.
+ * The table is direct mapped, so its memory stays the same however large the board is, and a node which lost its slot is only searched again.
+ */
+public abstract class IterativeDeepening extends Pathfinding {
+
+  private static final int MAX_TABLE_SIZE = 1 << 30; //The highest number of entries of the transposition table.
+  private static final int DEFAULT_TABLE_SIZE = 1 << 12; //The number of entries of the transposition table by default, 48 KiB.
+  private volatile int tableSize = DEFAULT_TABLE_SIZE; //The number of entries of the transposition table, 0 without a table.
+
+  public IterativeDeepening(Board boardHandler){
+    super(boardHandler);
+  }
+
+  public IterativeDeepening(GridGraph graph){
+    super(graph);
+  }
+
+  /**
+   * Returns the number of entries of the transposition table.
+   * @return The size of the table, 4096 by default, 0 if there is no table.
+   */
+  public int getTableSize(){
+    return tableSize;
+  }
+
+  /**
+   * Sets the number of entries of the transposition table, which applies to every search started after this call.
+   * Every query allocates its own table, an entry takes 12 bytes.
+   * @param tableSize The number of entries, rounded up to a power of two, 0 to search without a table.
+   */
+  public void setTableSize(int tableSize){
+    if (tableSize < 0 || tableSize > MAX_TABLE_SIZE) {
+      throw new IllegalArgumentException("The table size must be between 0 and " + MAX_TABLE_SIZE + ": " + tableSize);
+    }
+    this.tableSize = tableSize <= 1 ? tableSize : Integer.highestOneBit(tableSize - 1) << 1;
+  }
+
+  /**
+   * The context only counts the expansions against the limits, the nodes on the path are kept by the search.
+   * @return False.
+   */
+  @Override
+  protected boolean usesNodeState(){
+    return false;
+  }
+
+  /**
+   * Calculates the path to the target by iterative deepening, then returns it.
+   * The path reports every expansion, the repeated ones included, but it keeps no checked nodes.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which counts the expansions against the limits.
+   * @return The calculated path, or the part of the current path which gets the closest to the destination if a limit was reached.
+   * {@link Search}
+   */
+  @Override
+  protected Path search(int start, int destination, SearchContext context){
+    return new Search(start, destination, context).run();
+  }
+
+  /**
+   * Returns the cost of stepping onto a node, which is compared against the threshold.
+   * @param node The index of the node which is entered.
+   * @return The cost of the step, at least one.
+   */
+  protected abstract int getMoveCost(int node);
+
+  /**
+   * Calculates the estimated cost from a node to the destination, which must never be higher than the real cost.
+   * @param node The index of the node.
+   * @param destination The index of the destination node.
+   * @return The H value of the node.
+   */
+  protected abstract int getHValue(int node, int destination);
+
+  /**
+   * The Main class for a single iterative deepening search.
+   * The current path is stored in arrays indexed by the depth, which only grow when the path gets longer than ever before in the query.
+   */
+  private class Search {
+    private static final int FOUND = -1; //The result of an iteration which reached the destination.
+
+    private final int start; //The index of the start node.
+    private final int destination; //The index of the destination node.
+    private final SearchContext context; //The context which counts the expansions.
+
+    private int[] pathNodes = new int[64]; //The nodes of the current path, the start node first.
+    private int[] gValues = new int[64]; //The G value of every node of the current path.
+    private int[] children = new int[64 * 4]; //The neighbours of every node of the current path within the threshold, four slots for each depth, ordered by their F value.
+    private int[] childCounts = new int[64]; //The number of neighbours within the threshold of every node of the current path.
+    private int[] cursors = new int[64]; //The next neighbour to try of every node of the current path, -1 if the node is not expanded yet.
+    private final LongIntMap onPath = new LongIntMap(64); //The depth of every node of the current path, so the path never runs into itself.
+    private final int[] neighbours = new int[4]; //The neighbours of the node which is expanded.
+    private final int[] childKeys = new int[4]; //The F values of the neighbours of the node which is expanded.
+    private int depth; //The index of the last node of the current path.
+    private long expansions; //The number of expansions in every iteration so far.
+
+    private final int[] tableNodes; //The node stored in every slot of the transposition table.
+    private final int[] tableValues; //The lowest G value of the node of every slot.
+    private final int[] tableStamps; //The iteration in which every slot was written, 0 for an empty slot.
+    private int iteration; //The number of the current iteration, starting with one.
+
+    private Search(int start, int destination, SearchContext context){
+      this.start = start;
+      this.destination = destination;
+      this.context = context;
+
+      int size = tableSize;
+      tableNodes = new int[size];
+      tableValues = new int[size];
+      tableStamps = new int[size];
+    }
+
+    /**
+     * Runs the iterations with a raising threshold until the destination is found, or nothing was skipped.
+     * @return The calculated path.
+     */
+    private Path run(){
+      int threshold = getHValue(start, destination);
+
+      try {
+        while (true) {
+          iteration++;
+          int nextThreshold = deepen(threshold);
+
+          if (nextThreshold == FOUND) {
+            return new Path(graph, getSteps(depth), getClosedCount(), true);
+          }
+
+          //Nothing was skipped, so every reachable node was checked without finding the destination.
+          if (nextThreshold == Integer.MAX_VALUE) {
+            return new Path(graph, new int[0], getClosedCount(), true);
+          }
+
+          threshold = nextThreshold;
+        }
+      } catch (SearchLimitException e) {
+        return new Path(graph, getSteps(getClosestDepth()), getClosedCount(), false);
+      }
+    }
+
+    /**
+     * Runs one depth first iteration.
+     * @param threshold The highest F value of the nodes which are entered.
+     * @return FOUND if the destination is the last node of the current path, or else the lowest F value which was above the threshold.
+     */
+    private int deepen(int threshold){
+      int nextThreshold = Integer.MAX_VALUE;
+      depth = -1;
+      push(start, 0);
+      record(start, 0);
+
+      while (depth >= 0) {
+        int node = pathNodes[depth];
+
+        if (cursors[depth] < 0) {
+          context.countExpansion();
+          expansions++;
+
+          if (node == destination) {
+            return FOUND;
+          }
+
+          nextThreshold = Math.min(nextThreshold, expand(threshold));
+          cursors[depth] = 0;
+        }
+
+        //Every neighbour was tried, so the node leaves the path.
+        if (cursors[depth] == childCounts[depth]) {
+          onPath.remove(node);
+          depth--;
+          continue;
+        }
+
+        int child = children[depth * 4 + cursors[depth]++];
+        int gValue = gValues[depth] + getMoveCost(child);
+
+        if (record(child, gValue)) {
+          push(child, gValue);
+        }
+      }
+
+      return nextThreshold;
+    }
+
+    /**
+     * Collects the neighbours of the last node of the path which are within the threshold, ordered by their F value.
+     * @param threshold The highest F value of the nodes which are entered.
+     * @return The lowest F value of the neighbours above the threshold, Integer.MAX_VALUE if there is none.
+     */
+    private int expand(int threshold){
+      int node = pathNodes[depth];
+      int offset = depth * 4;
+      int count = 0;
+      int lowestSkipped = Integer.MAX_VALUE;
+      int neighbourCount = graph.getNeighbours(node, neighbours);
+
+      for (int i = 0; i < neighbourCount; i++) {
+        int neighbour = neighbours[i];
+
+        if (onPath.containsKey(neighbour)) {
+          continue;
+        }
+
+        int fValue = gValues[depth] + getMoveCost(neighbour) + getHValue(neighbour, destination);
+
+        if (fValue > threshold) {
+          lowestSkipped = Math.min(lowestSkipped, fValue);
+          continue;
+        }
+
+        //The neighbour with the lowest F value is tried first, so the last iteration reaches the destination early.
+        int position = count++;
+        while (position > 0 && childKeys[position - 1] > fValue) {
+          childKeys[position] = childKeys[position - 1];
+          children[offset + position] = children[offset + position - 1];
+          position--;
+        }
+        childKeys[position] = fValue;
+        children[offset + position] = neighbour;
+      }
+
+      childCounts[depth] = count;
+      return lowestSkipped;
+    }
+
+    /**
+     * Adds a node to the end of the current path.
+     * @param node The index of the node.
+     * @param gValue The G value of the node through the current path.
+     */
+    private void push(int node, int gValue){
+      if (++depth == pathNodes.length) {
+        int length = pathNodes.length * 2;
+        pathNodes = Arrays.copyOf(pathNodes, length);
+        gValues = Arrays.copyOf(gValues, length);
+        children = Arrays.copyOf(children, length * 4);
+        childCounts = Arrays.copyOf(childCounts, length);
+        cursors = Arrays.copyOf(cursors, length);
+      }
+
+      pathNodes[depth] = node;
+      gValues[depth] = gValue;
+      cursors[depth] = -1;
+      onPath.put(node, depth);
+    }
+
+    /**
+     * Stores the G value of a node in the transposition table, unless the node was already entered in this iteration with a G value which is not higher.
+     * @param node The index of the node.
+     * @param gValue The G value of the node through the current path.
+     * @return If the node has to be entered, always true without a table.
+     */
+    private boolean record(int node, int gValue){
+      if (tableNodes.length == 0) {
+        return true;
+      }
+
+      int hash = node * 0x9E3779B9;
+      int slot = (hash ^ hash >>> 16) & (tableNodes.length - 1);
+
+      if (tableStamps[slot] == iteration && tableNodes[slot] == node && tableValues[slot] <= gValue) {
+        return false;
+      }
+
+      tableNodes[slot] = node;
+      tableValues[slot] = gValue;
+      tableStamps[slot] = iteration;
+      return true;
+    }
+
+    /**
+     * Finds the node of the current path with the lowest Manhattan distance to the destination.
+     * @return The depth of the closest node, the first one if there are more.
+     */
+    private int getClosestDepth(){
+      int closest = getClosestNode(Arrays.copyOf(pathNodes, depth + 1), destination);
+      return closest == -1 ? -1 : onPath.get(closest, -1);
+    }
+
+    /**
+     * Creates the steps of the current path up to a depth.
+     * @param last The depth of the last node of the path, -1 for an empty path.
+     * @return The steps from the last node to the node after the start.
+     */
+    private int[] getSteps(int last){
+      int[] steps = new int[Math.max(last, 0)];
+
+      for (int i = 0; i < steps.length; i++) {
+        steps[i] = pathNodes[last - i];
+      }
+
+      return steps;
+    }
+
+    /**
+     * Returns the number of expansions for the path.
+     * @return The expansions of every iteration, at most Integer.MAX_VALUE.
+     */
+    private int getClosedCount(){
+      return (int) Math.min(expansions, Integer.MAX_VALUE);
+    }
+  }
+}
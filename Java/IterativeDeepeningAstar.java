@@ -0,0 +1,49 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for IDA* pathfinding.
+ * Contains the cost and the heuristic of the iterative deepening search, see {@link IterativeDeepening}.
+ * The threshold is raised to the lowest F value above it, and the Manhattan distance never overestimates, so the first path found is one of the cheapest ones,
+ * while the memory of the search only grows with the path. On boards with many different costs the threshold grows in small steps, which takes many iterations.
+ */
+public class IterativeDeepeningAstar extends IterativeDeepening {
+
+  public IterativeDeepeningAstar(Board boardHandler){
+    super(boardHandler);
+  }
+
+  public IterativeDeepeningAstar(GridGraph graph){
+    super(graph);
+  }
+
+  /**
+   * Returns the bound of the paths, the threshold never skips past the cost of the cheapest path.
+   * @return 1.
+   */
+  @Override
+  public double getSuboptimalityBound(){
+    return 1;
+  }
+
+  /**
+   * Returns the cost of stepping onto a node.
+   * @param node The index of the node which is entered.
+   * @return One plus the extra cost of the node.
+   */
+  @Override
+  protected int getMoveCost(int node){
+    return 1 + graph.getCost(node);
+  }
+
+  /**
+   * Calculates the heuristic distance between the node and the destination node.
+   * @param node The index of the node.
+   * @param destination The index of the destination node.
+   * @return The Manhattan distance between the two nodes.
+   */
+  @Override
+  protected int getHValue(int node, int destination){
+    int width = graph.getWidth();
+    return Math.abs(node % width - destination % width) + Math.abs(node / width - destination / width);
+  }
+}
@@ -0,0 +1,39 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for iterative deepening Depth First pathfinding.
+ * Contains the step counting of the iterative deepening search, see {@link IterativeDeepening}.
+ * Every iteration is a Depth First search which goes one step deeper than the previous one, and the costs of the nodes are ignored,
+ * so like Breadth First it finds a path with the fewest steps, but it only keeps the current path in memory.
+ */
+public class IterativeDeepeningDepthFirst extends IterativeDeepening {
+
+  public IterativeDeepeningDepthFirst(Board boardHandler){
+    super(boardHandler);
+  }
+
+  public IterativeDeepeningDepthFirst(GridGraph graph){
+    super(graph);
+  }
+
+  /**
+   * Returns the cost of stepping onto a node, every step counts as one.
+   * @param node The index of the node which is entered.
+   * @return 1.
+   */
+  @Override
+  protected int getMoveCost(int node){
+    return 1;
+  }
+
+  /**
+   * Returns the estimated remaining steps, which is not used, so the threshold is the depth of the iteration.
+   * @param node The index of the node.
+   * @param destination The index of the destination node.
+   * @return 0.
+   */
+  @Override
+  protected int getHValue(int node, int destination){
+    return 0;
+  }
+}
@@ -0,0 +1,324 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for Jump Point Search pathfinding on 4 connected grids.
+ * Contains all the logic required to generate the path.
+ * <p>
+ * Paths are kept in a canonical order (vertical moves before horizontal ones), so only the nodes where the canonical order
+ * has to break, the jump points, are added to the open list. Vertical jumps look for jump points on both sides at every step,
+ * horizontal jumps stop when a wall next to the previous node opens up on the side.
+ * The pruning is only valid between nodes with equal cost, so nodes on the border of a cost region are always jump points.
+ * On uniform cost boards this expands an order of magnitude fewer nodes than {@link Astar}, with the same path cost.
+ */
+public class JumpPointSearch extends Pathfinding {
+
+  public JumpPointSearch(Board boardHandler){
+    super(boardHandler);
+  }
+
+  public JumpPointSearch(GridGraph graph){
+    super(graph);
+  }
+
+  /**
+   * Returns the bound of the paths, as the pruning keeps one of the cheapest paths in canonical order, the path is one of the cheapest ones.
+   * @return 1.
+   */
+  @Override
+  public double getSuboptimalityBound(){
+    return 1;
+  }
+
+  /**
+   * Calculates the path to the target using Jump Point Search, then returns it.
+   * The steps between the jump points are filled in, so the path contains every node like the other algorithms.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the G value and the parent jump point of every jump point.
+   * @return The calculated path.
+   */
+  @Override
+  protected Path search(int start, int destination, SearchContext context){
+    IndexedHeap openNodes = context.getHeap();
+    int width = graph.getWidth();
+    int[] directions = new int[4];
+
+    context.reach(start, 0, -1);
+    openNodes.add(start, getHeuristicDistance(start, destination), 0);
+
+    while (!openNodes.isEmpty()) {
+
+      //Selects the jump point with the lowest F value, then jumps in every direction which is not pruned.
+      int currentNode = openNodes.poll();
+      context.close(currentNode);
+
+      if (currentNode == destination) {
+        return buildJumpPath(currentNode, context, true);
+      }
+
+      int currentG = context.getDistance(currentNode);
+      int directionCount = getDirections(currentNode, context.getParent(currentNode), directions);
+
+      for (int i = 0; i < directionCount; i++) {
+        int direction = directions[i];
+        int jumpPoint = direction == 1 || direction == -1 ? jumpHorizontally(currentNode, direction, destination) : jumpVertically(currentNode, direction, destination);
+
+        if (jumpPoint == -1 || context.isClosed(jumpPoint)) {
+          continue;
+        }
+
+        int gValue = currentG + getSegmentCost(currentNode, jumpPoint, direction);
+
+        if (!context.isReached(jumpPoint)) {
+          context.reach(jumpPoint, gValue, currentNode);
+          openNodes.add(jumpPoint, gValue + getHeuristicDistance(jumpPoint, destination), -gValue);
+        }
+        else if (gValue < context.getDistance(jumpPoint)) {
+          context.reach(jumpPoint, gValue, currentNode);
+          openNodes.update(jumpPoint, gValue + getHeuristicDistance(jumpPoint, destination), -gValue);
+        }
+      }
+    }
+
+    return new Path(graph, new int[0], context.getClosedNodes());
+  }
+
+  /**
+   * Collects the directions in which the search continues from a jump point.
+   * Directions are index offsets: -1 and 1 are horizontal, -width and width are vertical.
+   * @param node The index of the jump point.
+   * @param parent The index of the parent jump point, -1 for the start.
+   * @param directions The array which receives the directions, it must have room for 4 of them.
+   * @return The number of directions.
+   */
+  private int getDirections(int node, int parent, int[] directions){
+    int width = graph.getWidth();
+    int count = 0;
+
+    //The start and the nodes on the border of a cost region are searched in every direction.
+    if (parent == -1 || isRegionBorder(node)) {
+      directions[count++] = -1;
+      directions[count++] = -width;
+      directions[count++] = width;
+      directions[count++] = 1;
+      return count;
+    }
+
+    if (graph.getY(node) == graph.getY(parent)) {
+      //Arrived horizontally: keep going, and turn only where the node beside the previous one blocked the canonical path.
+      int dx = node > parent ? 1 : -1;
+      directions[count++] = dx;
+
+      if (isForced(node, dx, -width)) {
+        directions[count++] = -width;
+      }
+      if (isForced(node, dx, width)) {
+        directions[count++] = width;
+      }
+    } else {
+      //Arrived vertically: keep going, and both sides are natural neighbours.
+      directions[count++] = node > parent ? width : -width;
+      directions[count++] = -1;
+      directions[count++] = 1;
+    }
+
+    return count;
+  }
+
+  /**
+   * Moves horizontally from the node until a jump point, a wall or the edge of the board is found.
+   * @param node The index of the node where the jump starts.
+   * @param dx The direction of the jump, -1 or 1.
+   * @param destination The index of the destination node.
+   * @return The index of the jump point, or -1 if there is none in this direction.
+   */
+  private int jumpHorizontally(int node, int dx, int destination){
+    int width = graph.getWidth();
+
+    while (true) {
+      int x = graph.getX(node) + dx;
+
+      if (x < 0 || x >= width || !graph.isWalkable(node + dx)) {
+        return -1;
+      }
+
+      node += dx;
+
+      if (node == destination || isRegionBorder(node) || isForced(node, dx, -width) || isForced(node, dx, width)) {
+        return node;
+      }
+    }
+  }
+
+  /**
+   * Moves vertically from the node until a jump point, a wall or the edge of the board is found.
+   * A node is a jump point if a horizontal jump from it finds one.
+   * @param node The index of the node where the jump starts.
+   * @param dy The direction of the jump, -width or width.
+   * @param destination The index of the destination node.
+   * @return The index of the jump point, or -1 if there is none in this direction.
+   */
+  private int jumpVertically(int node, int dy, int destination){
+    int nodeCount = graph.getNodeCount();
+
+    while (true) {
+      int next = node + dy;
+
+      if (next < 0 || next >= nodeCount || !graph.isWalkable(next)) {
+        return -1;
+      }
+
+      node = next;
+
+      if (node == destination || isRegionBorder(node) || jumpHorizontally(node, -1, destination) != -1 || jumpHorizontally(node, 1, destination) != -1) {
+        return node;
+      }
+    }
+  }
+
+  /**
+   * Checks if the vertical neighbour of a node, reached by a horizontal move, can only be reached optimally through this node.
+   * That is the case if the node beside the previous node is a wall, or if going around it would cost differently.
+   * @param node The index of the node.
+   * @param dx The direction of the horizontal move, -1 or 1.
+   * @param dy The direction of the vertical neighbour, -width or width.
+   * @return If the vertical neighbour is a forced neighbour.
+   */
+  private boolean isForced(int node, int dx, int dy){
+    int side = node + dy;
+
+    if (side < 0 || side >= graph.getNodeCount() || !graph.isWalkable(side)) {
+      return false;
+    }
+
+    int behind = side - dx;
+    return !graph.isWalkable(behind) || graph.getCost(behind) != graph.getCost(node);
+  }
+
+  /**
+   * Checks if any walkable neighbour of the node has a different cost than the node itself.
+   * @param node The index of the node.
+   * @return If the node is on the border of a cost region.
+   */
+  private boolean isRegionBorder(int node){
+    int width = graph.getWidth();
+    int nodeCount = graph.getNodeCount();
+    int cost = graph.getCost(node);
+    int x = graph.getX(node);
+
+    return (x > 0 && isDifferentCost(node - 1, cost))
+        || (x < width - 1 && isDifferentCost(node + 1, cost))
+        || (node >= width && isDifferentCost(node - width, cost))
+        || (node + width < nodeCount && isDifferentCost(node + width, cost));
+  }
+
+  /**
+   * Checks if the node is walkable and its cost differs from the given one.
+   * @param node The index of the node.
+   * @param cost The cost to compare with.
+   * @return If the node is walkable with a different cost.
+   */
+  private boolean isDifferentCost(int node, int cost){
+    return graph.isWalkable(node) && graph.getCost(node) != cost;
+  }
+
+  /**
+   * Sums the step costs along a straight segment, the first node is excluded and the last one included.
+   * @param from The index of the first node.
+   * @param to The index of the last node.
+   * @param direction The index offset of one step.
+   * @return The cost of walking the segment.
+   */
+  private int getSegmentCost(int from, int to, int direction){
+    int cost = 0;
+
+    for (int node = from + direction; ; node += direction) {
+      cost += 1 + graph.getCost(node);
+
+      if (node == to) {
+        return cost;
+      }
+    }
+  }
+
+  /**
+   * Creates the path to the checked jump point which is the closest to the destination.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the parent of every jump point.
+   * @return The partial path, flagged as incomplete.
+   */
+  @Override
+  protected Path buildPartialPath(int destination, SearchContext context){
+    int closest = getClosestNode(context.getClosedNodes(), destination);
+
+    if (closest == -1) {
+      return new Path(graph, new int[0], new int[0], 0, false);
+    }
+
+    return buildJumpPath(closest, context, false);
+  }
+
+  /**
+   * Backtracks the jump points from the destination and fills in the nodes between them.
+   * @param destination The index of the last jump point of the path.
+   * @param context The search context, which holds the parent of every jump point.
+   * @param complete If the last jump point is the destination.
+   * @return The path from the start to the last jump point.
+   */
+  private Path buildJumpPath(int destination, SearchContext context, boolean complete){
+    int length = 0;
+
+    for (int node = destination; context.getParent(node) != -1; node = context.getParent(node)) {
+      length += getDistance(node, context.getParent(node));
+    }
+
+    int[] steps = new int[length];
+    int step = 0;
+
+    for (int node = destination; context.getParent(node) != -1; node = context.getParent(node)) {
+      int parent = context.getParent(node);
+      int direction = getDirection(parent, node);
+
+      for (int between = node; between != parent; between -= direction) {
+        steps[step++] = between;
+      }
+    }
+
+    int[] closed = context.getClosedNodes();
+    return new Path(graph, steps, closed, closed.length, complete);
+  }
+
+  /**
+   * Returns the index offset of one step from a node towards another one in the same row or column.
+   * @param from The index of the first node.
+   * @param to The index of the second node.
+   * @return The direction of the step.
+   */
+  private int getDirection(int from, int to){
+    if (graph.getY(from) == graph.getY(to)) {
+      return to > from ? 1 : -1;
+    }
+    return to > from ? graph.getWidth() : -graph.getWidth();
+  }
+
+  /**
+   * Returns the number of steps between two nodes in the same row or column.
+   * @param node1 The index of the first node.
+   * @param node2 The index of the second node.
+   * @return The number of steps.
+   */
+  private int getDistance(int node1, int node2){
+    return Math.abs(graph.getX(node1) - graph.getX(node2)) + Math.abs(graph.getY(node1) - graph.getY(node2));
+  }
+
+  /**
+   * Calculates the heuristic distance between two nodes.
+   * As every step costs at least one, the Manhattan distance never overestimates the remaining cost.
+   * @param node1 The index of the first node.
+   * @param node2 The index of the second node.
+   * @return The absolute distance between two nodes.
+   */
+  private int getHeuristicDistance(int node1, int node2){
+    return getDistance(node1, node2);
+  }
+}
@@ -0,0 +1,398 @@
+package com.pathfinding.common;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * The Main class for the landmark (ALT) heuristic.
+ * A few landmark nodes are picked on the grid, and the exact distance from every node to every landmark is precomputed.
+ * By the triangle inequality, the difference of the distances of two nodes to a landmark never overestimates the distance between them,
+ * so the highest difference over all landmarks is an admissible and consistent heuristic, which also accounts for walls and costs.
+ * The tables belong to the version of the grid they were calculated or loaded on. New walls and higher costs only make the real distances longer,
+ * so the tables follow such changes, but a removed wall, a lower cost or a change without an event (like generating the board again) could make them overestimate.
+ * After those the lower bound falls back to zero, which leaves the searches with their Manhattan distance, until the tables are created again.
+ * The tables listen to the grid until they are closed, so the landmarks which are no longer used should be closed.
+ * <p>
+ * The tables take 4 bytes per node per landmark. They can be saved next to the board file, in the following big endian format:
+ * <pre>
+ * offset 0          int   magic number, the characters "PFLM"
+ * offset 4          int   format version, currently 1
+ * offset 8          int   width
+ * offset 12         int   height
+ * offset 16         int   number of landmarks (k)
+ * offset 20         long  CRC32 checksum of the walkability and the costs of the grid
+ * offset 28         int   index of every landmark (k ints)
+ * offset 28 + 4k    int   distance of every node to the landmark, or -1, one row major table per landmark (k * width * height ints)
+ * </pre>
+ */
+public class Landmarks implements BoardListener, AutoCloseable {
+  public static final int MAGIC = 0x50464C4D; //The characters "PFLM".
+  public static final int VERSION = 1; //The current version of the format.
+  public static final int HEADER_SIZE = 28; //The size of the header in bytes.
+  public static final String FILE_EXTENSION = ".landmarks"; //Appended to the name of the board file to get the name of its landmark file.
+
+  private static final int BUFFER_SIZE = 1 << 16; //The size of the buffer used while saving.
+
+  private final GridGraph graph; //The grid of the landmarks.
+  private final int[] landmarks; //The index of every landmark node.
+  private final int[][] distances; //The distance of every node to every landmark, -1 if the node can't reach the landmark.
+  private volatile long version; //The version of the grid the tables belong to.
+  private volatile boolean stale; //If a change of the grid could make the tables overestimate.
+
+  /**
+   * Creates the landmarks from their tables, then starts listening to the changes of the grid.
+   * @param graph The grid of the landmarks.
+   * @param landmarks The index of every landmark node.
+   * @param distances The distance of every node to every landmark.
+   * @param version The version of the grid the tables were calculated on.
+   */
+  private Landmarks(GridGraph graph, int[] landmarks, int[][] distances, long version){
+    this.graph = graph;
+    this.landmarks = landmarks;
+    this.distances = distances;
+    this.version = version;
+    graph.addListener(this);
+  }
+
+  /**
+   * Picks the landmarks and calculates their distance tables, one landmark per thread.
+   * The landmarks are spread evenly along the edge of the grid, as nodes behind each other as seen from a landmark get the best estimates.
+   * @param graph The grid of the landmarks.
+   * @param count The number of landmarks.
+   * @return The landmarks with their tables.
+   */
+  public static Landmarks create(GridGraph graph, int count){
+    long version = graph.getVersion();
+    int[] landmarks = selectLandmarks(graph, count);
+    int[][] distances = new int[landmarks.length][];
+
+    //Every table is an independent reverse Dijkstras search, so they run in parallel.
+    IntStream.range(0, landmarks.length).parallel().forEach(i -> distances[i] = new FlowField(graph, landmarks[i]).getDistances());
+
+    return new Landmarks(graph, landmarks, distances, version);
+  }
+
+  /**
+   * Picks walkable nodes evenly spaced along the edge of the grid.
+   * From every point of the edge the nodes are checked towards the center, until a walkable node is found.
+   * @param graph The grid.
+   * @param count The number of landmarks.
+   * @return The index of every landmark, duplicates removed.
+   */
+  private static int[] selectLandmarks(GridGraph graph, int count){
+    int width = graph.getWidth();
+    int height = graph.getHeight();
+    long perimeter = 2L * (width + height);
+    int[] landmarks = new int[count];
+    int found = 0;
+
+    for (int i = 0; i < count; i++) {
+      long position = perimeter * i / count;
+      int x;
+      int y;
+
+      //Walks the edge clockwise from the top left corner.
+      if (position < width) {
+        x = (int) position;
+        y = 0;
+      } else if (position < width + height) {
+        x = width - 1;
+        y = (int) (position - width);
+      } else if (position < 2L * width + height) {
+        x = (int) (2L * width + height - 1 - position);
+        y = height - 1;
+      } else {
+        x = 0;
+        y = (int) (perimeter - 1 - position);
+      }
+
+      int landmark = findWalkableTowardsCenter(graph, x, y);
+
+      if (landmark != -1 && !contains(landmarks, found, landmark)) {
+        landmarks[found++] = landmark;
+      }
+    }
+
+    return Arrays.copyOf(landmarks, found);
+  }
+
+  /**
+   * Checks the nodes on the line from a point to the center of the grid, and returns the first walkable one.
+   * @param graph The grid.
+   * @param x The X coordinate of the point.
+   * @param y The Y coordinate of the point.
+   * @return The index of the walkable node, -1 if there is none on the line.
+   */
+  private static int findWalkableTowardsCenter(GridGraph graph, int x, int y){
+    int centerX = graph.getWidth() / 2;
+    int centerY = graph.getHeight() / 2;
+    int steps = Math.max(Math.abs(centerX - x), Math.abs(centerY - y));
+
+    for (int step = 0; step <= steps; step++) {
+      int nodeX = steps == 0 ? x : x + (int) ((long) (centerX - x) * step / steps);
+      int nodeY = steps == 0 ? y : y + (int) ((long) (centerY - y) * step / steps);
+      int node = graph.getIndex(nodeX, nodeY);
+
+      if (graph.isWalkable(node)) {
+        return node;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Checks if the first elements of an array contain a value.
+   */
+  private static boolean contains(int[] values, int count, int value){
+    for (int i = 0; i < count; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Calculates the lower bound of the distance between two nodes.
+   * For a landmark L the distance from the node to the destination is at least d(node, L) - d(destination, L),
+   * and at least d(L, destination) - d(L, node), where the distances from L follow from the stored ones as the cost of a step only depends on the entered node.
+   * @param node The index of the node.
+   * @param destination The index of the destination node.
+   * @return The highest lower bound over every landmark which both nodes can reach, zero if there is none, or if the grid changed since the tables were made.
+   */
+  public int getLowerBound(int node, int destination){
+    if (!isCurrent()) {
+      return 0;
+    }
+
+    int bound = 0;
+    int costDifference = graph.getCost(destination) - graph.getCost(node);
+
+    for (int[] table : distances) {
+      int nodeDistance = table[node];
+      int destinationDistance = table[destination];
+
+      if (nodeDistance == FlowField.UNREACHABLE || destinationDistance == FlowField.UNREACHABLE) {
+        continue;
+      }
+
+      bound = Math.max(bound, Math.max(nodeDistance - destinationDistance, destinationDistance - nodeDistance + costDifference));
+    }
+
+    return bound;
+  }
+
+  /**
+   * Checks if the tables still give lower bounds on the grid.
+   * @return If the grid didn't change since the tables were calculated or loaded, apart from new walls and higher costs.
+   */
+  public boolean isCurrent(){
+    return !stale && graph.getVersion() == version;
+  }
+
+  /**
+   * Follows a change of the grid. The tables stay valid if the node didn't get cheaper or walkable, otherwise they are dropped.
+   * @param index The index of the changed node.
+   * @param oldType The type of the node before the change.
+   * @param oldCost The extra cost of the node before the change.
+   */
+  @Override
+  public synchronized void nodeChanged(int index, Node.Types oldType, int oldCost){
+    if (stale) {
+      return;
+    }
+
+    boolean opened = oldType == Node.Types.Wall && graph.isWalkable(index);
+
+    if (opened || graph.getCost(index) < oldCost || graph.getVersion() != version + 1) {
+      stale = true;
+    } else {
+      version = graph.getVersion();
+    }
+  }
+
+  /**
+   * Stops listening to the grid changes, so the tables are no longer current after the next change.
+   */
+  @Override
+  public void close(){
+    graph.removeListener(this);
+  }
+
+  /**
+   * Returns the index of every landmark.
+   * @return A copy of the landmark indices.
+   */
+  public int[] getLandmarks(){
+    return landmarks.clone();
+  }
+
+  /**
+   * Returns the distance of a node to a landmark.
+   * @param landmark The position of the landmark in {@link #getLandmarks()}.
+   * @param node The index of the node.
+   * @return The cost of the cheapest path from the node to the landmark, -1 if there is none.
+   */
+  public int getDistance(int landmark, int node){
+    return distances[landmark][node];
+  }
+
+  /**
+   * Returns the number of landmarks.
+   * @return The number of landmarks.
+   */
+  public int getCount(){
+    return landmarks.length;
+  }
+
+  /**
+   * Returns the grid of the landmarks.
+   * @return The grid on which the tables were calculated.
+   */
+  public GridGraph getGraph(){
+    return graph;
+  }
+
+  /**
+   * Returns the landmark file which belongs to a board file.
+   * @param boardFile The board file.
+   * @return The file next to the board file, with the landmark extension appended to its name.
+   */
+  public static File getFile(File boardFile){
+    return new File(boardFile.getPath() + FILE_EXTENSION);
+  }
+
+  /**
+   * Writes the landmarks and their tables into a file.
+   * @param file The file to write, it is overwritten if it exists.
+   * @throws IOException If the file can't be written.
+   */
+  public void save(File file) throws IOException {
+    try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(graph.getWidth()).putInt(graph.getHeight()).putInt(landmarks.length).putLong(getChecksum(graph));
+
+      for (int landmark : landmarks) {
+        if (buffer.remaining() < Integer.BYTES) {
+          write(channel, buffer);
+        }
+        buffer.putInt(landmark);
+      }
+
+      for (int[] table : distances) {
+        for (int distance : table) {
+          if (buffer.remaining() < Integer.BYTES) {
+            write(channel, buffer);
+          }
+          buffer.putInt(distance);
+        }
+      }
+
+      write(channel, buffer);
+    }
+  }
+
+  /**
+   * Reads the landmarks of a grid from a file.
+   * @param file The landmark file.
+   * @param graph The grid of the landmarks, it must be the same grid the file was saved with.
+   * @return The landmarks with their tables.
+   * @throws IOException If the file can't be read, it is not a valid landmark file, or it belongs to a different grid.
+   */
+  public static Landmarks load(File file, GridGraph graph) throws IOException {
+    try (RandomAccessFile input = new RandomAccessFile(file, "r"); FileChannel channel = input.getChannel()) {
+      if (channel.size() < HEADER_SIZE) {
+        throw new IOException("The file is too short to be a landmark file: " + file);
+      }
+
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+
+      if (header.getInt() != MAGIC) {
+        throw new IOException("The file is not a landmark file: " + file);
+      }
+
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported landmark file version " + version + ": " + file);
+      }
+
+      int width = header.getInt();
+      int height = header.getInt();
+      int count = header.getInt();
+      long checksum = header.getLong();
+
+      long graphVersion = graph.getVersion();
+
+      if (width != graph.getWidth() || height != graph.getHeight() || checksum != getChecksum(graph)) {
+        throw new IOException("The landmark file belongs to a different board: " + file);
+      }
+
+      long nodeCount = graph.getNodeCount();
+      if (count < 0 || channel.size() < HEADER_SIZE + 4L * count * (1 + nodeCount)) {
+        throw new IOException("The landmark file is truncated: " + file);
+      }
+
+      IntBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, 4L * count).asIntBuffer();
+      int[] landmarks = new int[count];
+      data.get(landmarks);
+
+      int[][] distances = new int[count][(int) nodeCount];
+      long offset = HEADER_SIZE + 4L * count;
+
+      for (int[] table : distances) {
+        channel.map(FileChannel.MapMode.READ_ONLY, offset, 4L * nodeCount).asIntBuffer().get(table);
+        offset += 4L * nodeCount;
+      }
+
+      return new Landmarks(graph, landmarks, distances, graphVersion);
+    }
+  }
+
+  /**
+   * Calculates the checksum of the walkability and the costs of a grid, which identifies the grid of a landmark file.
+   * Marking the start, the destination or the path doesn't change the checksum.
+   * @param graph The grid.
+   * @return The CRC32 checksum.
+   */
+  private static long getChecksum(GridGraph graph){
+    CRC32 checksum = new CRC32();
+    byte[] row = new byte[graph.getWidth() * 2];
+
+    for (int y = 0; y < graph.getHeight(); y++) {
+      for (int x = 0; x < graph.getWidth(); x++) {
+        int node = graph.getIndex(x, y);
+        row[x * 2] = (byte) (graph.isWalkable(node) ? 1 : 0);
+        row[x * 2 + 1] = (byte) graph.getCost(node);
+      }
+      checksum.update(row, 0, row.length);
+    }
+
+    return checksum.getValue();
+  }
+
+  /**
+   * Writes the content of the buffer to the channel and clears the buffer.
+   * @param channel The channel of the file.
+   * @param buffer The buffer which holds the bytes to write.
+   * @throws IOException If the bytes can't be written.
+   */
+  private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+
+    buffer.clear();
+  }
+}
@@ -0,0 +1,127 @@
+package com.pathfinding.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Main class for the thread safe latency histogram.
+ * Every power of two is split into four buckets, so a recorded value is off by at most 25%, while the histogram takes a fixed 256 counters.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 2; //The number of bits below the highest one bit which select the bucket within a power of two.
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; //The number of buckets per power of two.
+
+  private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS); //The number of values in every bucket.
+  private final LongAdder count = new LongAdder(); //The number of recorded values.
+  private final LongAdder sum = new LongAdder(); //The sum of the recorded values.
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0); //The highest recorded value.
+
+  /**
+   * Records a value.
+   * @param value The value, negative values are recorded as zero.
+   */
+  public void record(long value){
+    value = Math.max(value, 0);
+    buckets.incrementAndGet(getBucket(value));
+    count.increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  /**
+   * Returns the number of recorded values.
+   * @return The count of the histogram.
+   */
+  public long getCount(){
+    return count.sum();
+  }
+
+  /**
+   * Returns the average of the recorded values.
+   * @return The mean, zero if nothing was recorded.
+   */
+  public double getMean(){
+    long values = count.sum();
+    return values == 0 ? 0 : (double) sum.sum() / values;
+  }
+
+  /**
+   * Returns the highest recorded value.
+   * @return The maximum, zero if nothing was recorded.
+   */
+  public long getMax(){
+    return max.get();
+  }
+
+  /**
+   * Returns an upper estimate of a percentile.
+   * @param percentile The percentile, between 0 and 100.
+   * @return The highest value of the bucket which holds the percentile, but not more than the maximum.
+   */
+  public long getPercentile(double percentile){
+    long total = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      total += buckets.get(i);
+    }
+
+    long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+    long seen = 0;
+
+    for (int i = 0; i < buckets.length(); i++) {
+      seen += buckets.get(i);
+
+      if (seen >= rank && seen > 0) {
+        return Math.min(getBucketMax(i), getMax());
+      }
+    }
+
+    return 0;
+  }
+
+  /**
+   * Removes every recorded value.
+   * Values recorded while the reset runs may be partly kept.
+   */
+  public void reset(){
+    for (int i = 0; i < buckets.length(); i++) {
+      buckets.set(i, 0);
+    }
+    count.reset();
+    sum.reset();
+    max.reset();
+  }
+
+  /**
+   * Returns the bucket of a value.
+   * Values below four have their own bucket, the others are bucketed by their highest one bit and the two bits after it.
+   * @param value The non negative value.
+   * @return The index of the bucket.
+   */
+  private static int getBucket(long value){
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Returns the highest value which falls into a bucket.
+   * @param bucket The index of the bucket.
+   * @return The upper bound of the bucket.
+   */
+  private static long getBucketMax(int bucket){
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+
+    int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    int subBucket = bucket % SUB_BUCKETS;
+    long lowest = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+}
@@ -0,0 +1,184 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+
+/**
+ * The Main class for the primitive long to int hash map.
+ * The keys and values are stored in two flat arrays with linear probing, so an entry takes 12 bytes, without any boxing or per entry objects.
+ * Removed entries are filled by shifting the following entries back, so the map never collects tombstones.
+ * The map is not thread safe.
+ */
+public class LongIntMap {
+  private static final long EMPTY = Long.MIN_VALUE; //The key of the empty slots, which can't be used as a key.
+
+  private long[] keys; //The key in every slot.
+  private int[] values; //The value in every slot.
+  private int mask; //The number of slots minus one, the number of slots is always a power of two.
+  private int size; //The number of entries.
+
+  /**
+   * Creates an empty map.
+   * @param expectedSize The number of entries the map can hold without growing.
+   */
+  public LongIntMap(int expectedSize){
+    int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+    keys = new long[capacity];
+    values = new int[capacity];
+    mask = capacity - 1;
+    Arrays.fill(keys, EMPTY);
+  }
+
+  /**
+   * Returns the value of a key.
+   * @param key The key, anything except Long.MIN_VALUE.
+   * @param missing The value returned if the key is not in the map.
+   * @return The value of the key, or the missing value.
+   */
+  public int get(long key, int missing){
+    for (int slot = getSlot(key); ; slot = (slot + 1) & mask) {
+      long current = keys[slot];
+
+      if (current == key) {
+        return values[slot];
+      }
+      if (current == EMPTY) {
+        return missing;
+      }
+    }
+  }
+
+  /**
+   * Checks if the map contains a key.
+   * @param key The key.
+   * @return If the key has a value.
+   */
+  public boolean containsKey(long key){
+    for (int slot = getSlot(key); ; slot = (slot + 1) & mask) {
+      long current = keys[slot];
+
+      if (current == key) {
+        return true;
+      }
+      if (current == EMPTY) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Sets the value of a key.
+   * @param key The key, anything except Long.MIN_VALUE.
+   * @param value The value.
+   */
+  public void put(long key, int value){
+    if (key == EMPTY) {
+      throw new IllegalArgumentException("Long.MIN_VALUE can't be used as a key.");
+    }
+
+    int slot = getSlot(key);
+
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = key;
+    values[slot] = value;
+
+    //The map is kept at most half full, so the probe sequences stay short.
+    if (++size > (mask + 1) >>> 1) {
+      grow();
+    }
+  }
+
+  /**
+   * Removes a key from the map.
+   * @param key The key.
+   * @return If the key was in the map.
+   */
+  public boolean remove(long key){
+    int slot = getSlot(key);
+
+    while (keys[slot] != key) {
+      if (keys[slot] == EMPTY) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    //Moves back every following entry of the probe sequence which would not be found after the gap.
+    int gap = slot;
+
+    for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+      int home = getSlot(keys[next]);
+
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+    }
+
+    keys[gap] = EMPTY;
+    size--;
+    return true;
+  }
+
+  /**
+   * Removes every entry, the capacity is kept.
+   */
+  public void clear(){
+    if (size > 0) {
+      Arrays.fill(keys, EMPTY);
+      size = 0;
+    }
+  }
+
+  /**
+   * Returns the number of entries.
+   * @return The size of the map.
+   */
+  public int size(){
+    return size;
+  }
+
+  /**
+   * Returns the first slot of the probe sequence of a key.
+   * The key is mixed with a Fibonacci hash, so keys which only differ in their high bits are spread too.
+   * @param key The key.
+   * @return The index of the slot.
+   */
+  private int getSlot(long key){
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  /**
+   * Doubles the number of slots and puts every entry into its new slot.
+   */
+  private void grow(){
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+
+    keys = new long[oldKeys.length * 2];
+    values = new int[oldKeys.length * 2];
+    mask = keys.length - 1;
+    Arrays.fill(keys, EMPTY);
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = getSlot(oldKeys[i]);
+
+        while (keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
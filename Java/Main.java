@@ -10,6 +10,7 @@ public class Main {
 
   private static Board boardHandler = new Board(); //Board instance
   private final static HashMap<Integer, Pathfinding> pathHandlers;
+  private static volatile SearchStatistics lastStatistics; //The statistics of the last query, stored by the metrics listener.
 
   static {
     pathHandlers = new HashMap<Integer, Pathfinding>();
@@ -17,9 +18,30 @@ public class Main {
     pathHandlers.put(1, new BreadthFirst(boardHandler));
     pathHandlers.put(2, new Dijkstras(boardHandler));
     pathHandlers.put(3, new Astar(boardHandler));
+    pathHandlers.put(4, new JumpPointSearch(boardHandler));
+    pathHandlers.put(5, new BidirectionalDijkstras(boardHandler));
+    pathHandlers.put(6, new BidirectionalAstar(boardHandler));
+    pathHandlers.put(7, new ParallelBreadthFirst(boardHandler));
+    pathHandlers.put(8, new FocalSearch(boardHandler, 0.1));
+    pathHandlers.put(9, new IterativeDeepeningAstar(boardHandler));
+    pathHandlers.put(10, new IterativeDeepeningDepthFirst(boardHandler));
+
+    //Unreachable destinations are rejected without searching, the components are labelled again for every new board.
+    ConnectedComponents components = new ConnectedComponents(boardHandler);
+    for (Pathfinding pathHandler : pathHandlers.values()) {
+      pathHandler.setComponents(components);
+    }
+
+    PathfindingMetrics.enable();
+    PathfindingMetrics.addListener(statistics -> lastStatistics = statistics);
   }
 
   public static void main(String[] args) {
+    //With any argument the queries are answered without the interactive board.
+    if (args.length > 0) {
+      System.exit(BatchMode.run(args));
+    }
+
     //Starts an infinite loop which always generates a new board.
     while (true) {
       processInput("help");
@@ -48,7 +70,6 @@ public class Main {
       } while (!boardHandler.isCoordinateAvailable(x,y));
 
       boardHandler.setStartingNode(x,y);
-      boardHandler.drawBoard();
 
       do {
         boardHandler.drawBoard();
@@ -121,7 +142,13 @@ public class Main {
       else if(input.toLowerCase().equals("help")){
         System.out.println("Symbol Description" + System.lineSeparator() + "- : floor node." + System.lineSeparator() + "X : wall node." + System.lineSeparator() +
                 "S : starting node." + System.lineSeparator() + "D : destination node." + System.lineSeparator() + "* : path node." + System.lineSeparator() +
-                "~ : Nodes that were checked, but not part of the path." + System.lineSeparator() + "Commands" + System.lineSeparator() + "Type exit to close the application.");
+                "~ : Nodes that were checked, but not part of the path." + System.lineSeparator() + "Commands" + System.lineSeparator() + "Type metrics to show the metrics of every algorithm." + System.lineSeparator() +
+                "Type exit to close the application.");
+      }
+      else if(input.toLowerCase().equals("metrics")){
+        for (AlgorithmMetrics metrics : PathfindingMetrics.getAllMetrics()){
+          System.out.println(metrics);
+        }
       }
 
       return input;
@@ -168,9 +195,20 @@ public class Main {
     private static String getStatistics(Path path){
       StringBuilder sb = new StringBuilder();
       sb.append("Total cost of the board: " + boardHandler.getBoardCost() + System.lineSeparator());
-      sb.append("Number of checked nodes: " + path.getClosedNodes().size() + System.lineSeparator());
-      sb.append("Number of steps: " + path.getSteps().size() + System.lineSeparator());
+      sb.append("Number of checked nodes: " + path.getClosedCount() + System.lineSeparator());
+      if (path.getBackwardClosedCount() > 0) {
+        sb.append("Checked from the start: " + path.getForwardClosedCount() + ", from the destination: " + path.getBackwardClosedCount() + System.lineSeparator());
+      }
+      SearchStatistics statistics = lastStatistics;
+      if (statistics != null) {
+        sb.append("Open list pushes: " + statistics.getPushes() + ", pops: " + statistics.getPops() + ", peak size: " + statistics.getPeakOpenSize() + System.lineSeparator());
+        sb.append("Search time: " + statistics.getLatencyNanos() / 1000 + " us" + System.lineSeparator());
+      }
+      sb.append("Number of steps: " + path.getStepCount() + System.lineSeparator());
       sb.append("Total cost of the path: " + path.getCost() + System.lineSeparator());
+      if (path.getSuboptimalityBound() < Double.POSITIVE_INFINITY) {
+        sb.append("Cost with the steps: " + path.getTotalCost() + ", at most " + path.getSuboptimalityBound() + " times the cheapest path" + System.lineSeparator());
+      }
       sb.append("Path: " + System.lineSeparator());
 
       for (Node step : path.getSteps()){
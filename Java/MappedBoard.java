@@ -0,0 +1,66 @@
+package com.pathfinding.common;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The Main class for the memory mapped board, which reads its layers directly from a board file.
+ * The board is read only, only absolute reads are used on the buffers, so it can be shared by any number of threads.
+ * {@link BoardFile#load(java.io.File)}
+ */
+public class MappedBoard implements GridGraph {
+  private static final Node.Types[] TYPES = Node.Types.values(); //The node types by their ordinal.
+
+  private final int width; //The width of the board.
+  private final int height; //The height of the board.
+  private final ByteBuffer types; //The mapped type layer.
+  private final ByteBuffer costs; //The mapped cost layer.
+
+  /**
+   * Creates a board over the mapped layers.
+   * @param width The width of the board.
+   * @param height The height of the board.
+   * @param types The type layer, one type ordinal for every cell.
+   * @param costs The cost layer, one extra cost for every cell.
+   */
+  MappedBoard(int width, int height, ByteBuffer types, ByteBuffer costs){
+    this.width = width;
+    this.height = height;
+    this.types = types;
+    this.costs = costs;
+  }
+
+  @Override
+  public int getWidth(){
+    return width;
+  }
+
+  @Override
+  public int getHeight(){
+    return height;
+  }
+
+  @Override
+  public Node.Types getType(int index){
+    return TYPES[types.get(index)];
+  }
+
+  @Override
+  public int getCost(int index){
+    return costs.get(index);
+  }
+
+  @Override
+  public boolean isWalkable(int index){
+    return types.get(index) != Node.Types.Wall.ordinal();
+  }
+
+  /**
+   * Creates a node from the layers, the node is not connected to its neighbours.
+   * @param index The index of the cell.
+   * @return A new node with the type, position and cost of the cell.
+   */
+  @Override
+  public Node getNode(int index){
+    return new Node(getType(index), index % width, index / width, getCost(index));
+  }
+}
@@ -0,0 +1,143 @@
+package com.pathfinding.common;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * The Main class for reading and writing boards in the text map format of the Moving AI grid benchmarks.
+ * The format is extended with the extra cost of the floor cells, larger boards are better kept in a {@link BoardFile}:
+ * <pre>
+ * type octile
+ * height 3
+ * width 4
+ * map
+ * @@@@
+ * @.7@
+ * @@@@
+ * </pre>
+ * The '.', 'G', 'S' and '-' cells are floors without extra cost, the digits are floors with the digit as their extra cost,
+ * and the '@', 'O', 'T', 'W' and 'X' cells are walls.
+ */
+public final class MovingAiMap {
+
+  private MovingAiMap(){
+  }
+
+  /**
+   * Reads a board from a file.
+   * @param file The map file.
+   * @return The board of the file.
+   * @throws IOException If the file can't be read, or it's not a valid map file.
+   */
+  public static CompactBoard load(File file) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      int width = -1;
+      int height = -1;
+      String line;
+
+      //The header lines are "name value" pairs until the "map" line.
+      while ((line = reader.readLine()) != null && !line.trim().equals("map")) {
+        String[] fields = line.trim().split("\\s+");
+
+        if (fields.length == 2 && fields[0].equals("width")) {
+          width = parseSize(fields[1], file);
+        } else if (fields.length == 2 && fields[0].equals("height")) {
+          height = parseSize(fields[1], file);
+        }
+      }
+
+      if (line == null || width <= 0 || height <= 0) {
+        throw new IOException("The map file has no valid width, height and map lines: " + file);
+      }
+
+      CompactBoard board = new CompactBoard(width, height);
+
+      for (int y = 0; y < height; y++) {
+        line = reader.readLine();
+
+        if (line == null || line.length() < width) {
+          throw new IOException("The map file has less than " + height + " rows of " + width + " cells: " + file);
+        }
+
+        for (int x = 0; x < width; x++) {
+          readCell(board, x, y, line.charAt(x), file);
+        }
+      }
+
+      return board;
+    }
+  }
+
+  /**
+   * Writes a board into a file, the cells marked by a search are written as floors.
+   * @param graph The board.
+   * @param file The map file, it is overwritten if it exists.
+   * @throws IOException If the file can't be written.
+   */
+  public static void save(GridGraph graph, File file) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      writer.write("type octile\nheight " + graph.getHeight() + "\nwidth " + graph.getWidth() + "\nmap\n");
+      char[] row = new char[graph.getWidth()];
+
+      for (int y = 0; y < graph.getHeight(); y++) {
+        for (int x = 0; x < row.length; x++) {
+          int node = graph.getIndex(x, y);
+          int cost = graph.getCost(node);
+
+          if (!graph.isWalkable(node)) {
+            row[x] = '@';
+          } else if (cost == 0) {
+            row[x] = '.';
+          } else if (cost <= 9) {
+            row[x] = (char) ('0' + cost);
+          } else {
+            throw new IOException("The map format only supports extra costs up to 9: " + cost);
+          }
+        }
+
+        writer.write(row);
+        writer.write('\n');
+      }
+    }
+  }
+
+  /**
+   * Sets a cell of the board from its character.
+   */
+  private static void readCell(CompactBoard board, int x, int y, char cell, File file) throws IOException {
+    switch (cell) {
+      case '.':
+      case 'G':
+      case 'S':
+      case '-':
+        break;
+      case '@':
+      case 'O':
+      case 'T':
+      case 'W':
+      case 'X':
+        board.setType(x, y, Node.Types.Wall);
+        break;
+      default:
+        if (cell < '0' || cell > '9') {
+          throw new IOException("Unknown cell '" + cell + "' at " + x + ", " + y + ": " + file);
+        }
+        board.setCost(x, y, cell - '0');
+    }
+  }
+
+  /**
+   * Parses the width or the height of the header.
+   */
+  private static int parseSize(String value, File file) throws IOException {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IOException("Invalid size in the map file: " + value + ": " + file, e);
+    }
+  }
+}
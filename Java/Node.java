@@ -27,18 +27,12 @@ public class Node {
   }
 
   private Types type; //The type of the node.
-  private Node parent; //Parent node, used for backtracking the path.
   private ArrayList<Node> neighbours; //The neighbours of the node.
 
   private int x; //The X position of the node.
   private int y; //The Y position of the node.
   private int cost; //The extra cost of the node.
 
-  private int G; //The distance between the node and the starting node.
-  private int H;//The heuristic distance between the node and the destination node.
-  private int F;//The total cost of a node
-  private int distance = 1; //The distance of the node.
-
   /**
    * This constructor ensures that the node always has a valid position and type.
    * @param type The type of the node.
@@ -77,22 +71,6 @@ public class Node {
     this.type = type;
   }
 
-  /**
-   * Returns the parent node of this node.
-   * @return The parent node.
-   */
-  public Node getParent() {
-    return parent;
-  }
-
-  /**
-   * Sets the parent node for this node.
-   * @param parent The parent node.
-   */
-  public void setParent(Node parent) {
-    this.parent = parent;
-  }
-
   /**
    * Returns the neighbour nodes of this node.
    * @return An ArrayList which contains all the neighbouring nodes.
@@ -150,71 +128,7 @@ public class Node {
    * Sets the extra cost of the node.
    * @param cost The extra cost of the node.
    */
-  private void setCost(int cost) {
+  public void setCost(int cost) {
     this.cost = cost;
   }
-
-  /**
-   * Returns the heuristic distance between the node and the starting node.
-   * @return The G value of the node.
-   */
-  public int getG() {
-    return G;
-  }
-
-  /**
-   * Sets the heuristic distance between the node and the starting node.
-   * @param g The G value for the node.
-   */
-  public void setG(int g) {
-    G = g;
-  }
-
-  /**
-   * Returns the heuristic distance between the node and the destination node.
-   * @return The H value of the node.
-   */
-  public int getH() {
-    return H;
-  }
-
-  /**
-   * Sets the heuristic distance between the node and the destination node.
-   * @param h The H value for the node.
-   */
-  public void setH(int h) {
-    H = h;
-  }
-
-  /**
-   * Returns the total cost of the node.
-   * @return The F value of the node.
-   */
-  public int getF() {
-    return F;
-  }
-
-  /**
-   * Sets the total cost of the node.
-   * @param f The F value for the node.
-   */
-  public void setF(int f) {
-    F = f;
-  }
-
-  /**
-   * Returns the distance value of the node.
-   * @return The Distance of the node.
-   */
-  public int getDistance() {
-    return distance;
-  }
-
-  /**
-   * Sets the distance value of the node.
-   * @param distance The desired distance value.
-   */
-  public void setDistance(int distance) {
-    this.distance = distance;
-  }
 }
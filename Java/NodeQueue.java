@@ -0,0 +1,113 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+
+/**
+ * The Main class for the growable queue of node indices.
+ * Nodes can be taken from the front (FIFO) or from the back (LIFO), so it serves both as a queue and as a stack.
+ */
+public class NodeQueue {
+  private int[] nodes = new int[16]; //The node indices, the live ones are between head and tail.
+  private int head; //The position of the first node.
+  private int tail; //The position after the last node.
+
+  private long pushCount; //The number of added nodes since the queue was created.
+  private long pollCount; //The number of removed nodes since the queue was created.
+  private int peakSize; //The highest size since the last reset of the peak.
+
+  /**
+   * Adds a node to the back of the queue.
+   * @param node The index of the node.
+   */
+  public void push(int node){
+    if(tail == nodes.length){
+      //Reclaims the space in front of the head before growing.
+      if(head > nodes.length / 2){
+        System.arraycopy(nodes, head, nodes, 0, tail - head);
+        tail -= head;
+        head = 0;
+      } else {
+        nodes = Arrays.copyOf(nodes, nodes.length * 2);
+      }
+    }
+
+    nodes[tail++] = node;
+
+    pushCount++;
+    peakSize = Math.max(peakSize, tail - head);
+  }
+
+  /**
+   * Removes the node from the front of the queue.
+   * @return The index of the first node.
+   */
+  public int poll(){
+    pollCount++;
+    return nodes[head++];
+  }
+
+  /**
+   * Removes the node from the back of the queue.
+   * @return The index of the last node.
+   */
+  public int pop(){
+    pollCount++;
+    return nodes[--tail];
+  }
+
+  /**
+   * Removes every node from the queue.
+   */
+  public void clear(){
+    head = 0;
+    tail = 0;
+  }
+
+  /**
+   * Checks if the queue is empty.
+   * @return If there is no node in the queue.
+   */
+  public boolean isEmpty(){
+    return head == tail;
+  }
+
+  /**
+   * Returns the number of nodes in the queue.
+   * @return The size of the queue.
+   */
+  public int size(){
+    return tail - head;
+  }
+
+  /**
+   * Returns the number of nodes added since the queue was created.
+   * @return The number of pushes.
+   */
+  public long getPushCount(){
+    return pushCount;
+  }
+
+  /**
+   * Returns the number of nodes removed since the queue was created.
+   * @return The number of pops.
+   */
+  public long getPollCount(){
+    return pollCount;
+  }
+
+  /**
+   * Returns the highest number of nodes in the queue since the last reset of the peak.
+   * Clearing the queue doesn't reset the peak, so it covers every search of a query.
+   * @return The peak size.
+   */
+  public int getPeakSize(){
+    return peakSize;
+  }
+
+  /**
+   * Resets the peak size to the current size.
+   */
+  public void resetPeakSize(){
+    peakSize = tail - head;
+  }
+}
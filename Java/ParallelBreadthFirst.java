@@ -0,0 +1,206 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * The Main class for level synchronous parallel Breadth First pathfinding.
+ * Contains all the logic required to generate the path.
+ * <p>
+ * The nodes of a level are split into chunks, which are expanded in parallel on a {@link ForkJoinPool}.
+ * Each level runs in two passes. First every frontier node claims its unreached neighbours, and each neighbour keeps the claim
+ * that the sequential {@link BreadthFirst} would have made first: the lowest frontier position, then the lowest neighbour position.
+ * Then every chunk collects the neighbours it won in order, and the chunks are joined in order into the next level.
+ * The parents, the levels and the checked nodes are therefore exactly the same as the ones of {@link BreadthFirst}.
+ */
+public class ParallelBreadthFirst extends Pathfinding {
+
+  private static final int CHUNK_SIZE = 1024; //The number of frontier nodes expanded by one task, smaller levels run on the calling thread.
+
+  private final ForkJoinPool pool; //The pool which expands the chunks.
+
+  public ParallelBreadthFirst(Board boardHandler){
+    this(boardHandler, ForkJoinPool.commonPool());
+  }
+
+  public ParallelBreadthFirst(GridGraph graph){
+    this(graph, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Sets the reference Board and the pool which runs the expansion.
+   * @param boardHandler The Board on which the path is calculated.
+   * @param pool The pool which expands the levels.
+   */
+  public ParallelBreadthFirst(Board boardHandler, ForkJoinPool pool){
+    super(boardHandler);
+    this.pool = pool;
+  }
+
+  /**
+   * Sets the reference grid and the pool which runs the expansion.
+   * @param graph The grid on which the path is calculated.
+   * @param pool The pool which expands the levels.
+   */
+  public ParallelBreadthFirst(GridGraph graph, ForkJoinPool pool){
+    super(graph);
+    this.pool = pool;
+  }
+
+  /**
+   * Calculates the path to the target using the Breadth First algorithm, one level at a time, then returns it.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the parent of every node and the claims of the current level.
+   * @return The calculated path.
+   */
+  @Override
+  protected Path search(int start, int destination, SearchContext context){
+    //Every reached node in the order of reaching, the levels follow each other, so it's the queue of the sequential search.
+    int[] order = new int[CHUNK_SIZE];
+    int levelStart = 0;
+    int levelEnd = 1;
+    int level = 0;
+
+    context.reach(start, 0, -1);
+    order[0] = start;
+
+    while (levelStart < levelEnd && !context.isReached(destination)) {
+      //The nodes of the level are checked before it is expanded, in the order of the sequential search, which also applies the limits of the query.
+      for (int i = levelStart; i < levelEnd; i++) {
+        context.close(order[i]);
+      }
+
+      int[] frontier = order;
+      int frontierStart = levelStart;
+      int frontierSize = levelEnd - levelStart;
+      int chunkCount = (frontierSize + CHUNK_SIZE - 1) / CHUNK_SIZE;
+      int nextLevel = level + 1;
+      long stamp = context.beginClaims(graph.getNodeCount());
+
+      //First pass: every unreached neighbour ends up with the claim of the first frontier node which would reach it in the sequential search.
+      runChunks(chunkCount, chunk -> {
+        int[] neighbours = new int[4];
+        int end = Math.min((chunk + 1) * CHUNK_SIZE, frontierSize);
+
+        for (int position = chunk * CHUNK_SIZE; position < end; position++) {
+          int neighbourCount = graph.getNeighbours(frontier[frontierStart + position], neighbours);
+
+          for (int i = 0; i < neighbourCount; i++) {
+            if (!context.isReached(neighbours[i])) {
+              context.claim(neighbours[i], stamp | ((long) position << 2) | i);
+            }
+          }
+        }
+      });
+
+      //Second pass: every chunk collects the neighbours it won, in the order of the sequential search, and marks them as reached.
+      //Only the winner of a neighbour writes its state, and claims of the current round only exist for nodes which were unreached in the first pass.
+      int[][] chunkNodes = new int[chunkCount][];
+      int[] chunkSizes = new int[chunkCount];
+
+      runChunks(chunkCount, chunk -> {
+        int[] neighbours = new int[4];
+        int[] nodes = new int[16];
+        int size = 0;
+        int end = Math.min((chunk + 1) * CHUNK_SIZE, frontierSize);
+
+        for (int position = chunk * CHUNK_SIZE; position < end; position++) {
+          int node = frontier[frontierStart + position];
+          int neighbourCount = graph.getNeighbours(node, neighbours);
+
+          for (int i = 0; i < neighbourCount; i++) {
+            int neighbour = neighbours[i];
+
+            if (context.getClaim(neighbour) == (stamp | ((long) position << 2) | i)) {
+              context.reach(neighbour, nextLevel, node);
+
+              if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+              }
+              nodes[size++] = neighbour;
+            }
+          }
+        }
+
+        chunkNodes[chunk] = nodes;
+        chunkSizes[chunk] = size;
+      });
+
+      //Joins the chunks into the next level.
+      int nextSize = 0;
+      for (int size : chunkSizes) {
+        nextSize += size;
+      }
+
+      if (levelEnd + nextSize > order.length) {
+        order = Arrays.copyOf(order, Math.max(order.length * 2, levelEnd + nextSize));
+      }
+
+      int position = levelEnd;
+      for (int chunk = 0; chunk < chunkCount; chunk++) {
+        System.arraycopy(chunkNodes[chunk], 0, order, position, chunkSizes[chunk]);
+        position += chunkSizes[chunk];
+      }
+
+      levelStart = levelEnd;
+      levelEnd += nextSize;
+      level = nextLevel;
+    }
+
+    //The sequential search checks the nodes of the last level in the order of reaching, until it checks the destination.
+    for (int i = levelStart; i < levelEnd; i++) {
+      context.close(order[i]);
+
+      if (order[i] == destination) {
+        return buildPath(destination, context);
+      }
+    }
+
+    return buildPath(-1, context);
+  }
+
+  /**
+   * Runs the work of every chunk, in parallel if there is more than one.
+   * @param chunkCount The number of chunks.
+   * @param work The work of a chunk, which receives the index of the chunk.
+   */
+  private void runChunks(int chunkCount, IntConsumer work){
+    if (chunkCount == 1) {
+      work.accept(0);
+    } else {
+      pool.invoke(new ChunkTask(0, chunkCount, work));
+    }
+  }
+
+  /**
+   * The task which splits a range of chunks in half until a single chunk is left.
+   */
+  private static class ChunkTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from; //The index of the first chunk.
+    private final int to; //The index after the last chunk.
+    private final IntConsumer work; //The work of a chunk.
+
+    ChunkTask(int from, int to, IntConsumer work){
+      this.from = from;
+      this.to = to;
+      this.work = work;
+    }
+
+    @Override
+    protected void compute(){
+      if (to - from == 1) {
+        work.accept(from);
+        return;
+      }
+
+      int middle = (from + to) >>> 1;
+      invokeAll(new ChunkTask(from, middle, work), new ChunkTask(middle, to, work));
+    }
+  }
+}
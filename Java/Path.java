@@ -6,6 +6,7 @@ import java.util.Stack;
 
 /**
  * The Main class for the Path, created by the pathfinding algorithm.
+ * A path created by a search keeps only node indices, the node lists are built from the grid when they are first requested.
  */
 public class Path {
 
@@ -13,6 +14,14 @@ public class Path {
   private ArrayList<Node> closedNodes; //The nodes checked by the algorithm.
   private int cost; //The total cost of the steps.
 
+  private GridGraph graph; //The grid of the node indices, null if the node lists were given directly.
+  private int[] stepIndices; //The indices of the steps, starting with the destination.
+  private int[] closedIndices; //The indices of the checked nodes in the order they were checked.
+  private int closedCount; //The number of nodes checked by the algorithm, which may be more than the kept checked nodes.
+  private int forwardClosedCount; //The number of checked nodes which were expanded from the start, the rest was expanded from the destination.
+  private boolean complete = true; //If the path reaches the destination, false if the search was stopped by a limit.
+  private double suboptimalityBound = Double.POSITIVE_INFINITY; //The highest ratio between the total cost of the path and the cheapest one.
+
   /**
    * Sets all the values to make sure the path is usable.
    * @param steps The building blocks of the path.
@@ -22,6 +31,66 @@ public class Path {
     setSteps(steps);
     setClosedNodes(closedNodes);
     setCost(GetTheTotalCostOfThePath(steps));
+    this.closedCount = closedNodes.size();
+    this.forwardClosedCount = closedNodes.size();
+  }
+
+  /**
+   * Creates a path from node indices of a grid.
+   * @param graph The grid on which the path was calculated.
+   * @param stepIndices The indices of the steps, starting with the destination and ending with the node after the start.
+   * @param closedIndices The indices of the nodes that were checked during the pathfinding.
+   */
+  public Path(GridGraph graph, int[] stepIndices, int[] closedIndices) {
+    this(graph, stepIndices, closedIndices, closedIndices.length);
+  }
+
+  /**
+   * Creates a path from node indices of a grid, calculated by a search which expanded nodes from both ends.
+   * @param graph The grid on which the path was calculated.
+   * @param stepIndices The indices of the steps, starting with the destination and ending with the node after the start.
+   * @param closedIndices The indices of the checked nodes, the ones expanded from the start first, then the ones expanded from the destination.
+   * @param forwardClosedCount The number of checked nodes which were expanded from the start.
+   */
+  public Path(GridGraph graph, int[] stepIndices, int[] closedIndices, int forwardClosedCount) {
+    this(graph, stepIndices, closedIndices, forwardClosedCount, true);
+  }
+
+  /**
+   * Creates a path from node indices of a grid, which may end before the destination.
+   * @param graph The grid on which the path was calculated.
+   * @param stepIndices The indices of the steps, starting with the last node of the path and ending with the node after the start.
+   * @param closedIndices The indices of the checked nodes, the ones expanded from the start first, then the ones expanded from the destination.
+   * @param forwardClosedCount The number of checked nodes which were expanded from the start.
+   * @param complete If the path ends at the destination, false for the partial path of a search which was stopped by a limit.
+   */
+  public Path(GridGraph graph, int[] stepIndices, int[] closedIndices, int forwardClosedCount, boolean complete) {
+    this.graph = graph;
+    this.complete = complete;
+    this.stepIndices = stepIndices;
+    this.closedIndices = closedIndices;
+    this.closedCount = closedIndices.length;
+    this.forwardClosedCount = forwardClosedCount;
+
+    int cost = 0;
+    for(int step : stepIndices){
+      cost += graph.getCost(step);
+    }
+    setCost(cost);
+  }
+
+  /**
+   * Creates a path from node indices of a grid, calculated by a search which doesn't keep the nodes it checked.
+   * The checked node list of such a path is empty, but the number of checked nodes is still reported.
+   * @param graph The grid on which the path was calculated.
+   * @param stepIndices The indices of the steps, starting with the last node of the path and ending with the node after the start.
+   * @param closedCount The number of nodes checked by the search, counting every node as often as it was checked.
+   * @param complete If the path ends at the destination, false for the partial path of a search which was stopped by a limit.
+   */
+  public Path(GridGraph graph, int[] stepIndices, int closedCount, boolean complete) {
+    this(graph, stepIndices, new int[0], 0, complete);
+    this.closedCount = closedCount;
+    this.forwardClosedCount = closedCount;
   }
 
   /**
@@ -43,10 +112,26 @@ public class Path {
    * Returns the steps from which the path is made of.
    * @return A Stack of nodes representing the path.
    */
-  public Stack<Node> getSteps() {
+  public synchronized Stack<Node> getSteps() {
+    if(steps == null){
+      steps = new Stack<Node>();
+
+      for(int step : stepIndices){
+        steps.push(graph.getNode(step));
+      }
+    }
+
     return steps;
   }
 
+  /**
+   * Returns the number of steps of the path, without building the step stack.
+   * @return The number of steps.
+   */
+  public int getStepCount() {
+    return stepIndices != null ? stepIndices.length : steps.size();
+  }
+
   /**
    * Sets the step stack.
    * @param steps A stack of nodes.
@@ -57,12 +142,70 @@ public class Path {
 
   /**
    * An Array List of nodes, representing the checked nodes.
-   * @return The nodes, which were checked during the path creation.
+   * @return The nodes, which were checked during the path creation, empty if the search didn't keep them.
    */
-  public ArrayList<Node> getClosedNodes() {
+  public synchronized ArrayList<Node> getClosedNodes() {
+    if(closedNodes == null){
+      closedNodes = new ArrayList<Node>(closedIndices.length);
+
+      for(int node : closedIndices){
+        closedNodes.add(graph.getNode(node));
+      }
+    }
+
     return closedNodes;
   }
 
+  /**
+   * Returns the number of nodes checked by the algorithm, without building the node list.
+   * @return The number of checked nodes.
+   */
+  public int getClosedCount() {
+    return closedCount;
+  }
+
+  /**
+   * Returns the number of nodes checked by the search which started from the starting node.
+   * @return The number of checked nodes, which is every checked node for the single direction algorithms.
+   */
+  public int getForwardClosedCount() {
+    return forwardClosedCount;
+  }
+
+  /**
+   * Returns the number of nodes checked by the search which started from the destination node.
+   * @return The number of checked nodes, which is zero for the single direction algorithms.
+   */
+  public int getBackwardClosedCount() {
+    return getClosedCount() - forwardClosedCount;
+  }
+
+  /**
+   * Checks if the path was completed by the search.
+   * An incomplete path ends at the checked node which is the closest to the destination, as the search was stopped by one of its {@link SearchLimits}.
+   * @return If the path ends at the destination, or the destination is proven to be unreachable.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Returns the guaranteed bound of the path: its total cost is at most this many times the total cost of the cheapest path.
+   * @return 1 if the path is one of the cheapest ones, higher for bounded suboptimal searches, infinity if the algorithm doesn't guarantee a bound.
+   * {@link Pathfinding#getSuboptimalityBound()}
+   */
+  public double getSuboptimalityBound() {
+    return suboptimalityBound;
+  }
+
+  /**
+   * Sets the guaranteed bound of the path, done by the algorithm which found it.
+   * @param suboptimalityBound The highest ratio between the total cost of the path and the cheapest one.
+   */
+  void setSuboptimalityBound(double suboptimalityBound) {
+    this.suboptimalityBound = suboptimalityBound;
+  }
+
   /**
    * Sets the Array List of checked nodes.
    * @param closedNodes The nodes checked by the pathfinding algorithm.
@@ -79,6 +222,14 @@ public class Path {
     return cost;
   }
 
+  /**
+   * Returns the cost of the path as the algorithms count it: every step costs one, plus the extra cost of its node.
+   * @return The number of steps plus the cost of the path.
+   */
+  public int getTotalCost() {
+    return getStepCount() + cost;
+  }
+
   /**
    * Sets the total cost of the path.
    * @param cost The sum of the cost of each node in the steps stack.
@@ -0,0 +1,192 @@
+package com.pathfinding.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Main class for caching the paths of repeated queries.
+ * The paths are keyed by the algorithm, its suboptimality bound and the two end nodes, so a new weight of an algorithm doesn't get the paths of the old one.
+ * They are only returned while the version of the grid is the one they were calculated on, so any change of the grid invalidates them. The least recently used path is evicted when the cache is full.
+ * The partial paths of the queries stopped by a limit are not cached, as the same query may complete under other limits.
+ * The cache can be used from any number of threads, the paths are calculated outside of the lock, so a slow query doesn't block the others.
+ * The cached paths are shared between the callers, so they must not be modified.
+ */
+public class PathCache {
+
+  private final Map<Key, CachedPath> entries; //The cached paths in the order of their last use.
+  private final LongAdder hits = new LongAdder(); //The number of queries answered from the cache.
+  private final LongAdder misses = new LongAdder(); //The number of queries which had to be calculated.
+  private final LongAdder evictions = new LongAdder(); //The number of paths removed to make room for new ones.
+
+  /**
+   * Creates an empty cache.
+   * @param capacity The maximum number of cached paths.
+   */
+  public PathCache(int capacity){
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity must be at least 1: " + capacity);
+    }
+
+    this.entries = new LinkedHashMap<Key, CachedPath>(16, 0.75f, true){
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, CachedPath> eldest){
+        if (size() > capacity) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached path of the query, or calculates and caches it if there is no valid one.
+   * @param algorithm The algorithm which calculates the path.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context used if the path has to be calculated.
+   * @return The path between the two nodes.
+   */
+  public Path getPath(Pathfinding algorithm, int start, int destination, SearchContext context){
+    Key key = new Key(algorithm, algorithm.getSuboptimalityBound(), start, destination);
+
+    //The version is read before the search, so a change during the search leaves an outdated entry instead of a wrong one.
+    long version = algorithm.getGraph().getVersion();
+    CachedPath entry;
+
+    synchronized (entries) {
+      entry = entries.get(key);
+    }
+
+    if (entry != null && entry.version == version) {
+      hits.increment();
+      return entry.path;
+    }
+
+    misses.increment();
+    Path path = algorithm.getPath(start, destination, context);
+
+    if (!path.isComplete()) {
+      return path;
+    }
+
+    synchronized (entries) {
+      //A slower query of an older version must not replace a newer path.
+      CachedPath current = entries.get(key);
+
+      if (current == null || current.version <= version) {
+        entries.put(key, new CachedPath(path, version));
+      }
+    }
+
+    return path;
+  }
+
+  /**
+   * Returns the cached path of the query, or calculates and caches it if there is no valid one.
+   * @param query The query.
+   * @param context The search context used if the path has to be calculated.
+   * @return The path of the query.
+   */
+  public Path getPath(Query query, SearchContext context){
+    return getPath(query.getAlgorithm(), query.getStart(), query.getDestination(), context);
+  }
+
+  /**
+   * Removes every path from the cache, the counters are kept.
+   */
+  public void clear(){
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /**
+   * Returns the number of cached paths, outdated ones included.
+   * @return The size of the cache.
+   */
+  public int size(){
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Returns the number of queries answered from the cache.
+   * @return The number of hits.
+   */
+  public long getHits(){
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of queries which had to be calculated, because their path was missing or outdated.
+   * @return The number of misses.
+   */
+  public long getMisses(){
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of paths removed to make room for new ones.
+   * @return The number of evictions.
+   */
+  public long getEvictions(){
+    return evictions.sum();
+  }
+
+  @Override
+  public String toString(){
+    return "Hits: " + getHits() + ", misses: " + getMisses() + ", evictions: " + getEvictions() + ", size: " + size();
+  }
+
+  /**
+   * The key of a cached path, the algorithm is compared by identity, as every instance can run on a different grid.
+   */
+  private static final class Key {
+
+    private final Pathfinding algorithm; //The algorithm which calculated the path.
+    private final double bound; //The suboptimality bound of the algorithm when the path was calculated.
+    private final int start; //The index of the start node.
+    private final int destination; //The index of the destination node.
+
+    Key(Pathfinding algorithm, double bound, int start, int destination){
+      this.algorithm = algorithm;
+      this.bound = bound;
+      this.start = start;
+      this.destination = destination;
+    }
+
+    @Override
+    public boolean equals(Object other){
+      if (!(other instanceof Key)) {
+        return false;
+      }
+
+      Key key = (Key) other;
+      return algorithm == key.algorithm && Double.compare(bound, key.bound) == 0 && start == key.start && destination == key.destination;
+    }
+
+    @Override
+    public int hashCode(){
+      return ((System.identityHashCode(algorithm) * 31 + Double.hashCode(bound)) * 31 + start) * 31 + destination;
+    }
+  }
+
+  /**
+   * A cached path together with the version of the grid it was calculated on.
+   */
+  private static final class CachedPath {
+
+    private final Path path; //The cached path.
+    private final long version; //The version of the grid when the search started.
+
+    CachedPath(Path path, long version){
+      this.path = path;
+      this.version = version;
+    }
+  }
+}
@@ -1,11 +1,17 @@
 package com.pathfinding.common;
 
+import java.util.Arrays;
+
 /**
  *
  */
 public abstract class Pathfinding {
 
-  protected Board boardHandler; //The Board on which the algorithm searches the path.
+  protected Board boardHandler; //The Board on which the algorithm searches the path, null if the algorithm runs on another grid.
+  protected GridGraph graph; //The grid on which the algorithm searches the path.
+  private final ThreadLocal<SearchContext> contexts = ThreadLocal.withInitial(SearchContext::new); //The search context of each thread for getPath().
+  private volatile SearchLimits limits = SearchLimits.NONE; //The limits of every query.
+  private volatile ConnectedComponents components; //The components which reject the queries without a path, null to search every query.
 
   /**
    * Sets the reference Board to ensure that the functions can work properly.
@@ -13,13 +19,317 @@ public abstract class Pathfinding {
    */
   public Pathfinding(Board boardHandler) {
     this.boardHandler = boardHandler;
+    this.graph = boardHandler;
+  }
+
+  /**
+   * Sets the reference grid, for example a {@link CompactBoard}.
+   * Only {@link #getPath(int, int, SearchContext)} can be used, as the starting and destination nodes are stored by the Board.
+   * @param graph The grid on which the path is calculated.
+   */
+  public Pathfinding(GridGraph graph) {
+    this.graph = graph;
+  }
+
+  /**
+   * Return the path calculated by the pathfinding algorithm between the starting and the destination node of the Board.
+   * The search state is kept in a context owned by the calling thread.
+   * @return The Path created by the algorithm.
+   * {@link #getPath(int, int, SearchContext)}
+   */
+  public Path getPath(){
+    return getPath(boardHandler.getIndex(boardHandler.getStartingNode()), boardHandler.getIndex(boardHandler.getDestinationNode()), contexts.get());
   }
 
   /**
-   * Return the path calculated by the pathfinding algorithm.
+   * Return the path calculated by the pathfinding algorithm between two nodes.
+   * The grid is only read, so any number of queries can run at the same time as long as each one uses its own context.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the state of the query.
    * @return The Path created by the algorithm.
    */
-  public abstract Path getPath();
+  public Path getPath(int start, int destination, SearchContext context){
+    context.begin(usesNodeState() ? graph.getNodeCount() : 0);
+    context.startLimits(limits);
+
+    if (!PathfindingMetrics.isEnabled()) {
+      return runSearch(start, destination, context);
+    }
+
+    //The queue counters only grow, so the counts of the query are the differences.
+    long pushes = context.getPushCount();
+    long pops = context.getPollCount();
+    context.resetPeakOpenSize();
+    long startTime = System.nanoTime();
+
+    Path path = runSearch(start, destination, context);
+
+    long latency = System.nanoTime() - startTime;
+    PathfindingMetrics.record(new SearchStatistics(getClass().getSimpleName(), path.getClosedCount(), context.getPushCount() - pushes,
+        context.getPollCount() - pops, context.getPeakOpenSize(), latency, path.getStepCount(), path.getCost(), path.isComplete()));
+
+    return path;
+  }
+
+  /**
+   * Runs the search, and returns the partial path if it reaches a limit.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the state of the query.
+   * @return The Path created by the algorithm.
+   */
+  private Path runSearch(int start, int destination, SearchContext context){
+    try {
+      Path path = isReachable(start, destination) ? search(start, destination, context) : new Path(graph, new int[0], new int[0]);
+      path.setSuboptimalityBound(getSuboptimalityBound());
+      return path;
+    } catch (SearchLimitException e) {
+      return buildPartialPath(destination, context);
+    }
+  }
+
+  /**
+   * Checks if the algorithm keeps the state of the nodes in the search context.
+   * The arrays of the context grow with the board, so an algorithm which keeps its own state, sized by the path, leaves them unallocated.
+   * @return True by default, false if the context is only used to count the expansions against the limits.
+   */
+  protected boolean usesNodeState(){
+    return true;
+  }
+
+  /**
+   * Returns the bound which the completed paths of the algorithm are guaranteed to keep.
+   * The total cost of such a path is at most this many times the total cost of the cheapest path.
+   * @return 1 for algorithms which find one of the cheapest paths, infinity by default, when there is no guarantee.
+   * {@link Path#getSuboptimalityBound()}
+   */
+  public double getSuboptimalityBound(){
+    return Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Returns the limits of the queries.
+   * @return The limits of every query, {@link SearchLimits#NONE} by default.
+   */
+  public SearchLimits getLimits(){
+    return limits;
+  }
+
+  /**
+   * Sets the limits of the queries, which apply to every query started after this call.
+   * @param limits The limits of every query.
+   */
+  public void setLimits(SearchLimits limits){
+    this.limits = limits;
+  }
+
+  /**
+   * Returns the components which reject the queries without a path.
+   * @return The components of the grid, null if every query is searched.
+   */
+  public ConnectedComponents getComponents(){
+    return components;
+  }
+
+  /**
+   * Sets the components which reject the queries without a path, before anything is searched.
+   * A rejected query returns an empty path with no checked nodes.
+   * @param components The components of the grid of the algorithm, null to search every query.
+   */
+  public void setComponents(ConnectedComponents components){
+    if (components != null && components.getGraph() != graph) {
+      throw new IllegalArgumentException("The components belong to another grid.");
+    }
+    this.components = components;
+  }
+
+  /**
+   * Checks if the destination can be reached from the start according to the components.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @return If there may be a path, always true without components.
+   */
+  private boolean isReachable(int start, int destination){
+    ConnectedComponents current = components;
+    return current == null || current.isConnected(start, destination);
+  }
+
+  /**
+   * Starts a search which runs in slices, see {@link SearchHandle}.
+   * Supported by {@link Astar}, {@link Dijkstras} and {@link BreadthFirst}.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the state of the search until it is finished.
+   * @return The handle of the search, no node is expanded yet, and it's already UNREACHABLE if the components rejected the query.
+   * @throws UnsupportedOperationException If the algorithm can't run in slices.
+   */
+  public SearchHandle beginSearch(int start, int destination, SearchContext context){
+    context.begin(usesNodeState() ? graph.getNodeCount() : 0);
+    context.startLimits(limits);
+    SearchHandle handle = createSearch(start, destination, context);
+    handle.measured = PathfindingMetrics.isEnabled();
+
+    if (!isReachable(start, destination)) {
+      handle.measured = false;
+      handle.finish(SearchHandle.Status.UNREACHABLE, new Path(graph, new int[0], new int[0]));
+    }
+
+    return handle;
+  }
+
+  /**
+   * Starts a search which runs in slices, with its own context.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @return The handle of the search, no node is expanded yet.
+   * @throws UnsupportedOperationException If the algorithm can't run in slices.
+   * {@link #beginSearch(int, int, SearchContext)}
+   */
+  public SearchHandle beginSearch(int start, int destination){
+    return beginSearch(start, destination, new SearchContext());
+  }
+
+  /**
+   * Creates the handle of a search which runs in slices, on a freshly started context.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the state of the search.
+   * @return The handle of the search.
+   * @throws UnsupportedOperationException If the algorithm can't run in slices, which is the default.
+   */
+  protected SearchHandle createSearch(int start, int destination, SearchContext context){
+    throw new UnsupportedOperationException(this + " can't run in slices.");
+  }
+
+  /**
+   * Returns the grid on which the algorithm searches the path.
+   * @return The grid of the algorithm.
+   */
+  public GridGraph getGraph(){
+    return graph;
+  }
+
+  /**
+   * Runs the search algorithm on a freshly started context.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the state of the query.
+   * @return The Path created by the algorithm.
+   */
+  protected abstract Path search(int start, int destination, SearchContext context);
+
+  /**
+   * Backtracks the parents from the destination and creates the path.
+   * @param destination The index of the destination node, or -1 if it was not reached.
+   * @param context The search context, which holds the state of the query.
+   * @return The path from the start to the destination, empty if the destination is -1.
+   */
+  protected Path buildPath(int destination, SearchContext context){
+    return new Path(graph, backtrack(destination, context), context.getClosedNodes());
+  }
+
+  /**
+   * Creates the path of a search which was stopped by a limit.
+   * The path leads to the checked node with the lowest heuristic distance to the destination, and it's flagged as incomplete.
+   * The closed nodes of the context must have their parents set towards the start, which is true for the searches which expand single nodes.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the state of the stopped query.
+   * @return The partial path, empty if no node was checked.
+   */
+  protected Path buildPartialPath(int destination, SearchContext context){
+    int[] closed = context.getClosedNodes();
+    return new Path(graph, backtrack(getClosestNode(closed, destination), context), closed, closed.length, false);
+  }
+
+  /**
+   * Finds the node with the lowest Manhattan distance to the destination, the first one if there are more.
+   * @param nodes The indices of the nodes.
+   * @param destination The index of the destination node.
+   * @return The index of the closest node, -1 if there is no node.
+   */
+  protected int getClosestNode(int[] nodes, int destination){
+    int width = graph.getWidth();
+    int closest = -1;
+    int closestDistance = Integer.MAX_VALUE;
+
+    for (int node : nodes) {
+      int distance = Math.abs(node % width - destination % width) + Math.abs(node / width - destination / width);
+
+      if (distance < closestDistance) {
+        closest = node;
+        closestDistance = distance;
+      }
+    }
+
+    return closest;
+  }
+
+  /**
+   * Backtracks the parents from a node.
+   * @param destination The index of the last node, or -1.
+   * @param context The search context, which holds the parents.
+   * @return The steps from the last node to the node after the start, empty if the last node is -1.
+   */
+  private int[] backtrack(int destination, SearchContext context){
+    int length = 0;
+
+    for(int node = destination; node != -1 && context.getParent(node) != -1; node = context.getParent(node)){
+      length++;
+    }
+
+    int[] steps = new int[length];
+    int node = destination;
+
+    for(int i = 0; i < length; i++){
+      steps[i] = node;
+      node = context.getParent(node);
+    }
+
+    return steps;
+  }
+
+  /**
+   * Joins the two halves of a bidirectional search at the node where they met, and creates the path.
+   * The backward context holds the distance of every node to the destination, and its parents point towards the destination.
+   * @param meeting The index of the node where the halves met, or -1 if they didn't meet.
+   * @param forward The search context of the half which started from the start node.
+   * @param backward The search context of the half which started from the destination node.
+   * @return The path from the start to the destination, empty if the meeting node is -1.
+   */
+  protected Path buildPath(int meeting, SearchContext forward, SearchContext backward){
+    int forwardLength = 0;
+    int backwardLength = 0;
+
+    for(int node = meeting; node != -1 && forward.getParent(node) != -1; node = forward.getParent(node)){
+      forwardLength++;
+    }
+    for(int node = meeting; node != -1 && backward.getParent(node) != -1; node = backward.getParent(node)){
+      backwardLength++;
+    }
+
+    //The steps start with the destination, so the backward half is stored in reverse, followed by the forward half.
+    int[] steps = new int[backwardLength + forwardLength];
+    int node = meeting;
+
+    for(int i = backwardLength - 1; i >= 0; i--){
+      node = backward.getParent(node);
+      steps[i] = node;
+    }
+
+    node = meeting;
+
+    for(int i = backwardLength; i < steps.length; i++){
+      steps[i] = node;
+      node = forward.getParent(node);
+    }
+
+    int[] forwardClosed = forward.getClosedNodes();
+    int[] closed = Arrays.copyOf(forwardClosed, forwardClosed.length + backward.getClosedCount());
+    System.arraycopy(backward.getClosedNodes(), 0, closed, forwardClosed.length, backward.getClosedCount());
+
+    return new Path(graph, steps, closed, forwardClosed.length);
+  }
 
   /**
    * Returns the Class Name, separated by spaces after every upper case letter.
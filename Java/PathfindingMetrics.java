@@ -0,0 +1,127 @@
+package com.pathfinding.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The Main class for the search metrics of every algorithm.
+ * The metrics are disabled by default, then a query only checks a single flag, so the search loops run without any extra work.
+ * Once enabled, every query is timed and its statistics are added to the metrics of its algorithm, which are also published over JMX,
+ * and passed to every registered {@link SearchListener}.
+ */
+public final class PathfindingMetrics {
+  public static final String OBJECT_NAME_PREFIX = "com.pathfinding:type=Pathfinding,name="; //The JMX name of the metrics without the algorithm name.
+
+  private static volatile boolean enabled; //If the queries are measured.
+  private static final Map<String, AlgorithmMetrics> metrics = new ConcurrentHashMap<>(); //The metrics of every algorithm by its simple class name.
+  private static final List<SearchListener> listeners = new CopyOnWriteArrayList<>(); //The listeners called after every query.
+
+  private PathfindingMetrics(){
+  }
+
+  /**
+   * Starts measuring the queries.
+   */
+  public static void enable(){
+    enabled = true;
+  }
+
+  /**
+   * Stops measuring the queries, the collected metrics are kept.
+   */
+  public static void disable(){
+    enabled = false;
+  }
+
+  /**
+   * Checks if the queries are measured.
+   * @return If the metrics are enabled.
+   */
+  public static boolean isEnabled(){
+    return enabled;
+  }
+
+  /**
+   * Registers a listener, which is called after every measured query.
+   * @param listener The listener to add.
+   */
+  public static void addListener(SearchListener listener){
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener.
+   * @param listener The listener to remove.
+   */
+  public static void removeListener(SearchListener listener){
+    listeners.remove(listener);
+  }
+
+  /**
+   * Returns the metrics of an algorithm.
+   * @param algorithm The simple class name of the algorithm.
+   * @return The metrics of the algorithm, null if it didn't answer any measured query yet.
+   */
+  public static AlgorithmMetrics getMetrics(String algorithm){
+    return metrics.get(algorithm);
+  }
+
+  /**
+   * Returns the metrics of every algorithm which answered a measured query.
+   * @return A snapshot of the metrics.
+   */
+  public static Collection<AlgorithmMetrics> getAllMetrics(){
+    return new ArrayList<>(metrics.values());
+  }
+
+  /**
+   * Resets the metrics of every algorithm.
+   */
+  public static void reset(){
+    for (AlgorithmMetrics algorithmMetrics : metrics.values()) {
+      algorithmMetrics.reset();
+    }
+  }
+
+  /**
+   * Adds the statistics of a query to the metrics of its algorithm, then passes them to the listeners.
+   * @param statistics The statistics of the query.
+   */
+  static void record(SearchStatistics statistics){
+    metrics.computeIfAbsent(statistics.getAlgorithm(), PathfindingMetrics::register).record(statistics);
+
+    for (SearchListener listener : listeners) {
+      listener.searchCompleted(statistics);
+    }
+  }
+
+  /**
+   * Creates the metrics of an algorithm and publishes them over JMX.
+   * @param algorithm The simple class name of the algorithm.
+   * @return The new metrics.
+   */
+  private static AlgorithmMetrics register(String algorithm){
+    AlgorithmMetrics algorithmMetrics = new AlgorithmMetrics(algorithm);
+
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME_PREFIX + algorithm);
+
+      if (!server.isRegistered(name)) {
+        server.registerMBean(algorithmMetrics, name);
+      }
+    } catch (JMException | SecurityException e) {
+      //The metrics still work without JMX, they just can't be read remotely.
+    }
+
+    return algorithmMetrics;
+  }
+}
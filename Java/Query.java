@@ -0,0 +1,61 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for a route query, which pairs a start and a destination with the algorithm that answers it.
+ */
+public class Query {
+
+  private final int start; //The index of the start node.
+  private final int destination; //The index of the destination node.
+  private final Pathfinding algorithm; //The algorithm which calculates the path.
+
+  /**
+   * Creates a query between two nodes.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @param algorithm The algorithm which calculates the path, it also determines the grid of the query.
+   */
+  public Query(int start, int destination, Pathfinding algorithm){
+    this.start = start;
+    this.destination = destination;
+    this.algorithm = algorithm;
+  }
+
+  /**
+   * Calculates the path of the query.
+   * @param context The search context used by the algorithm.
+   * @return The calculated path.
+   */
+  public Path getPath(SearchContext context){
+    return algorithm.getPath(start, destination, context);
+  }
+
+  /**
+   * Returns the index of the start node.
+   * @return The index of the start node.
+   */
+  public int getStart() {
+    return start;
+  }
+
+  /**
+   * Returns the index of the destination node.
+   * @return The index of the destination node.
+   */
+  public int getDestination() {
+    return destination;
+  }
+
+  /**
+   * Returns the algorithm of the query.
+   * @return The algorithm which calculates the path.
+   */
+  public Pathfinding getAlgorithm() {
+    return algorithm;
+  }
+
+  @Override
+  public String toString(){
+    return start + " -> " + destination + " (" + algorithm + ")";
+  }
+}
@@ -0,0 +1,119 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for the space-time reservation table of cooperative pathfinding.
+ * Every reservation is a node at a time step, owned by an agent. The node and the time are packed into one long key of a {@link LongIntMap},
+ * so a reservation takes 12 bytes and only the reserved cells are stored, however large the board or the time range is.
+ * The table is not thread safe.
+ */
+public class ReservationTable {
+  public static final int FREE = -1; //The owner of a cell which is not reserved.
+
+  private final LongIntMap reservations; //The owner agent of every reserved node and time.
+
+  /**
+   * Creates an empty table.
+   * @param expectedSize The number of reservations the table can hold without growing.
+   */
+  public ReservationTable(int expectedSize){
+    reservations = new LongIntMap(expectedSize);
+  }
+
+  /**
+   * Reserves a node at a time step for an agent.
+   * @param node The index of the node.
+   * @param time The time step, not negative.
+   * @param agent The identifier of the agent, not negative.
+   * @return If the reservation was made, false if another agent already reserved the node at that time.
+   */
+  public boolean reserve(int node, long time, int agent){
+    long key = getKey(node, time);
+    int owner = reservations.get(key, FREE);
+
+    if (owner != FREE && owner != agent) {
+      return false;
+    }
+
+    reservations.put(key, agent);
+    return true;
+  }
+
+  /**
+   * Returns the agent which reserved a node at a time step.
+   * @param node The index of the node.
+   * @param time The time step.
+   * @return The identifier of the agent, or {@link #FREE}.
+   */
+  public int getAgent(int node, long time){
+    return reservations.get(getKey(node, time), FREE);
+  }
+
+  /**
+   * Checks if an agent can occupy a node at a time step.
+   * @param node The index of the node.
+   * @param time The time step.
+   * @param agent The identifier of the agent.
+   * @return If the node is not reserved at that time, or it's reserved by the agent.
+   */
+  public boolean isFree(int node, long time, int agent){
+    int owner = reservations.get(getKey(node, time), FREE);
+    return owner == FREE || owner == agent;
+  }
+
+  /**
+   * Checks if an agent can move between two neighbouring nodes during a time step.
+   * Besides the target node being free, the move must not swap places with another agent, as the agents would pass through each other.
+   * @param from The index of the node where the move starts.
+   * @param to The index of the node where the move ends.
+   * @param time The time step when the move starts.
+   * @param agent The identifier of the agent.
+   * @return If the move doesn't collide with any reservation.
+   */
+  public boolean canMove(int from, int to, long time, int agent){
+    if (!isFree(to, time + 1, agent)) {
+      return false;
+    }
+
+    if (from == to) {
+      return true;
+    }
+
+    int other = getAgent(to, time);
+    return other == FREE || other == agent || getAgent(from, time + 1) != other;
+  }
+
+  /**
+   * Removes the reservation of a node at a time step.
+   * @param node The index of the node.
+   * @param time The time step.
+   * @return If the node was reserved at that time.
+   */
+  public boolean release(int node, long time){
+    return reservations.remove(getKey(node, time));
+  }
+
+  /**
+   * Removes every reservation.
+   */
+  public void clear(){
+    reservations.clear();
+  }
+
+  /**
+   * Returns the number of reservations.
+   * @return The size of the table.
+   */
+  public int size(){
+    return reservations.size();
+  }
+
+  /**
+   * Packs a node and a time step into a key, the time in the high 32 bits and the node in the low ones.
+   * @param node The index of the node.
+   * @param time The time step.
+   * @return The key of the reservation.
+   */
+  private static long getKey(int node, long time){
+    return time << 32 | (node & 0xFFFFFFFFL);
+  }
+}
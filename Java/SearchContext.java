@@ -0,0 +1,408 @@
+package com.pathfinding.common;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Main class for the per-query search state.
+ * Holds the distance and the parent of every node in primitive arrays addressed by the node index, together with the open node lists.
+ * A node's state is only valid if its stamp belongs to the current generation, so starting a new query is O(1) instead of clearing the arrays.
+ * A context is not thread safe, every thread should use its own one, which can be reused for any number of queries.
+ */
+public class SearchContext {
+  private int[] stamps = new int[0]; //Generation stamp of every node, equal to the generation if reached, one more if closed.
+  private int[] distances = new int[0]; //The distance of every reached node from the start.
+  private int[] parents = new int[0]; //The parent of every reached node, used for backtracking the path.
+  private int generation; //The generation of the current query, always an even number.
+
+  private int[] closedNodes = new int[16]; //The closed nodes in the order they were closed.
+  private int closedCount; //The number of closed nodes.
+
+  private final IndexedHeap heap = new IndexedHeap(0); //Open node list for best first searches.
+  private IndexedHeap[] extraHeaps = new IndexedHeap[0]; //The further heaps of searches with more open node lists, created on first use.
+  private final BucketQueue bucketQueue = new BucketQueue(16); //Open node list for searches with small integer step costs.
+  private final NodeQueue queue = new NodeQueue(); //Open node list for breadth and depth first searches.
+  private static final int CLAIM_KEY_BITS = 34; //The number of low bits of a claim, which hold the key.
+
+  private AtomicLongArray claims = new AtomicLongArray(0); //The claim of every node in parallel searches, the round stamp followed by the key.
+  private long claimRound; //The current claim round.
+
+  private SearchContext reverseContext; //The state of the backward side of bidirectional searches, created on first use.
+  private final SearchContext owner; //The context which counts the expansions against the limits, itself or the owner of a reverse context.
+
+  private static final int LIMIT_CHECK_INTERVAL = 64; //The number of expansions between two checks of the limits.
+  private SearchLimits limits = SearchLimits.NONE; //The limits of the current query.
+  private long expansions; //The number of expansions since the limits were started, the reverse context included.
+  private long nextLimitCheck = Long.MAX_VALUE; //The number of expansions at which the limits are checked next.
+  private long limitStartTime; //The time when the limits were started.
+
+  public SearchContext(){
+    owner = this;
+  }
+
+  /**
+   * Creates the reverse context of a context, which counts its expansions against the limits of its owner.
+   * @param owner The context which owns the reverse context.
+   */
+  private SearchContext(SearchContext owner){
+    this.owner = owner;
+  }
+
+  /**
+   * Prepares the context for a new query.
+   * The arrays are only reallocated if the node count is higher than ever before.
+   * @param nodeCount The number of nodes on the board.
+   */
+  public void begin(int nodeCount){
+    if(nodeCount > stamps.length){
+      stamps = new int[nodeCount];
+      distances = new int[nodeCount];
+      parents = new int[nodeCount];
+      heap.ensureCapacity(nodeCount);
+      for(IndexedHeap extraHeap : extraHeaps){
+        extraHeap.ensureCapacity(nodeCount);
+      }
+      generation = 0;
+    }
+
+    //After about a billion queries the stamps would overflow, in that case they are cleared once.
+    if(generation >= Integer.MAX_VALUE - 2){
+      Arrays.fill(stamps, 0);
+      generation = 0;
+    }
+
+    generation += 2;
+    closedCount = 0;
+    clearOpenLists();
+
+    //The open lists of the reverse context are only cleared when a bidirectional search begins it, so they are cleared here too.
+    if(reverseContext != null){
+      reverseContext.clearOpenLists();
+    }
+  }
+
+  /**
+   * Starts counting a query against its limits.
+   * Once a limit is reached, the next expansion throws a {@link SearchLimitException}.
+   * @param limits The limits of the query.
+   */
+  public void startLimits(SearchLimits limits){
+    this.limits = limits;
+    expansions = 0;
+
+    if(limits.isUnlimited()){
+      nextLimitCheck = Long.MAX_VALUE;
+    }
+    else {
+      limitStartTime = System.nanoTime();
+      nextLimitCheck = Math.min(LIMIT_CHECK_INTERVAL, limits.getMaxExpansions() + 1L);
+    }
+  }
+
+  /**
+   * Counts an expansion against the limits, for searches which don't close their nodes in the context.
+   * @throws SearchLimitException If a limit is reached.
+   */
+  public void countExpansion(){
+    SearchContext counter = owner;
+
+    if(++counter.expansions >= counter.nextLimitCheck){
+      counter.checkLimits();
+    }
+  }
+
+  /**
+   * Checks the limits, then sets the number of expansions at which they are checked next.
+   * @throws SearchLimitException If a limit is reached.
+   */
+  private void checkLimits(){
+    if(expansions > limits.getMaxExpansions()){
+      throw new SearchLimitException(SearchLimitException.Limit.EXPANSIONS);
+    }
+    if(getOpenSize() > limits.getMaxOpenSize()){
+      throw new SearchLimitException(SearchLimitException.Limit.OPEN_SIZE);
+    }
+    if(System.nanoTime() - limitStartTime > limits.getMaxNanos()){
+      throw new SearchLimitException(SearchLimitException.Limit.TIME);
+    }
+
+    nextLimitCheck = Math.min(expansions + LIMIT_CHECK_INTERVAL, limits.getMaxExpansions() + 1L);
+  }
+
+  /**
+   * Returns the number of entries in the open node lists, the reverse context included.
+   * @return The size of the open node lists.
+   */
+  public int getOpenSize(){
+    int size = heap.size() + bucketQueue.size() + queue.size();
+    for(IndexedHeap extraHeap : extraHeaps){
+      size += extraHeap.size();
+    }
+    return reverseContext == null ? size : size + reverseContext.getOpenSize();
+  }
+
+  /**
+   * Removes every node from the open node lists.
+   */
+  private void clearOpenLists(){
+    heap.clear();
+    bucketQueue.clear();
+    queue.clear();
+
+    for(IndexedHeap extraHeap : extraHeaps){
+      extraHeap.clear();
+    }
+  }
+
+  /**
+   * Marks the node as reached in the current query and sets its distance and parent.
+   * @param node The index of the node.
+   * @param distance The distance of the node from the start.
+   * @param parent The index of the parent node, -1 for the start.
+   */
+  public void reach(int node, int distance, int parent){
+    stamps[node] = generation;
+    distances[node] = distance;
+    parents[node] = parent;
+  }
+
+  /**
+   * Checks if the node was reached in the current query.
+   * @param node The index of the node.
+   * @return If the node is open or closed.
+   */
+  public boolean isReached(int node){
+    return stamps[node] >= generation;
+  }
+
+  /**
+   * Marks a reached node as closed and appends it to the closed node list.
+   * The expansion is counted against the limits first, so a search which reached a limit doesn't close the node.
+   * @param node The index of the node.
+   * @throws SearchLimitException If a limit is reached.
+   */
+  public void close(int node){
+    countExpansion();
+    stamps[node] = generation + 1;
+
+    if(closedCount == closedNodes.length){
+      closedNodes = Arrays.copyOf(closedNodes, closedCount * 2);
+    }
+    closedNodes[closedCount++] = node;
+  }
+
+  /**
+   * Checks if the node was closed in the current query.
+   * @param node The index of the node.
+   * @return If the node is closed.
+   */
+  public boolean isClosed(int node){
+    return stamps[node] == generation + 1;
+  }
+
+  /**
+   * Returns the distance of a reached node.
+   * @param node The index of the node.
+   * @return The distance of the node from the start.
+   */
+  public int getDistance(int node){
+    return distances[node];
+  }
+
+  /**
+   * Sets the distance of a reached node.
+   * @param node The index of the node.
+   * @param distance The distance of the node from the start.
+   */
+  public void setDistance(int node, int distance){
+    distances[node] = distance;
+  }
+
+  /**
+   * Returns the parent of a reached node.
+   * @param node The index of the node.
+   * @return The index of the parent node, -1 for the start.
+   */
+  public int getParent(int node){
+    return parents[node];
+  }
+
+  /**
+   * Sets the parent of a reached node.
+   * @param node The index of the node.
+   * @param parent The index of the parent node.
+   */
+  public void setParent(int node, int parent){
+    parents[node] = parent;
+  }
+
+  /**
+   * Returns a copy of the closed nodes in the order they were closed.
+   * @return The indices of the closed nodes.
+   */
+  public int[] getClosedNodes(){
+    return Arrays.copyOf(closedNodes, closedCount);
+  }
+
+  /**
+   * Returns the number of closed nodes in the current query.
+   * @return The number of closed nodes.
+   */
+  public int getClosedCount(){
+    return closedCount;
+  }
+
+  /**
+   * Returns the indexed heap, which is empty at the start of every query.
+   * @return The heap of the context.
+   */
+  public IndexedHeap getHeap(){
+    return heap;
+  }
+
+  /**
+   * Returns one of the indexed heaps, for searches which keep the open nodes in more than one order.
+   * Every heap is empty at the start of every query, and it can hold every node index of the board.
+   * @param number The number of the heap, 0 is the heap returned by {@link #getHeap()}.
+   * @return The heap of the context with the given number.
+   */
+  public IndexedHeap getHeap(int number){
+    if(number == 0){
+      return heap;
+    }
+
+    if(number > extraHeaps.length){
+      int oldLength = extraHeaps.length;
+      extraHeaps = Arrays.copyOf(extraHeaps, number);
+
+      for(int i = oldLength; i < number; i++){
+        extraHeaps[i] = new IndexedHeap(stamps.length);
+      }
+    }
+
+    return extraHeaps[number - 1];
+  }
+
+  /**
+   * Returns the bucket queue, which is empty at the start of every query.
+   * @return The bucket queue of the context.
+   */
+  public BucketQueue getBucketQueue(){
+    return bucketQueue;
+  }
+
+  /**
+   * Returns the node queue, which is empty at the start of every query.
+   * @return The node queue of the context.
+   */
+  public NodeQueue getQueue(){
+    return queue;
+  }
+
+  /**
+   * Returns the number of nodes added to the open node lists since the context was created, the reverse context included.
+   * @return The number of pushes.
+   */
+  public long getPushCount(){
+    long count = heap.getPushCount() + bucketQueue.getPushCount() + queue.getPushCount();
+    for(IndexedHeap extraHeap : extraHeaps){
+      count += extraHeap.getPushCount();
+    }
+    return reverseContext == null ? count : count + reverseContext.getPushCount();
+  }
+
+  /**
+   * Returns the number of nodes removed from the open node lists since the context was created, the reverse context included.
+   * @return The number of pops.
+   */
+  public long getPollCount(){
+    long count = heap.getPollCount() + bucketQueue.getPollCount() + queue.getPollCount();
+    for(IndexedHeap extraHeap : extraHeaps){
+      count += extraHeap.getPollCount();
+    }
+    return reverseContext == null ? count : count + reverseContext.getPollCount();
+  }
+
+  /**
+   * Returns the highest size of any open node list since the last reset of the peak.
+   * @return The peak size of the open node lists.
+   */
+  public int getPeakOpenSize(){
+    int peak = Math.max(heap.getPeakSize(), Math.max(bucketQueue.getPeakSize(), queue.getPeakSize()));
+    for(IndexedHeap extraHeap : extraHeaps){
+      peak = Math.max(peak, extraHeap.getPeakSize());
+    }
+    return reverseContext == null ? peak : Math.max(peak, reverseContext.getPeakOpenSize());
+  }
+
+  /**
+   * Resets the peak size of the open node lists, so the peak of the next query can be measured.
+   */
+  public void resetPeakOpenSize(){
+    heap.resetPeakSize();
+    bucketQueue.resetPeakSize();
+    queue.resetPeakSize();
+    for(IndexedHeap extraHeap : extraHeaps){
+      extraHeap.resetPeakSize();
+    }
+
+    if(reverseContext != null){
+      reverseContext.resetPeakOpenSize();
+    }
+  }
+
+  /**
+   * Returns a second context for the backward side of a bidirectional search.
+   * It is owned by this context, but it has to be started separately with {@link #begin(int)}.
+   * @return The reverse context.
+   */
+  public SearchContext getReverseContext(){
+    if(reverseContext == null){
+      reverseContext = new SearchContext(this);
+    }
+
+    return reverseContext;
+  }
+
+  /**
+   * Starts a new round of claims for a parallel search.
+   * Within a round every node ends up with the lowest claim offered for it, claims of earlier rounds are ignored.
+   * @param nodeCount The number of nodes on the board.
+   * @return The stamp of the round, the claims of the round are the stamp plus a key below 2^34.
+   */
+  public long beginClaims(int nodeCount){
+    if(nodeCount > claims.length() || claimRound == (1L << (63 - CLAIM_KEY_BITS)) - 1){
+      claims = new AtomicLongArray(nodeCount);
+      claimRound = 0;
+    }
+
+    claimRound++;
+    return claimRound << CLAIM_KEY_BITS;
+  }
+
+  /**
+   * Offers a claim for a node, which is kept if it's lower than the current claim of the round.
+   * Safe to call from multiple threads at the same time.
+   * @param node The index of the node.
+   * @param claim The stamp of the current round plus the key of the claim.
+   */
+  public void claim(int node, long claim){
+    long current = claims.get(node);
+
+    while(current >> CLAIM_KEY_BITS != claim >> CLAIM_KEY_BITS || claim < current){
+      if(claims.compareAndSet(node, current, claim)){
+        return;
+      }
+      current = claims.get(node);
+    }
+  }
+
+  /**
+   * Returns the claim of a node.
+   * @param node The index of the node.
+   * @return The lowest claim of the node, which belongs to an earlier round if the node was not claimed in the current one.
+   */
+  public long getClaim(int node){
+    return claims.get(node);
+  }
+}
@@ -0,0 +1,184 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for a search which runs in slices.
+ * Every call of {@link #step(int)} or {@link #stepUntil(long)} expands a limited number of nodes, then returns, and the next call continues where the last one stopped.
+ * This way a scheduler can run many searches next to each other within a fixed time budget per frame, without blocking a thread for a whole search.
+ * The search keeps its state in its context, so the context can't be used for other queries until the search is finished,
+ * and the grid must not change while the search is in progress.
+ * {@link Pathfinding#beginSearch(int, int, SearchContext)}
+ */
+public abstract class SearchHandle {
+
+  /**
+   * The states of a search.
+   */
+  public enum Status {
+    IN_PROGRESS, FOUND, UNREACHABLE, LIMIT_REACHED
+  }
+
+  private static final int DEADLINE_CHECK_INTERVAL = 64; //The number of expansions between two checks of the clock.
+
+  protected final SearchContext context; //The search context, which holds the state of the search.
+  protected final int destination; //The index of the destination node.
+  private final Pathfinding algorithm; //The algorithm which runs the search.
+  private Status status = Status.IN_PROGRESS; //The state of the search.
+  private Path path; //The result of the search, null while the search is in progress.
+
+  boolean measured; //If the finished search is added to the metrics.
+  private final long pushes; //The push count of the context when the search started.
+  private final long pops; //The pop count of the context when the search started.
+  private long busyNanos; //The time spent in the slices of the search.
+
+  /**
+   * Sets the algorithm and the context of the search.
+   * The context has to be started already, and the subclass queues the start node after this constructor.
+   * @param algorithm The algorithm which runs the search.
+   * @param destination The index of the destination node.
+   * @param context The search context, which holds the state of the search.
+   */
+  protected SearchHandle(Pathfinding algorithm, int destination, SearchContext context){
+    this.algorithm = algorithm;
+    this.destination = destination;
+    this.context = context;
+
+    pushes = context.getPushCount();
+    pops = context.getPollCount();
+    context.resetPeakOpenSize();
+  }
+
+  /**
+   * Continues the search until it is finished, or the given number of nodes is expanded.
+   * @param maxExpansions The highest number of nodes to expand in this slice.
+   * @return The state of the search after the slice.
+   */
+  public Status step(int maxExpansions){
+    if (status != Status.IN_PROGRESS || maxExpansions <= 0) {
+      return status;
+    }
+
+    long startTime = measured ? System.nanoTime() : 0;
+    runSlice(maxExpansions);
+    endSlice(startTime);
+
+    return status;
+  }
+
+  /**
+   * Continues the search until it is finished, or the deadline is passed.
+   * The clock is checked after every few expansions, so the deadline can be passed by the time of these expansions.
+   * @param deadline The end of the slice, as a value of {@link System#nanoTime()}.
+   * @return The state of the search after the slice.
+   */
+  public Status stepUntil(long deadline){
+    long startTime = measured ? System.nanoTime() : 0;
+
+    while (status == Status.IN_PROGRESS && System.nanoTime() - deadline < 0) {
+      runSlice(DEADLINE_CHECK_INTERVAL);
+    }
+
+    endSlice(startTime);
+
+    return status;
+  }
+
+  /**
+   * Runs the search until it is finished.
+   * @return The calculated path.
+   */
+  public Path complete(){
+    while (status == Status.IN_PROGRESS) {
+      step(Integer.MAX_VALUE);
+    }
+
+    return path;
+  }
+
+  /**
+   * Returns the state of the search.
+   * @return The status of the search.
+   */
+  public Status getStatus(){
+    return status;
+  }
+
+  /**
+   * Checks if the search is finished.
+   * @return If the path was found, the destination turned out to be unreachable, or the search reached a limit.
+   */
+  public boolean isDone(){
+    return status != Status.IN_PROGRESS;
+  }
+
+  /**
+   * Returns the number of nodes expanded so far.
+   * @return The number of closed nodes.
+   */
+  public int getExpansions(){
+    return context.getClosedCount();
+  }
+
+  /**
+   * Returns the result of the finished search.
+   * @return The calculated path, which is empty if the destination is unreachable, and incomplete if the search reached a limit.
+   * @throws IllegalStateException If the search is still in progress.
+   */
+  public Path getPath(){
+    if (path == null) {
+      throw new IllegalStateException("The search is still in progress.");
+    }
+
+    return path;
+  }
+
+  /**
+   * Expands at most the given number of nodes, and calls {@link #finish(Status, Path)} if the search ends.
+   * @param maxExpansions The highest number of nodes to expand, always positive.
+   */
+  protected abstract void advance(int maxExpansions);
+
+  /**
+   * Ends the search with its result.
+   * @param status The final state of the search, either FOUND or UNREACHABLE.
+   * @param path The calculated path.
+   */
+  protected void finish(Status status, Path path){
+    if (status == Status.FOUND || status == Status.UNREACHABLE) {
+      path.setSuboptimalityBound(algorithm.getSuboptimalityBound());
+    }
+
+    this.status = status;
+    this.path = path;
+  }
+
+  /**
+   * Expands at most the given number of nodes, and ends the search with the partial path if it reaches a limit.
+   * The time limit counts from the start of the search, so the time between the slices counts too.
+   * @param maxExpansions The highest number of nodes to expand.
+   */
+  private void runSlice(int maxExpansions){
+    try {
+      advance(maxExpansions);
+    } catch (SearchLimitException e) {
+      finish(Status.LIMIT_REACHED, algorithm.buildPartialPath(destination, context));
+    }
+  }
+
+  /**
+   * Adds the time of a slice to the search time, and adds the finished search to the metrics.
+   * @param startTime The start of the slice, only used if the search is measured.
+   */
+  private void endSlice(long startTime){
+    if (!measured) {
+      return;
+    }
+
+    busyNanos += System.nanoTime() - startTime;
+
+    if (status != Status.IN_PROGRESS) {
+      measured = false;
+      PathfindingMetrics.record(new SearchStatistics(algorithm.getClass().getSimpleName(), path.getClosedCount(), context.getPushCount() - pushes,
+          context.getPollCount() - pops, context.getPeakOpenSize(), busyNanos, path.getStepCount(), path.getCost(), path.isComplete()));
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for the signal of a search which reached one of its {@link SearchLimits}.
+ * It is thrown by the {@link SearchContext} in the middle of a search, and caught by {@link Pathfinding}, which returns the partial path instead.
+ * It's thrown at most once per query, so it doesn't record a stack trace.
+ */
+public class SearchLimitException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The limits which can stop a search.
+   */
+  public enum Limit {
+    EXPANSIONS, OPEN_SIZE, TIME
+  }
+
+  private final Limit limit; //The limit which was reached.
+
+  /**
+   * Creates the signal of a reached limit.
+   * @param limit The limit which was reached.
+   */
+  SearchLimitException(Limit limit){
+    super("The search reached its " + limit + " limit.", null, false, false);
+    this.limit = limit;
+  }
+
+  /**
+   * Returns the limit which stopped the search.
+   * @return The reached limit.
+   */
+  public Limit getLimit() {
+    return limit;
+  }
+}
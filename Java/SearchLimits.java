@@ -0,0 +1,71 @@
+package com.pathfinding.common;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Main class for the limits of a single query.
+ * A search which reaches a limit is stopped, and it returns a partial path to the checked node closest to the destination, flagged as incomplete.
+ * This way a far away or unreachable destination can't keep a worker busy until every reachable node is checked.
+ * {@link Pathfinding#setLimits(SearchLimits)}
+ */
+public class SearchLimits {
+  public static final SearchLimits NONE = new SearchLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE, TimeUnit.NANOSECONDS); //No limit at all.
+
+  private final int maxExpansions; //The highest number of nodes a query can check.
+  private final int maxOpenSize; //The highest number of entries in the open node lists.
+  private final long maxNanos; //The highest wall clock time of a query in nanoseconds.
+
+  /**
+   * Sets all the limits, Integer.MAX_VALUE and Long.MAX_VALUE mean no limit.
+   * @param maxExpansions The highest number of nodes a query can check.
+   * @param maxOpenSize The highest number of entries in the open node lists, the part of the search memory which grows with the query.
+   * @param maxTime The highest wall clock time of a query.
+   * @param unit The unit of the time.
+   */
+  public SearchLimits(int maxExpansions, int maxOpenSize, long maxTime, TimeUnit unit){
+    if (maxExpansions < 0 || maxOpenSize < 0 || maxTime < 0) {
+      throw new IllegalArgumentException("The limits can't be negative.");
+    }
+
+    this.maxExpansions = maxExpansions;
+    this.maxOpenSize = maxOpenSize;
+    this.maxNanos = unit.toNanos(maxTime);
+  }
+
+  /**
+   * Returns the highest number of nodes a query can check.
+   * @return The expansion limit.
+   */
+  public int getMaxExpansions() {
+    return maxExpansions;
+  }
+
+  /**
+   * Returns the highest number of entries in the open node lists.
+   * @return The open list size limit.
+   */
+  public int getMaxOpenSize() {
+    return maxOpenSize;
+  }
+
+  /**
+   * Returns the highest wall clock time of a query.
+   * @return The time limit in nanoseconds.
+   */
+  public long getMaxNanos() {
+    return maxNanos;
+  }
+
+  /**
+   * Checks if any limit is set.
+   * @return If every limit is at its highest value.
+   */
+  public boolean isUnlimited() {
+    return maxExpansions == Integer.MAX_VALUE && maxOpenSize == Integer.MAX_VALUE && maxNanos == Long.MAX_VALUE;
+  }
+
+  @Override
+  public String toString(){
+    return "max expansions: " + maxExpansions + ", max open size: " + maxOpenSize + ", max time: " + maxNanos + " ns";
+  }
+}
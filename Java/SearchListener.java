@@ -0,0 +1,15 @@
+package com.pathfinding.common;
+
+/**
+ * The Main interface for receiving the statistics of every query while the metrics are enabled.
+ * The listeners are called on the thread which ran the query, so they should return quickly.
+ * {@link PathfindingMetrics#addListener(SearchListener)}
+ */
+public interface SearchListener {
+
+  /**
+   * Called after a query is answered.
+   * @param statistics The statistics of the query.
+   */
+  void searchCompleted(SearchStatistics statistics);
+}
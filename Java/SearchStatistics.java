@@ -0,0 +1,118 @@
+package com.pathfinding.common;
+
+/**
+ * The Main class for the statistics of a single query, which are passed to the {@link SearchListener} instances.
+ */
+public class SearchStatistics {
+
+  private final String algorithm; //The name of the algorithm which answered the query.
+  private final int expansions; //The number of nodes checked by the algorithm.
+  private final long pushes; //The number of nodes added to the open node lists.
+  private final long pops; //The number of nodes removed from the open node lists.
+  private final int peakOpenSize; //The highest size of the open node lists.
+  private final long latencyNanos; //The wall clock time of the query.
+  private final int steps; //The number of steps of the path, zero if no path was found.
+  private final int cost; //The total extra cost of the steps.
+  private final boolean complete; //If the search finished, false if it was stopped by a limit.
+
+  /**
+   * Sets all the values of the statistics.
+   * @param algorithm The name of the algorithm which answered the query.
+   * @param expansions The number of nodes checked by the algorithm.
+   * @param pushes The number of nodes added to the open node lists.
+   * @param pops The number of nodes removed from the open node lists.
+   * @param peakOpenSize The highest size of the open node lists.
+   * @param latencyNanos The wall clock time of the query in nanoseconds.
+   * @param steps The number of steps of the path.
+   * @param cost The total extra cost of the steps.
+   * @param complete If the search finished, false if it was stopped by a limit.
+   */
+  public SearchStatistics(String algorithm, int expansions, long pushes, long pops, int peakOpenSize, long latencyNanos, int steps, int cost, boolean complete){
+    this.algorithm = algorithm;
+    this.expansions = expansions;
+    this.pushes = pushes;
+    this.pops = pops;
+    this.peakOpenSize = peakOpenSize;
+    this.latencyNanos = latencyNanos;
+    this.steps = steps;
+    this.cost = cost;
+    this.complete = complete;
+  }
+
+  /**
+   * Returns the name of the algorithm which answered the query.
+   * @return The simple class name of the algorithm.
+   */
+  public String getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * Returns the number of nodes checked by the algorithm.
+   * @return The number of expanded nodes.
+   */
+  public int getExpansions() {
+    return expansions;
+  }
+
+  /**
+   * Returns the number of nodes added to the open node lists, outdated entries included.
+   * @return The number of pushes.
+   */
+  public long getPushes() {
+    return pushes;
+  }
+
+  /**
+   * Returns the number of nodes removed from the open node lists, outdated entries included.
+   * @return The number of pops.
+   */
+  public long getPops() {
+    return pops;
+  }
+
+  /**
+   * Returns the highest size of the open node lists during the query.
+   * @return The peak open list size.
+   */
+  public int getPeakOpenSize() {
+    return peakOpenSize;
+  }
+
+  /**
+   * Returns the wall clock time of the query.
+   * @return The latency in nanoseconds.
+   */
+  public long getLatencyNanos() {
+    return latencyNanos;
+  }
+
+  /**
+   * Returns the number of steps of the path.
+   * @return The number of steps, zero if no path was found.
+   */
+  public int getSteps() {
+    return steps;
+  }
+
+  /**
+   * Returns the total extra cost of the steps.
+   * @return The cost of the path.
+   */
+  public int getCost() {
+    return cost;
+  }
+
+  /**
+   * Checks if the search finished.
+   * @return If the path is complete, false if the search was stopped by a limit.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  @Override
+  public String toString(){
+    return algorithm + ": " + expansions + " expansions, " + pushes + " pushes, " + pops + " pops, peak open size " + peakOpenSize + ", " + latencyNanos / 1000 + " us" + (complete ? "" : ", stopped by a limit");
+  }
+}
@@ -0,0 +1,52 @@
+package com.pathfinding.benchmarks;
+
+import com.pathfinding.common.BoardGenerator;
+import com.pathfinding.common.CompactBoard;
+
+import java.util.Random;
+
+/**
+ * The Main class for creating reproducible boards and queries for the benchmarks.
+ */
+public final class BenchmarkBoards {
+
+  private BenchmarkBoards(){
+  }
+
+  /**
+   * Creates a square board surrounded by walls, filled with seeded random walls and costs by a {@link BoardGenerator}.
+   * @param size The width and height of the board.
+   * @param wallDensity The chance of an inner cell to be a wall, in percent.
+   * @param seed The seed of the Random Number Generator.
+   * @return The generated board.
+   */
+  public static CompactBoard createBoard(int size, int wallDensity, long seed){
+    CompactBoard board = new CompactBoard(size, size);
+    BoardGenerator generator = new BoardGenerator(seed);
+
+    generator.setWallDensity(wallDensity / 100.0);
+    generator.generate(board);
+
+    return board;
+  }
+
+  /**
+   * Picks random pairs of walkable cells.
+   * @param board The board of the queries.
+   * @param count The number of queries.
+   * @param seed The seed of the Random Number Generator.
+   * @return The queries, the start of the nth query is at 2n and its destination at 2n + 1.
+   */
+  public static int[] createQueries(CompactBoard board, int count, long seed){
+    Random rng = new Random(seed);
+    int[] queries = new int[count * 2];
+
+    for (int i = 0; i < queries.length; i++) {
+      do {
+        queries[i] = rng.nextInt(board.getNodeCount());
+      } while (!board.isWalkable(queries[i]));
+    }
+
+    return queries;
+  }
+}
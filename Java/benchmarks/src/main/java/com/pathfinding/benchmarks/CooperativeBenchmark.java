@@ -0,0 +1,69 @@
+package com.pathfinding.benchmarks;
+
+import com.pathfinding.common.CompactBoard;
+import com.pathfinding.common.CooperativePathfinding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Main class for the cooperative pathfinding benchmark.
+ * Each invocation replans every agent for a full window, which is the cost of the planning ticks.
+ * The destinations are fixed, so the distance fields of the heuristic are calculated during the warmup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CooperativeBenchmark {
+
+  @Param({"256"})
+  public int size; //The width and height of the board.
+
+  @Param({"100", "500"})
+  public int agents; //The number of agents.
+
+  @Param({"8", "16", "32"})
+  public int window; //The number of time steps planned ahead.
+
+  @Param({"42"})
+  public long seed; //The seed of the board and the agents.
+
+  private CooperativePathfinding planner; //The planner of the agents.
+
+  @Setup
+  public void setUp(){
+    CompactBoard board = BenchmarkBoards.createBoard(size, 15, seed);
+    planner = new CooperativePathfinding(board, window);
+
+    //The queries give the start and the destination of every agent, the queries starting on a taken node are skipped.
+    int[] queries = BenchmarkBoards.createQueries(board, agents * 2, seed);
+    Set<Integer> taken = new HashSet<>();
+    for (int i = 0; i < agents * 2 && taken.size() < agents; i++) {
+      if (taken.add(queries[i * 2])) {
+        planner.addAgent(queries[i * 2], queries[i * 2 + 1]);
+      }
+    }
+  }
+
+  @Benchmark
+  public int plan(){
+    planner.plan();
+    return planner.getReservations().size();
+  }
+}
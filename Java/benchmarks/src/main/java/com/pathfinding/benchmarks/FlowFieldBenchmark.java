@@ -0,0 +1,84 @@
+package com.pathfinding.benchmarks;
+
+import com.pathfinding.common.Astar;
+import com.pathfinding.common.CompactBoard;
+import com.pathfinding.common.FlowField;
+import com.pathfinding.common.SearchContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Main class for the shared destination benchmark.
+ * Compares routing a group of agents to one destination with a separate Astar query per agent, and with one flow field read by every agent.
+ * Each invocation routes the whole group, so the times are per group.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FlowFieldBenchmark {
+
+  @Param({"256", "1024"})
+  public int size; //The width and height of the board.
+
+  @Param({"1", "10", "100", "1000"})
+  public int agents; //The number of agents heading to the destination.
+
+  @Param({"42"})
+  public long seed; //The seed of the board and the agents.
+
+  private CompactBoard board; //The board of the agents.
+  private Astar astar; //The algorithm of the separate queries.
+  private int[] starts; //The start node of every agent.
+  private int destination; //The shared destination node.
+  private final SearchContext context = new SearchContext(); //The context reused by every query.
+
+  @Setup
+  public void setUp(){
+    board = BenchmarkBoards.createBoard(size, 15, seed);
+    astar = new Astar(board);
+
+    //The first node is the destination, the rest are the starts of the agents.
+    int[] nodes = BenchmarkBoards.createQueries(board, (agents + 2) / 2, seed);
+    destination = nodes[0];
+    starts = new int[agents];
+    System.arraycopy(nodes, 1, starts, 0, agents);
+  }
+
+  @Benchmark
+  public long astarQueries(){
+    long cost = 0;
+
+    for (int start : starts) {
+      cost += astar.getPath(start, destination, context).getCost();
+    }
+
+    return cost;
+  }
+
+  @Benchmark
+  public long flowField(){
+    FlowField field = new FlowField(board, destination);
+    long cost = 0;
+
+    for (int start : starts) {
+      cost += field.getPath(start).getCost();
+    }
+
+    return cost;
+  }
+}
@@ -0,0 +1,72 @@
+package com.pathfinding.benchmarks;
+
+import com.pathfinding.common.Board;
+import com.pathfinding.common.BoardGenerator;
+import com.pathfinding.common.CompactBoard;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Main class for the board generation benchmark.
+ * Generates the same seeded board on a pool with the given number of threads, both as a {@link CompactBoard} and as a node based {@link Board}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GeneratorBenchmark {
+
+  @Param({"256", "1024", "2048"})
+  public int size; //The width and height of the board.
+
+  @Param({"1", "4"})
+  public int threads; //The number of threads generating the board.
+
+  @Param({"42"})
+  public long seed; //The seed of the board.
+
+  private ForkJoinPool pool; //The pool which runs the generation, its parallel streams run on it too.
+  private BoardGenerator generator; //The generator of the board.
+  private CompactBoard compactBoard; //The board which is overwritten by every compact generation.
+
+  @Setup
+  public void setUp(){
+    pool = new ForkJoinPool(threads);
+    generator = new BoardGenerator(seed);
+    compactBoard = new CompactBoard(size, size);
+  }
+
+  @TearDown
+  public void tearDown(){
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public CompactBoard compactBoard(){
+    pool.submit(() -> generator.generate(compactBoard)).join();
+    return compactBoard;
+  }
+
+  @Benchmark
+  public Board nodeBoard(){
+    Board board = new Board();
+    pool.submit(() -> board.generateBoard(size, size, generator)).join();
+    return board;
+  }
+}
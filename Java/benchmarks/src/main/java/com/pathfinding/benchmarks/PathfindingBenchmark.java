@@ -0,0 +1,133 @@
+package com.pathfinding.benchmarks;
+
+import com.pathfinding.common.Astar;
+import com.pathfinding.common.BidirectionalAstar;
+import com.pathfinding.common.BidirectionalDijkstras;
+import com.pathfinding.common.BreadthFirst;
+import com.pathfinding.common.CompactBoard;
+import com.pathfinding.common.DepthFirst;
+import com.pathfinding.common.Dijkstras;
+import com.pathfinding.common.HierarchicalPathfinding;
+import com.pathfinding.common.JumpPointSearch;
+import com.pathfinding.common.Landmarks;
+import com.pathfinding.common.ParallelBreadthFirst;
+import com.pathfinding.common.Path;
+import com.pathfinding.common.Pathfinding;
+import com.pathfinding.common.SearchContext;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Main class for the benchmark of every Pathfinding implementation.
+ * Each invocation answers one query, the queries are picked with a fixed seed and run in a round robin order.
+ * Run with "-prof gc" to get the allocation rate, the expansions and queries counters give the expansions per query.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PathfindingBenchmark {
+
+  private static final int QUERY_COUNT = 64; //The number of distinct queries per board.
+
+  @Param({"10", "64", "256", "1024", "4096"})
+  public int size; //The width and height of the board.
+
+  @Param({"0", "15", "30"})
+  public int wallDensity; //The chance of an inner cell to be a wall, in percent.
+
+  @Param({"DepthFirst", "BreadthFirst", "Dijkstras", "Astar", "AstarLandmarks", "JumpPointSearch", "HierarchicalPathfinding", "BidirectionalDijkstras", "BidirectionalAstar", "ParallelBreadthFirst"})
+  public String algorithm; //The name of the algorithm.
+
+  @Param({"42"})
+  public long seed; //The seed of the board and the queries.
+
+  private Pathfinding pathfinding; //The algorithm under test.
+  private int[] queries; //The start and destination of every query.
+
+  /**
+   * The per thread state of the benchmark, a search context reused by every query and the position in the query list.
+   */
+  @State(Scope.Thread)
+  public static class QueryState {
+    SearchContext context = new SearchContext();
+    int next;
+  }
+
+  /**
+   * The counters reported next to the timings.
+   * Dividing the expansions by the queries gives the average number of expanded nodes per query.
+   * The backward expansions are the part of the expansions done from the destination by the bidirectional algorithms.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Counters {
+    public long expansions;
+    public long backwardExpansions;
+    public long queries;
+
+    @Setup(Level.Iteration)
+    public void reset(){
+      expansions = 0;
+      backwardExpansions = 0;
+      queries = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp(){
+    CompactBoard board = BenchmarkBoards.createBoard(size, wallDensity, seed);
+    queries = BenchmarkBoards.createQueries(board, QUERY_COUNT, seed);
+    pathfinding = createAlgorithm(algorithm, board);
+  }
+
+  @Benchmark
+  public Path query(QueryState state, Counters counters){
+    int query = state.next;
+    state.next = (query + 1) % QUERY_COUNT;
+
+    Path path = pathfinding.getPath(queries[query * 2], queries[query * 2 + 1], state.context);
+    counters.expansions += path.getClosedCount();
+    counters.backwardExpansions += path.getBackwardClosedCount();
+    counters.queries++;
+    return path;
+  }
+
+  /**
+   * Creates the algorithm with the given name.
+   * @param name The simple class name of the algorithm.
+   * @param board The board on which the algorithm runs.
+   * @return The algorithm.
+   */
+  static Pathfinding createAlgorithm(String name, CompactBoard board){
+    switch (name) {
+      case "DepthFirst": return new DepthFirst(board);
+      case "BreadthFirst": return new BreadthFirst(board);
+      case "Dijkstras": return new Dijkstras(board);
+      case "Astar": return new Astar(board);
+      case "AstarLandmarks": return new Astar(board, Landmarks.create(board, 8));
+      case "JumpPointSearch": return new JumpPointSearch(board);
+      case "HierarchicalPathfinding": return new HierarchicalPathfinding(board, 16);
+      case "BidirectionalDijkstras": return new BidirectionalDijkstras(board);
+      case "BidirectionalAstar": return new BidirectionalAstar(board);
+      case "ParallelBreadthFirst": return new ParallelBreadthFirst(board);
+      default: throw new IllegalArgumentException("Unknown algorithm: " + name);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.pathfinding.benchmarks;
+
+import com.pathfinding.common.CompactBoard;
+import com.pathfinding.common.Dijkstras;
+import com.pathfinding.common.SearchContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Main class for the open list benchmark of Dijkstras.
+ * Compares the bucket queue used by Dijkstras with the same search on a java.util.PriorityQueue.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class QueueBenchmark {
+
+  private static final int QUERY_COUNT = 16; //The number of distinct queries per board.
+
+  @Param({"256", "1024", "2048"})
+  public int size; //The width and height of the board.
+
+  @Param({"42"})
+  public long seed; //The seed of the board and the queries.
+
+  private CompactBoard board; //The board of the queries.
+  private Dijkstras dijkstras; //The bucket queue based search.
+  private int[] queries; //The start and destination of every query.
+  private final SearchContext context = new SearchContext(); //The context reused by every query.
+  private int next; //The position in the query list.
+
+  @Setup
+  public void setUp(){
+    board = BenchmarkBoards.createBoard(size, 15, seed);
+    queries = BenchmarkBoards.createQueries(board, QUERY_COUNT, seed);
+    dijkstras = new Dijkstras(board);
+  }
+
+  @Benchmark
+  public int bucketQueue(){
+    int query = nextQuery();
+    return dijkstras.getPath(queries[query * 2], queries[query * 2 + 1], context).getCost();
+  }
+
+  @Benchmark
+  public int priorityQueue(){
+    int query = nextQuery();
+    return getDistanceWithPriorityQueue(queries[query * 2], queries[query * 2 + 1]);
+  }
+
+  /**
+   * Returns the position of the next query in a round robin order.
+   * @return The index of the query.
+   */
+  private int nextQuery(){
+    int query = next;
+    next = (query + 1) % QUERY_COUNT;
+    return query;
+  }
+
+  /**
+   * The reference Dijkstras search, which uses a binary heap of (distance, index) pairs packed into longs.
+   * @param start The index of the start node.
+   * @param destination The index of the destination node.
+   * @return The distance of the destination, or -1 if it can't be reached.
+   */
+  private int getDistanceWithPriorityQueue(int start, int destination){
+    PriorityQueue<Long> openNodes = new PriorityQueue<Long>();
+    int[] neighbours = new int[4];
+
+    context.begin(board.getNodeCount());
+    context.reach(start, 0, -1);
+    openNodes.add((long) start);
+
+    while (!openNodes.isEmpty()) {
+      int currentNode = (int) (long) openNodes.poll();
+
+      if (context.isClosed(currentNode)) {
+        continue;
+      }
+
+      context.close(currentNode);
+
+      if (currentNode == destination) {
+        return context.getDistance(currentNode);
+      }
+
+      int neighbourCount = board.getNeighbours(currentNode, neighbours);
+
+      for (int i = 0; i < neighbourCount; i++) {
+        int neighbour = neighbours[i];
+
+        if (context.isClosed(neighbour)) {
+          continue;
+        }
+
+        int newDistance = context.getDistance(currentNode) + 1 + board.getCost(neighbour);
+
+        if (!context.isReached(neighbour) || newDistance < context.getDistance(neighbour)) {
+          context.reach(neighbour, newDistance, currentNode);
+          openNodes.add(((long) newDistance << 32) | neighbour);
+        }
+      }
+    }
+
+    return -1;
+  }
+}
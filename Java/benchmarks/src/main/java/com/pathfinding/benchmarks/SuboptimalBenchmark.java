@@ -0,0 +1,135 @@
+package com.pathfinding.benchmarks;
+
+import com.pathfinding.common.Astar;
+import com.pathfinding.common.CompactBoard;
+import com.pathfinding.common.Dijkstras;
+import com.pathfinding.common.FocalSearch;
+import com.pathfinding.common.Landmarks;
+import com.pathfinding.common.Path;
+import com.pathfinding.common.Pathfinding;
+import com.pathfinding.common.SearchContext;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Main class for the benchmark of the bounded suboptimal searches.
+ * Runs weighted A* and focal search with different weights on the same queries, and compares the paths with the cheapest ones found by Dijkstras.
+ * The expansions and queries counters give the expansions per query, the cost and optimalCost counters give the achieved cost ratio.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SuboptimalBenchmark {
+
+  private static final int QUERY_COUNT = 64; //The number of distinct queries per board.
+
+  @Param({"256", "1024"})
+  public int size; //The width and height of the board.
+
+  @Param({"15", "30"})
+  public int wallDensity; //The chance of an inner cell to be a wall, in percent.
+
+  @Param({"Astar", "AstarLandmarks", "FocalSearch"})
+  public String algorithm; //The name of the algorithm.
+
+  @Param({"1", "1.1", "1.5", "2", "3"})
+  public double weight; //The weight of Astar, or 1 + epsilon of FocalSearch.
+
+  @Param({"42"})
+  public long seed; //The seed of the board and the queries.
+
+  private Pathfinding pathfinding; //The algorithm under test.
+  private int[] queries; //The start and destination of every query.
+  private int[] optimalCosts; //The total cost of the cheapest path of every query.
+
+  /**
+   * The per thread state of the benchmark, a search context reused by every query and the position in the query list.
+   */
+  @State(Scope.Thread)
+  public static class QueryState {
+    SearchContext context = new SearchContext();
+    int next;
+  }
+
+  /**
+   * The counters reported next to the timings.
+   * Dividing the cost by the optimal cost gives the average ratio between the found paths and the cheapest ones.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Counters {
+    public long expansions;
+    public long queries;
+    public long cost;
+    public long optimalCost;
+
+    @Setup(Level.Iteration)
+    public void reset(){
+      expansions = 0;
+      queries = 0;
+      cost = 0;
+      optimalCost = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp(){
+    CompactBoard board = BenchmarkBoards.createBoard(size, wallDensity, seed);
+    queries = BenchmarkBoards.createQueries(board, QUERY_COUNT, seed);
+    optimalCosts = new int[QUERY_COUNT];
+
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      optimalCosts[i] = dijkstras.getPath(queries[i * 2], queries[i * 2 + 1], context).getTotalCost();
+    }
+
+    switch (algorithm) {
+      case "Astar":
+        Astar astar = new Astar(board);
+        astar.setWeight(weight);
+        pathfinding = astar;
+        break;
+      case "AstarLandmarks":
+        Astar landmarkAstar = new Astar(board, Landmarks.create(board, 8));
+        landmarkAstar.setWeight(weight);
+        pathfinding = landmarkAstar;
+        break;
+      case "FocalSearch":
+        pathfinding = new FocalSearch(board, weight - 1);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+    }
+  }
+
+  @Benchmark
+  public Path query(QueryState state, Counters counters){
+    int query = state.next;
+    state.next = (query + 1) % QUERY_COUNT;
+
+    Path path = pathfinding.getPath(queries[query * 2], queries[query * 2 + 1], state.context);
+    counters.expansions += path.getClosedCount();
+    counters.queries++;
+    counters.cost += path.getTotalCost();
+    counters.optimalCost += optimalCosts[query];
+    return path;
+  }
+}
@@ -0,0 +1,81 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the A* search, which must find one of the cheapest paths, walking only between walkable neighbours.
+ */
+class AstarTest {
+
+  @Test
+  void pathsAreTheCheapest(){
+    CompactBoard board = new CompactBoard(80, 80);
+    BoardGenerator generator = new BoardGenerator(1);
+    generator.setWallDensity(0.25);
+    generator.setCostDistribution(CostDistribution.uniform(0, 9));
+    generator.generate(board);
+
+    Astar astar = new Astar(board);
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+
+    for (int query = 0; query < 100; query++) {
+      int start = findWalkable(board, query * 97);
+      int destination = findWalkable(board, query * 389 + 41);
+      Path path = astar.getPath(start, destination, context);
+
+      assertEquals(dijkstras.getPath(start, destination, context).getTotalCost(), path.getTotalCost(), "Query " + start + " -> " + destination);
+      assertValidPath(board, start, destination, path);
+    }
+  }
+
+  @Test
+  void contextsCanBeReused(){
+    CompactBoard board = new CompactBoard(40, 40);
+    new BoardGenerator(2).generate(board);
+    Astar astar = new Astar(board);
+    SearchContext shared = new SearchContext();
+
+    //A used context must give the same result as a fresh one.
+    for (int query = 0; query < 50; query++) {
+      int start = findWalkable(board, query * 31);
+      int destination = findWalkable(board, query * 577 + 3);
+      assertEquals(astar.getPath(start, destination, new SearchContext()).getTotalCost(), astar.getPath(start, destination, shared).getTotalCost());
+    }
+  }
+
+  /**
+   * Checks that a found path leads from the start to the destination through walkable neighbours.
+   */
+  private static void assertValidPath(GridGraph board, int start, int destination, Path path){
+    List<Node> steps = path.getSteps();
+    if (steps.isEmpty()) {
+      return;
+    }
+
+    int previous = start;
+    for (int i = steps.size() - 1; i >= 0; i--) {
+      int node = board.getIndex(steps.get(i).getX(), steps.get(i).getY());
+      assertTrue(board.isWalkable(node));
+      assertEquals(1, Math.abs(board.getX(node) - board.getX(previous)) + Math.abs(board.getY(node) - board.getY(previous)));
+      previous = node;
+    }
+    assertEquals(destination, previous);
+  }
+
+  /**
+   * Finds the first walkable node from a node on.
+   */
+  private static int findWalkable(GridGraph board, int node){
+    node %= board.getNodeCount();
+    while (!board.isWalkable(node)) {
+      node = (node + 1) % board.getNodeCount();
+    }
+    return node;
+  }
+}
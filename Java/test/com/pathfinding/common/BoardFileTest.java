@@ -0,0 +1,63 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The tests of the binary board file, which must load back every cell as it was saved, and reject the cells the format can't hold.
+ */
+class BoardFileTest {
+
+  @TempDir
+  File directory; //The directory of the board files.
+
+  @Test
+  void savedBoardsLoadBack() throws IOException {
+    CompactBoard board = new CompactBoard(70, 50);
+    BoardGenerator generator = new BoardGenerator(1);
+    generator.setCostDistribution(CostDistribution.uniform(0, 127));
+    generator.generate(board);
+    File file = new File(directory, "board.pfbd");
+
+    BoardFile.save(board, file);
+    MappedBoard loaded = BoardFile.load(file);
+
+    assertEquals(board.getWidth(), loaded.getWidth());
+    assertEquals(board.getHeight(), loaded.getHeight());
+    for (int node = 0; node < board.getNodeCount(); node++) {
+      assertEquals(board.getType(node), loaded.getType(node));
+      assertEquals(board.getCost(node), loaded.getCost(node));
+    }
+  }
+
+  @Test
+  void costsAboveAByteAreRejected(){
+    Board board = new Board();
+    board.generateBoard(8, 8, new BoardGenerator(2));
+    board.setFloorNode(3, 3);
+    board.setNodeCost(3, 3, 200);
+
+    assertThrows(IllegalArgumentException.class, () -> BoardFile.save(board, new File(directory, "board.pfbd")));
+  }
+
+  @Test
+  void invalidTypesAreRejected() throws IOException {
+    CompactBoard board = new CompactBoard(8, 8);
+    File file = new File(directory, "board.pfbd");
+    BoardFile.save(board, file);
+
+    try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+      output.seek(BoardFile.HEADER_SIZE + 10);
+      output.write(Node.Types.values().length);
+    }
+
+    assertThrows(IOException.class, () -> BoardFile.load(file));
+  }
+}
@@ -0,0 +1,40 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the board generator, which must give the same board for the same seed on any number of threads.
+ */
+class BoardGeneratorTest {
+
+  @Test
+  void threadCountDoesntChangeTheBoard() throws Exception {
+    CompactBoard single = generate(1, 21);
+    CompactBoard parallel = generate(4, 21);
+
+    for (int node = 0; node < single.getNodeCount(); node++) {
+      assertEquals(single.getType(node), parallel.getType(node), "Type of node " + node);
+      assertEquals(single.getCost(node), parallel.getCost(node), "Cost of node " + node);
+    }
+  }
+
+  /**
+   * Generates a board inside a pool, so the parallel bands run on its threads.
+   */
+  private static CompactBoard generate(int threads, long seed) throws Exception {
+    CompactBoard board = new CompactBoard(300, 500);
+    ForkJoinPool pool = new ForkJoinPool(threads);
+
+    try {
+      pool.submit(() -> new BoardGenerator(seed).generate(board)).get();
+    } finally {
+      pool.shutdown();
+    }
+
+    return board;
+  }
+}
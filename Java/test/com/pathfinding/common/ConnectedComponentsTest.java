@@ -0,0 +1,68 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the connected components, which must split the board the same way as a full labelling after any number of changes.
+ */
+class ConnectedComponentsTest {
+
+  @Test
+  void toggledCellsMatchAFullLabelling(){
+    CompactBoard board = new CompactBoard(32, 32);
+    BoardGenerator generator = new BoardGenerator(11);
+    generator.setWallDensity(0.35);
+    generator.generate(board);
+
+    ConnectedComponents components = new ConnectedComponents(board);
+    SplittableRandom random = new SplittableRandom(11);
+
+    for (int change = 1; change <= 2000; change++) {
+      int node = random.nextInt(board.getNodeCount());
+      board.setType(board.getX(node), board.getY(node), board.isWalkable(node) ? Node.Types.Wall : Node.Types.Floor);
+
+      if (change % 50 == 0) {
+        assertSamePartition(board, components, new ConnectedComponents(board));
+      }
+    }
+  }
+
+  @Test
+  void regeneratedBoardsMatchAFullLabelling(){
+    CompactBoard board = new CompactBoard(32, 32);
+    new BoardGenerator(12).generate(board);
+    ConnectedComponents components = new ConnectedComponents(board);
+
+    //The generator doesn't notify the listeners about every cell.
+    new BoardGenerator(13).generate(board);
+    board.setType(5, 5, Node.Types.Floor);
+
+    assertSamePartition(board, components, new ConnectedComponents(board));
+  }
+
+  /**
+   * Checks that two labellings put the same walkable cells together, the label values themselves may differ.
+   */
+  private static void assertSamePartition(GridGraph board, ConnectedComponents actual, ConnectedComponents expected){
+    Map<Integer, Integer> actualToExpected = new HashMap<>();
+    Map<Integer, Integer> expectedToActual = new HashMap<>();
+
+    for (int node = 0; node < board.getNodeCount(); node++) {
+      if (!board.isWalkable(node)) {
+        continue;
+      }
+
+      int actualLabel = actual.getLabel(node);
+      int expectedLabel = expected.getLabel(node);
+
+      assertEquals(expectedLabel, (int) actualToExpected.computeIfAbsent(actualLabel, label -> expectedLabel), "Node " + node + " is in the wrong component");
+      assertEquals(actualLabel, (int) expectedToActual.computeIfAbsent(expectedLabel, label -> actualLabel), "Node " + node + " is in the wrong component");
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the cooperative pathfinding, which must never let two agents share a node or swap places.
+ */
+class CooperativePathfindingTest {
+
+  @Test
+  void crowdedBoardsHaveNoCollisions(){
+    for (long seed = 0; seed < 20; seed++) {
+      runAgents(24, 80, 8, 150, seed);
+    }
+  }
+
+  @Test
+  void largeBoardsHaveNoCollisions(){
+    runAgents(128, 300, 16, 100, 7);
+  }
+
+  @Test
+  void agentsCantStartOnTheSameNode(){
+    CompactBoard board = new CompactBoard(4, 4);
+    CooperativePathfinding planner = new CooperativePathfinding(board, 4);
+    planner.addAgent(5, 10);
+
+    assertThrows(IllegalArgumentException.class, () -> planner.addAgent(5, 6));
+  }
+
+  @Test
+  void agentsReachTheirDestinations(){
+    CompactBoard board = new CompactBoard(8, 8);
+    CooperativePathfinding planner = new CooperativePathfinding(board, 8);
+    int first = planner.addAgent(board.getIndex(0, 3), board.getIndex(7, 3));
+    int second = planner.addAgent(board.getIndex(7, 3), board.getIndex(0, 3));
+
+    for (int i = 0; i < 30; i++) {
+      planner.step();
+    }
+
+    assertTrue(planner.hasArrived(first));
+    assertTrue(planner.hasArrived(second));
+  }
+
+  @Test
+  void unusedFieldsAreDropped(){
+    CompactBoard board = new CompactBoard(16, 16);
+    CooperativePathfinding planner = new CooperativePathfinding(board, 4);
+    int first = planner.addAgent(board.getIndex(0, 0), board.getIndex(15, 15));
+    int second = planner.addAgent(board.getIndex(15, 0), board.getIndex(0, 15));
+
+    //Every step retargets the first agent, so it would keep a field for every destination.
+    for (int i = 0; i < 40; i++) {
+      planner.setDestination(first, board.getIndex(i % 16, 8 + i / 16));
+      planner.step();
+      assertTrue(planner.getFieldCount() <= 2);
+    }
+
+    planner.removeAgent(second);
+    planner.step();
+    assertEquals(1, planner.getFieldCount());
+  }
+
+  /**
+   * Moves random agents on a random board, and checks every time step for shared nodes and swaps.
+   */
+  private static void runAgents(int size, int agentCount, int window, int steps, long seed){
+    CompactBoard board = new CompactBoard(size, size);
+    BoardGenerator generator = new BoardGenerator(seed);
+    generator.setWallDensity(0.2);
+    generator.generate(board);
+
+    CooperativePathfinding planner = new CooperativePathfinding(board, window);
+    SplittableRandom random = new SplittableRandom(seed);
+    Map<Integer, Integer> taken = new HashMap<>();
+
+    while (taken.size() < agentCount) {
+      int position = random.nextInt(board.getNodeCount());
+      int destination = random.nextInt(board.getNodeCount());
+
+      if (board.isWalkable(position) && board.isWalkable(destination) && !taken.containsKey(position)) {
+        taken.put(position, planner.addAgent(position, destination));
+      }
+    }
+
+    int[] previous = new int[agentCount];
+
+    for (int step = 0; step < steps; step++) {
+      for (int agent = 0; agent < agentCount; agent++) {
+        previous[agent] = planner.getPosition(agent);
+      }
+
+      planner.step();
+
+      Map<Integer, Integer> occupied = new HashMap<>();
+      for (int agent = 0; agent < agentCount; agent++) {
+        int position = planner.getPosition(agent);
+        Integer other = occupied.put(position, agent);
+
+        assertEquals(null, other, "Agents " + other + " and " + agent + " share node " + position + " at step " + step + " with seed " + seed);
+        assertTrue(position == previous[agent] || isNeighbour(board, position, previous[agent]), "Agent " + agent + " jumped at step " + step);
+      }
+
+      for (int agent = 0; agent < agentCount; agent++) {
+        Integer other = occupied.get(previous[agent]);
+        boolean swapped = other != null && other != agent && previous[other] == planner.getPosition(agent);
+
+        assertFalse(swapped, "Agents " + agent + " and " + other + " swapped places at step " + step + " with seed " + seed);
+      }
+    }
+  }
+
+  /**
+   * Checks if two nodes are next to each other.
+   */
+  private static boolean isNeighbour(GridGraph graph, int first, int second){
+    return Math.abs(graph.getX(first) - graph.getX(second)) + Math.abs(graph.getY(first) - graph.getY(second)) == 1;
+  }
+}
@@ -0,0 +1,116 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the D* Lite planner, which must keep finding the cheapest paths however the board changes between the queries.
+ */
+class DStarLiteTest {
+
+  @Test
+  void pathsAreTheCheapest(){
+    CompactBoard board = createBoard(48, 1);
+    DStarLite planner = new DStarLite(board);
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+
+    for (int query = 0; query < 50; query++) {
+      int start = findWalkable(board, query * 97);
+      int destination = findWalkable(board, query * 389);
+      assertEquals(dijkstras.getPath(start, destination, context).getTotalCost(), planner.getPath(start, destination, context).getTotalCost());
+    }
+  }
+
+  @Test
+  void editedBoardsRepairTheSearch(){
+    CompactBoard board = createBoard(48, 2);
+    DStarLite planner = new DStarLite(board);
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+    SplittableRandom random = new SplittableRandom(2);
+    int destination = findWalkable(board, board.getNodeCount() - 1);
+
+    for (int query = 0; query < 30; query++) {
+      for (int change = 0; change < 20; change++) {
+        int node = random.nextInt(board.getNodeCount());
+        if (node != destination) {
+          board.setType(board.getX(node), board.getY(node), board.isWalkable(node) ? Node.Types.Wall : Node.Types.Floor);
+        }
+      }
+
+      int start = findWalkable(board, query * 97);
+      assertEquals(dijkstras.getPath(start, destination, context).getTotalCost(), planner.getPath(start, destination, context).getTotalCost());
+    }
+  }
+
+  @Test
+  void regeneratedBoardsStartANewSearch(){
+    CompactBoard board = createBoard(48, 3);
+    DStarLite planner = new DStarLite(board);
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+
+    for (long seed = 4; seed < 10; seed++) {
+      int start = findWalkable(board, 0);
+      int destination = findWalkable(board, board.getNodeCount() / 2 + 7);
+      planner.getPath(start, destination, context);
+
+      //The generator doesn't notify the listeners, so the planner only sees the new version.
+      new BoardGenerator(seed).generate(board);
+      int newStart = findWalkable(board, 0);
+      int newDestination = findWalkable(board, destination);
+
+      Path path = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> planner.getPath(newStart, newDestination, context));
+      assertTrue(path.isComplete());
+      assertEquals(dijkstras.getPath(newStart, newDestination, context).getTotalCost(), path.getTotalCost());
+    }
+  }
+
+  @Test
+  void resizedBoardsStartANewSearch(){
+    Board board = new Board();
+    board.generateBoard(24, 24, new BoardGenerator(11));
+    DStarLite planner = new DStarLite(board);
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+
+    int destination = findWalkable(board, 300);
+    planner.getPath(findWalkable(board, 0), destination, context);
+
+    board.generateBoard(40, 40, new BoardGenerator(12));
+    int start = findWalkable(board, 0);
+    int newDestination = findWalkable(board, destination);
+
+    Path path = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> planner.getPath(start, newDestination, context));
+    assertEquals(dijkstras.getPath(start, newDestination, context).getTotalCost(), path.getTotalCost());
+  }
+
+  /**
+   * Generates a square board.
+   */
+  private static CompactBoard createBoard(int size, long seed){
+    CompactBoard board = new CompactBoard(size, size);
+    BoardGenerator generator = new BoardGenerator(seed);
+    generator.setWallDensity(0.25);
+    generator.generate(board);
+    return board;
+  }
+
+  /**
+   * Finds the first walkable node from a node on.
+   */
+  private static int findWalkable(GridGraph board, int node){
+    node %= board.getNodeCount();
+    while (!board.isWalkable(node)) {
+      node = (node + 1) % board.getNodeCount();
+    }
+    return node;
+  }
+}
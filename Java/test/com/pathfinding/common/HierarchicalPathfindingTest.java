@@ -0,0 +1,60 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the hierarchical pathfinding, which must follow the board even when it changes without notifying the listeners.
+ */
+class HierarchicalPathfindingTest {
+
+  @Test
+  void regeneratedBoardsRebuildTheClusters(){
+    Board board = new Board();
+    board.generateBoard(16, 16, new BoardGenerator(1));
+    HierarchicalPathfinding hierarchical = new HierarchicalPathfinding(board, 8);
+
+    //A larger board, so the old clusters would neither cover the grid nor match its walls.
+    board.generateBoard(40, 40, new BoardGenerator(2));
+    assertQueriesMatch(board, hierarchical);
+  }
+
+  @Test
+  void editedBoardsRebuildTheClusters(){
+    CompactBoard board = new CompactBoard(40, 40);
+    new BoardGenerator(3).generate(board);
+    HierarchicalPathfinding hierarchical = new HierarchicalPathfinding(board, 8);
+
+    for (int y = 0; y < 40; y += 3) {
+      for (int x = 0; x < 40; x++) {
+        board.setType(x, y, (x * 7 + y) % 5 == 0 ? Node.Types.Wall : Node.Types.Floor);
+      }
+    }
+    assertQueriesMatch(board, hierarchical);
+  }
+
+  /**
+   * Checks that the hierarchical paths are found exactly when Dijkstra's algorithm finds one, and are never cheaper.
+   */
+  private static void assertQueriesMatch(GridGraph board, HierarchicalPathfinding hierarchical){
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+
+    for (int query = 0; query < 200; query++) {
+      int start = query * 97 % board.getNodeCount();
+      int destination = query * 389 % board.getNodeCount();
+
+      if (!board.isWalkable(start) || !board.isWalkable(destination) || start == destination) {
+        continue;
+      }
+
+      Path optimal = dijkstras.getPath(start, destination, context);
+      Path path = hierarchical.getPath(start, destination, context);
+
+      assertEquals(optimal.getStepCount() > 0, path.getStepCount() > 0, "Query " + start + " -> " + destination);
+      assertTrue(path.getTotalCost() >= optimal.getTotalCost(), "Query " + start + " -> " + destination);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the iterative deepening searches, which must find paths as cheap as the searches which keep every checked node.
+ */
+class IterativeDeepeningTest {
+
+  @Test
+  void idaStarPathsAreTheCheapest(){
+    CompactBoard board = createBoard(1);
+    IterativeDeepeningAstar ida = new IterativeDeepeningAstar(board);
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+
+    for (int query = 0; query < 40; query++) {
+      int start = findWalkable(board, query * 97);
+      int destination = findWalkable(board, query * 389 + 41);
+      assertEquals(dijkstras.getPath(start, destination, context).getTotalCost(), ida.getPath(start, destination, context).getTotalCost(),
+          "Query " + start + " -> " + destination);
+    }
+  }
+
+  @Test
+  void searchesWithoutATableFindTheSamePaths(){
+    CompactBoard board = createBoard(2);
+    IterativeDeepeningAstar withTable = new IterativeDeepeningAstar(board);
+    IterativeDeepeningAstar withoutTable = new IterativeDeepeningAstar(board);
+    withoutTable.setTableSize(0);
+    SearchContext context = new SearchContext();
+
+    //Without a table the short queries are already expensive, so the destinations are near the start.
+    for (int query = 0; query < 20; query++) {
+      int start = findWalkable(board, query * 97);
+      int destination = findWalkable(board, start + 2 * board.getWidth() + 2);
+      assertEquals(withTable.getPath(start, destination, context).getTotalCost(), withoutTable.getPath(start, destination, context).getTotalCost());
+    }
+  }
+
+  @Test
+  void depthFirstPathsHaveTheFewestSteps(){
+    CompactBoard board = createBoard(3);
+    IterativeDeepeningDepthFirst iddfs = new IterativeDeepeningDepthFirst(board);
+    BreadthFirst breadthFirst = new BreadthFirst(board);
+    SearchContext context = new SearchContext();
+
+    for (int query = 0; query < 20; query++) {
+      int start = findWalkable(board, query * 97);
+      int destination = findWalkable(board, query * 389 + 41);
+      assertEquals(breadthFirst.getPath(start, destination, context).getStepCount(), iddfs.getPath(start, destination, context).getStepCount());
+    }
+  }
+
+  @Test
+  void limitsStopTheIterations(){
+    CompactBoard board = createBoard(4);
+    IterativeDeepeningAstar ida = new IterativeDeepeningAstar(board);
+    ida.setLimits(new SearchLimits(100, Integer.MAX_VALUE, Long.MAX_VALUE, TimeUnit.NANOSECONDS));
+
+    assertFalse(ida.getPath(findWalkable(board, 0), findWalkable(board, board.getNodeCount() - 40), new SearchContext()).isComplete());
+  }
+
+  @Test
+  void invalidTableSizesAreRejected(){
+    IterativeDeepeningAstar ida = new IterativeDeepeningAstar(createBoard(5));
+
+    assertThrows(IllegalArgumentException.class, () -> ida.setTableSize(-1));
+    ida.setTableSize(1000);
+    assertEquals(1024, ida.getTableSize());
+  }
+
+  /**
+   * Generates a small board with walls and costs.
+   */
+  private static CompactBoard createBoard(long seed){
+    CompactBoard board = new CompactBoard(24, 24);
+    BoardGenerator generator = new BoardGenerator(seed);
+    generator.setWallDensity(0.25);
+    generator.setCostDistribution(CostDistribution.uniform(0, 3));
+    generator.generate(board);
+    return board;
+  }
+
+  /**
+   * Finds the first walkable node from a node on.
+   */
+  private static int findWalkable(GridGraph board, int node){
+    node %= board.getNodeCount();
+    while (!board.isWalkable(node)) {
+      node = (node + 1) % board.getNodeCount();
+    }
+    return node;
+  }
+}
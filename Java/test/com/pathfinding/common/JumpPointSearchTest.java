@@ -0,0 +1,73 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the Jump Point Search, which must find paths as cheap as Dijkstra's algorithm, with every step filled in.
+ */
+class JumpPointSearchTest {
+
+  @Test
+  void uniformBoardsGiveTheCheapestPaths(){
+    for (long seed = 1; seed <= 3; seed++) {
+      CompactBoard board = new CompactBoard(96, 96);
+      BoardGenerator generator = new BoardGenerator(seed);
+      generator.setWallDensity(0.1 * seed);
+      generator.generate(board);
+      assertQueriesMatch(board);
+    }
+  }
+
+  @Test
+  void costlyBoardsGiveTheCheapestPaths(){
+    CompactBoard board = new CompactBoard(64, 64);
+    BoardGenerator generator = new BoardGenerator(4);
+    generator.setWallDensity(0.2);
+    generator.setCostDistribution(CostDistribution.uniform(0, 3));
+    generator.generate(board);
+    assertQueriesMatch(board);
+  }
+
+  /**
+   * Checks that the paths cost the same as the ones of Dijkstra's algorithm, and lead from the start to the destination through walkable neighbours.
+   */
+  private static void assertQueriesMatch(GridGraph board){
+    JumpPointSearch jps = new JumpPointSearch(board);
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+
+    for (int query = 0; query < 100; query++) {
+      int start = findWalkable(board, query * 97);
+      int destination = findWalkable(board, query * 389 + 41);
+      Path path = jps.getPath(start, destination, context);
+
+      assertEquals(dijkstras.getPath(start, destination, context).getTotalCost(), path.getTotalCost(), "Query " + start + " -> " + destination);
+
+      List<Node> steps = path.getSteps();
+      int previous = start;
+      for (int i = steps.size() - 1; i >= 0; i--) {
+        int node = board.getIndex(steps.get(i).getX(), steps.get(i).getY());
+        assertTrue(board.isWalkable(node));
+        assertEquals(1, Math.abs(board.getX(node) - board.getX(previous)) + Math.abs(board.getY(node) - board.getY(previous)));
+        previous = node;
+      }
+      assertTrue(steps.isEmpty() || previous == destination);
+    }
+  }
+
+  /**
+   * Finds the first walkable node from a node on.
+   */
+  private static int findWalkable(GridGraph board, int node){
+    node %= board.getNodeCount();
+    while (!board.isWalkable(node)) {
+      node = (node + 1) % board.getNodeCount();
+    }
+    return node;
+  }
+}
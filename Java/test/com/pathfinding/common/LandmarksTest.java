@@ -0,0 +1,96 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The tests of the landmark tables, which must load back as they were saved, and never overestimate after the board changes.
+ */
+class LandmarksTest {
+
+  @TempDir
+  File directory; //The directory of the landmark files.
+
+  @Test
+  void savedTablesLoadBack() throws IOException {
+    CompactBoard board = createBoard(7);
+    Landmarks landmarks = Landmarks.create(board, 6);
+    File file = Landmarks.getFile(new File(directory, "board.map"));
+
+    landmarks.save(file);
+    Landmarks loaded = Landmarks.load(file, board);
+
+    assertArrayEquals(landmarks.getLandmarks(), loaded.getLandmarks());
+    for (int landmark = 0; landmark < landmarks.getCount(); landmark++) {
+      for (int node = 0; node < board.getNodeCount(); node++) {
+        assertEquals(landmarks.getDistance(landmark, node), loaded.getDistance(landmark, node));
+      }
+    }
+  }
+
+  @Test
+  void newWallsKeepTheTables(){
+    CompactBoard board = createBoard(3);
+    Landmarks landmarks = Landmarks.create(board, 4);
+
+    board.setType(10, 10, Node.Types.Wall);
+    board.setCost(20, 20, board.getCost(board.getIndex(20, 20)) + 1);
+
+    assertTrue(landmarks.isCurrent());
+  }
+
+  @Test
+  void removedWallsDropTheTables(){
+    CompactBoard board = createBoard(5);
+    Landmarks landmarks = Landmarks.create(board, 8);
+    Astar astar = new Astar(board, landmarks);
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+
+    //Opens every wall, so the stored distances would overestimate almost everywhere.
+    for (int node = 0; node < board.getNodeCount(); node++) {
+      if (!board.isWalkable(node)) {
+        board.setType(board.getX(node), board.getY(node), Node.Types.Floor);
+      }
+    }
+
+    assertFalse(landmarks.isCurrent());
+    assertEquals(0, landmarks.getLowerBound(0, board.getNodeCount() - 1));
+
+    for (int query = 0; query < 50; query++) {
+      int start = query * 97 % board.getNodeCount();
+      int destination = query * 389 % board.getNodeCount();
+      assertEquals(dijkstras.getPath(start, destination, context).getTotalCost(), astar.getPath(start, destination, context).getTotalCost());
+    }
+  }
+
+  @Test
+  void closedTablesStopFollowingTheBoard(){
+    CompactBoard board = createBoard(9);
+    Landmarks landmarks = Landmarks.create(board, 4);
+
+    landmarks.close();
+    board.setType(10, 10, Node.Types.Wall);
+
+    assertFalse(landmarks.isCurrent());
+  }
+
+  /**
+   * Generates a board with many walls.
+   */
+  private static CompactBoard createBoard(long seed){
+    CompactBoard board = new CompactBoard(48, 48);
+    BoardGenerator generator = new BoardGenerator(seed);
+    generator.setWallDensity(0.3);
+    generator.generate(board);
+    return board;
+  }
+}
@@ -0,0 +1,65 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the parallel Breadth First search, which must check the nodes in the same order as the sequential one.
+ */
+class ParallelBreadthFirstTest {
+
+  @Test
+  void closedOrderMatchesBreadthFirst(){
+    CompactBoard board = new CompactBoard(600, 600);
+    BoardGenerator generator = new BoardGenerator(31);
+    generator.setWallDensity(0.15);
+    generator.generate(board);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      BreadthFirst sequential = new BreadthFirst(board);
+      ParallelBreadthFirst parallel = new ParallelBreadthFirst(board, pool);
+      SearchContext context = new SearchContext();
+
+      //Queries from the middle, so the levels grow above the size which is split into chunks.
+      for (int query = 0; query < 4; query++) {
+        int start = findWalkable(board, board.getIndex(300 + query, 300));
+        int destination = findWalkable(board, board.getIndex(query * 190, 599 - query * 150));
+
+        Path expected = sequential.getPath(start, destination, context);
+        Path actual = parallel.getPath(start, destination, context);
+
+        assertEquals(getIndices(board, expected.getClosedNodes()), getIndices(board, actual.getClosedNodes()));
+        assertEquals(getIndices(board, expected.getSteps()), getIndices(board, actual.getSteps()));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Finds the first walkable node from a node on.
+   */
+  private static int findWalkable(GridGraph board, int node){
+    while (!board.isWalkable(node)) {
+      node = (node + 1) % board.getNodeCount();
+    }
+    return node;
+  }
+
+  /**
+   * Converts the nodes to their indices.
+   */
+  private static List<Integer> getIndices(GridGraph board, List<Node> nodes){
+    List<Integer> indices = new ArrayList<>(nodes.size());
+    for (Node node : nodes) {
+      indices.add(board.getIndex(node.getX(), node.getY()));
+    }
+    return indices;
+  }
+}
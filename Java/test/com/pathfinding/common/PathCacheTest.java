@@ -0,0 +1,62 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the path cache, which must never answer a query with a path the algorithm wouldn't return now.
+ */
+class PathCacheTest {
+
+  @Test
+  void partialPathsAreNotCached(){
+    CompactBoard board = new CompactBoard(32, 32);
+    Astar astar = new Astar(board);
+    PathCache cache = new PathCache(16);
+    SearchContext context = new SearchContext();
+    int start = board.getIndex(0, 0);
+    int destination = board.getIndex(31, 31);
+
+    astar.setLimits(new SearchLimits(10, Integer.MAX_VALUE, Long.MAX_VALUE, TimeUnit.NANOSECONDS));
+    assertFalse(cache.getPath(astar, start, destination, context).isComplete());
+    assertEquals(0, cache.size());
+
+    astar.setLimits(SearchLimits.NONE);
+    Path path = cache.getPath(astar, start, destination, context);
+
+    assertTrue(path.isComplete());
+    assertEquals(62, path.getStepCount());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void weightsAreCachedSeparately(){
+    CompactBoard board = new CompactBoard(32, 32);
+    for (int y = 1; y < 31; y++) {
+      board.setCost(15, y, 9);
+    }
+
+    Astar astar = new Astar(board);
+    PathCache cache = new PathCache(16);
+    SearchContext context = new SearchContext();
+    int start = board.getIndex(0, 16);
+    int destination = board.getIndex(31, 16);
+
+    Path cheapest = cache.getPath(astar, start, destination, context);
+    astar.setWeight(3);
+    Path weighted = cache.getPath(astar, start, destination, context);
+
+    assertEquals(1, cheapest.getSuboptimalityBound());
+    assertEquals(3, weighted.getSuboptimalityBound());
+    assertEquals(2, cache.getMisses());
+
+    astar.setWeight(1);
+    assertSame(cheapest, cache.getPath(astar, start, destination, context));
+  }
+}
@@ -0,0 +1,99 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the time sliced searches, which must stay within their slices and end with the same path as a search run at once.
+ */
+class SearchHandleTest {
+
+  @Test
+  void slicedSearchesMatchTheWholeSearch(){
+    CompactBoard board = createBoard(1);
+    Pathfinding[] algorithms = {new Astar(board), new Dijkstras(board), new BreadthFirst(board)};
+
+    for (Pathfinding algorithm : algorithms) {
+      SearchContext context = new SearchContext();
+
+      for (int query = 0; query < 20; query++) {
+        int start = findWalkable(board, query * 97);
+        int destination = findWalkable(board, query * 389 + 41);
+        Path expected = algorithm.getPath(start, destination, context);
+
+        SearchHandle handle = algorithm.beginSearch(start, destination);
+        int expansions = 0;
+
+        while (!handle.isDone()) {
+          handle.step(7);
+          assertTrue(handle.getExpansions() - expansions <= 7, algorithm.getClass().getSimpleName() + " expanded more than a slice");
+          expansions = handle.getExpansions();
+        }
+
+        Path path = handle.getPath();
+        assertEquals(start == destination || expected.getStepCount() > 0 ? SearchHandle.Status.FOUND : SearchHandle.Status.UNREACHABLE, handle.getStatus(), algorithm.getClass().getSimpleName() + " " + start + " -> " + destination);
+        assertArrayEquals(getIndices(board, expected.getSteps()), getIndices(board, path.getSteps()));
+        assertEquals(expected.getClosedCount(), path.getClosedCount());
+      }
+    }
+  }
+
+  @Test
+  void unfinishedSearchesHaveNoPath(){
+    CompactBoard board = createBoard(2);
+    SearchHandle handle = new Astar(board).beginSearch(findWalkable(board, 0), findWalkable(board, board.getNodeCount() - 70));
+
+    handle.step(1);
+
+    assertFalse(handle.isDone());
+    assertThrows(IllegalStateException.class, handle::getPath);
+    assertTrue(handle.complete().isComplete());
+  }
+
+  @Test
+  void searchesWithoutSlicesAreRejected(){
+    CompactBoard board = createBoard(3);
+    assertThrows(UnsupportedOperationException.class, () -> new JumpPointSearch(board).beginSearch(0, 1));
+  }
+
+  /**
+   * Generates a board with walls and costs.
+   */
+  private static CompactBoard createBoard(long seed){
+    CompactBoard board = new CompactBoard(64, 64);
+    BoardGenerator generator = new BoardGenerator(seed);
+    generator.setWallDensity(0.2);
+    generator.setCostDistribution(CostDistribution.uniform(0, 5));
+    generator.generate(board);
+    return board;
+  }
+
+  /**
+   * Converts the nodes to their indices.
+   */
+  private static int[] getIndices(GridGraph board, List<Node> nodes){
+    int[] indices = new int[nodes.size()];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = board.getIndex(nodes.get(i).getX(), nodes.get(i).getY());
+    }
+    return indices;
+  }
+
+  /**
+   * Finds the first walkable node from a node on.
+   */
+  private static int findWalkable(GridGraph board, int node){
+    node %= board.getNodeCount();
+    while (!board.isWalkable(node)) {
+      node = (node + 1) % board.getNodeCount();
+    }
+    return node;
+  }
+}
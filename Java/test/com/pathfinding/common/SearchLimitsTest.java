@@ -0,0 +1,112 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the search limits, which must stop a search in time, and leave a partial path which starts at the start node.
+ */
+class SearchLimitsTest {
+
+  private static final int MAX_EXPANSIONS = 200; //The expansion limit of the limited searches.
+
+  @Test
+  void expansionLimitsStopTheSearch(){
+    CompactBoard board = createBoard(1);
+    int start = findWalkable(board, 0);
+    int destination = findWalkable(board, board.getNodeCount() - 200);
+
+    for (Pathfinding algorithm : createAlgorithms(board)) {
+      String name = algorithm.getClass().getSimpleName();
+      assertTrue(algorithm.getPath(start, destination, new SearchContext()).isComplete(), name);
+
+      algorithm.setLimits(new SearchLimits(MAX_EXPANSIONS, Integer.MAX_VALUE, Long.MAX_VALUE, TimeUnit.NANOSECONDS));
+      Path path = algorithm.getPath(start, destination, new SearchContext());
+
+      assertFalse(path.isComplete(), name);
+      assertTrue(path.getClosedCount() <= MAX_EXPANSIONS, name + " expanded " + path.getClosedCount());
+      assertTrue(path.getStepCount() > 0, name + " left no partial path");
+      assertPartialPath(board, start, path);
+    }
+  }
+
+  @Test
+  void openSizeLimitsStopTheSearch(){
+    CompactBoard board = createBoard(2);
+    Astar astar = new Astar(board);
+    astar.setLimits(new SearchLimits(Integer.MAX_VALUE, 50, Long.MAX_VALUE, TimeUnit.NANOSECONDS));
+
+    Path path = astar.getPath(findWalkable(board, 0), findWalkable(board, board.getNodeCount() - 200), new SearchContext());
+
+    assertFalse(path.isComplete());
+  }
+
+  @Test
+  void slicedSearchesReachTheLimit(){
+    CompactBoard board = createBoard(3);
+    Dijkstras dijkstras = new Dijkstras(board);
+    dijkstras.setLimits(new SearchLimits(MAX_EXPANSIONS, Integer.MAX_VALUE, Long.MAX_VALUE, TimeUnit.NANOSECONDS));
+
+    SearchHandle handle = dijkstras.beginSearch(findWalkable(board, 0), findWalkable(board, board.getNodeCount() - 200));
+    handle.complete();
+
+    assertEquals(SearchHandle.Status.LIMIT_REACHED, handle.getStatus());
+    assertFalse(handle.getPath().isComplete());
+  }
+
+  @Test
+  void negativeLimitsAreRejected(){
+    assertThrows(IllegalArgumentException.class, () -> new SearchLimits(-1, 10, 10, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Creates the algorithms which return the part of their search towards the destination.
+   */
+  private static Pathfinding[] createAlgorithms(GridGraph board){
+    return new Pathfinding[] {new Astar(board), new Dijkstras(board), new BreadthFirst(board), new JumpPointSearch(board), new BidirectionalAstar(board)};
+  }
+
+  /**
+   * Checks that a partial path leads from the start node through walkable neighbours.
+   */
+  private static void assertPartialPath(GridGraph board, int start, Path path){
+    List<Node> steps = path.getSteps();
+    int previous = start;
+
+    for (int i = steps.size() - 1; i >= 0; i--) {
+      int node = board.getIndex(steps.get(i).getX(), steps.get(i).getY());
+      assertTrue(board.isWalkable(node));
+      assertEquals(1, Math.abs(board.getX(node) - board.getX(previous)) + Math.abs(board.getY(node) - board.getY(previous)));
+      previous = node;
+    }
+  }
+
+  /**
+   * Generates a board with walls and costs.
+   */
+  private static CompactBoard createBoard(long seed){
+    CompactBoard board = new CompactBoard(128, 128);
+    BoardGenerator generator = new BoardGenerator(seed);
+    generator.setWallDensity(0.15);
+    generator.setCostDistribution(CostDistribution.uniform(0, 3));
+    generator.generate(board);
+    return board;
+  }
+
+  /**
+   * Finds the first walkable node from a node on.
+   */
+  private static int findWalkable(GridGraph board, int node){
+    while (!board.isWalkable(node)) {
+      node = (node + 1) % board.getNodeCount();
+    }
+    return node;
+  }
+}
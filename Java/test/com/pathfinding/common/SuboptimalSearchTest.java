@@ -0,0 +1,87 @@
+package com.pathfinding.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The tests of the suboptimality bounds, which every path must keep, and which the optimal algorithms must report as 1.
+ */
+class SuboptimalSearchTest {
+
+  @Test
+  void weightedPathsKeepTheBound(){
+    CompactBoard board = createBoard(1);
+
+    for (double weight : new double[] {1, 1.5, 3}) {
+      Astar astar = new Astar(board);
+      astar.setWeight(weight);
+      assertQueriesKeepTheBound(board, astar, weight);
+    }
+  }
+
+  @Test
+  void focalPathsKeepTheBound(){
+    CompactBoard board = createBoard(2);
+
+    for (double epsilon : new double[] {0, 0.25, 1}) {
+      assertQueriesKeepTheBound(board, new FocalSearch(board, epsilon), 1 + epsilon);
+    }
+  }
+
+  @Test
+  void optimalAlgorithmsReportABoundOfOne(){
+    CompactBoard board = createBoard(3);
+    Pathfinding[] algorithms = {new Dijkstras(board), new Astar(board), new JumpPointSearch(board), new BidirectionalDijkstras(board),
+        new BidirectionalAstar(board), new IterativeDeepeningAstar(board)};
+
+    for (Pathfinding algorithm : algorithms) {
+      assertEquals(1, algorithm.getSuboptimalityBound(), algorithm.getClass().getSimpleName());
+      Path path = algorithm.getPath(findWalkable(board, 0), findWalkable(board, 40), new SearchContext());
+      assertEquals(1, path.getSuboptimalityBound(), algorithm.getClass().getSimpleName());
+    }
+  }
+
+  /**
+   * Checks that the paths of an algorithm cost at most the bound times the cheapest ones, and report the bound.
+   */
+  private static void assertQueriesKeepTheBound(GridGraph board, Pathfinding algorithm, double bound){
+    Dijkstras dijkstras = new Dijkstras(board);
+    SearchContext context = new SearchContext();
+
+    for (int query = 0; query < 50; query++) {
+      int start = findWalkable(board, query * 97);
+      int destination = findWalkable(board, query * 389);
+      Path optimal = dijkstras.getPath(start, destination, context);
+      Path path = algorithm.getPath(start, destination, context);
+
+      assertEquals(bound, path.getSuboptimalityBound());
+      assertEquals(optimal.getStepCount() > 0, path.getStepCount() > 0);
+      assertTrue(path.getTotalCost() <= bound * optimal.getTotalCost(), "Query " + start + " -> " + destination + " with bound " + bound);
+    }
+  }
+
+  /**
+   * Generates a board with walls and costs.
+   */
+  private static CompactBoard createBoard(long seed){
+    CompactBoard board = new CompactBoard(64, 64);
+    BoardGenerator generator = new BoardGenerator(seed);
+    generator.setWallDensity(0.2);
+    generator.setCostDistribution(CostDistribution.uniform(0, 9));
+    generator.generate(board);
+    return board;
+  }
+
+  /**
+   * Finds the first walkable node from a node on.
+   */
+  private static int findWalkable(GridGraph board, int node){
+    node %= board.getNodeCount();
+    while (!board.isWalkable(node)) {
+      node = (node + 1) % board.getNodeCount();
+    }
+    return node;
+  }
+}